@@ -35,7 +35,7 @@ func ExecutePlan(plan model.Plan, rdb *redis.Client) error {
 
 // CheckGoal verifica se o estado desejado do objetivo foi alcançado na base de fatos atual.
 func CheckGoal(goal model.Goal, rdb *redis.Client) (bool, error) {
-	currentState, err := rdb.HGetAll(context.Background(), "fact-base").Result()
+	currentState, err := rdb.HGetAll(context.Background(), factBaseKey).Result()
 	if err != nil {
 		return false, fmt.Errorf("falha ao ler a base de fatos do Redis: %w", err)
 	}
@@ -122,13 +122,15 @@ func applyEffects(action model.Action, discoveredFacts map[string]interface{}, r
 	}
 
 	log.Printf("  -> Aplicando efeitos da ação '%s' no Redis...", action.Name)
+	values := make(map[string]string, len(allEffects))
 	for key, value := range allEffects {
-		strValue := fmt.Sprintf("%v", value)
-		err := rdb.HSet(context.Background(), "fact-base", key, strValue).Err()
-		if err != nil {
-			log.Printf("  -> ❗ Falha ao atualizar o fato '%s' no Redis: %v", key, err)
-		} else {
-			log.Printf("  -> Fato atualizado: {%s: %s}", key, strValue)
-		}
+		values[key] = fmt.Sprintf("%v", value)
+	}
+	// Uma única escrita: a versão da base avança uma vez por ação
+	version, err := updateFacts(context.Background(), rdb, values)
+	if err != nil {
+		log.Printf("  -> ❗ Falha ao atualizar os fatos %v no Redis: %v", values, err)
+		return
 	}
-}
\ No newline at end of file
+	log.Printf("  -> Fatos atualizados (versão %d da base): %v", version, values)
+}
@@ -0,0 +1,109 @@
+package executor
+
+import (
+	"encoding/json"
+	"fmt"
+	"log"
+	"net/http"
+	"strings"
+	"sync"
+	"time"
+
+	"aoe-executor/model"
+)
+
+// StalePlanError indica um plano por referência feito com outra versão do
+// catálogo; o objetivo deve ser replanejado com o catálogo atual.
+type StalePlanError struct {
+	Goal           model.Goal
+	PlanVersion    string
+	CatalogVersion string
+}
+
+func (e *StalePlanError) Error() string {
+	return fmt.Sprintf("plano do objetivo '%s' feito com o catálogo %s, mas o planner está no catálogo %s",
+		e.Goal.Name, e.PlanVersion, e.CatalogVersion)
+}
+
+// CatalogClient busca o catálogo de ações do planner e guarda a última versão,
+// para resolver os planos publicados por referência.
+type CatalogClient struct {
+	url    string
+	client *http.Client
+
+	mu      sync.Mutex
+	version string
+	actions map[string]model.Action
+}
+
+// NewCatalogClient cria o cliente do catálogo do planner em plannerURL.
+func NewCatalogClient(plannerURL string) *CatalogClient {
+	return &CatalogClient{
+		url:    strings.TrimRight(plannerURL, "/") + "/api/actions/catalog",
+		client: &http.Client{Timeout: 10 * time.Second},
+	}
+}
+
+// Resolve monta o payload completo a partir da referência. O catálogo só é
+// buscado de novo quando o plano cita uma versão diferente da guardada.
+func (c *CatalogClient) Resolve(ref model.PlanReference) (model.PlanDispatchPayload, error) {
+	c.mu.Lock()
+	defer c.mu.Unlock()
+
+	if c.version != ref.CatalogVersion {
+		if err := c.refresh(); err != nil {
+			return model.PlanDispatchPayload{}, err
+		}
+		if c.version != ref.CatalogVersion {
+			return model.PlanDispatchPayload{}, &StalePlanError{Goal: ref.TargetGoal, PlanVersion: ref.CatalogVersion, CatalogVersion: c.version}
+		}
+	}
+
+	steps := make([]model.Action, 0, len(ref.Steps))
+	for _, name := range ref.Steps {
+		action, ok := c.actions[name]
+		if !ok {
+			return model.PlanDispatchPayload{}, fmt.Errorf("ação '%s' não existe no catálogo %s", name, c.version)
+		}
+		steps = append(steps, action)
+	}
+	plan := model.Plan{TargetGoal: ref.TargetGoal, Steps: steps, TotalCost: ref.TotalCost}
+	return model.PlanDispatchPayload{TargetGoal: ref.TargetGoal, Plan: plan}, nil
+}
+
+// refresh baixa o catálogo atual; com If-None-Match o planner responde 304 se ele não mudou.
+func (c *CatalogClient) refresh() error {
+	req, err := http.NewRequest(http.MethodGet, c.url, nil)
+	if err != nil {
+		return fmt.Errorf("falha ao criar a requisição do catálogo: %w", err)
+	}
+	if c.version != "" {
+		req.Header.Set("If-None-Match", `"`+c.version+`"`)
+	}
+
+	resp, err := c.client.Do(req)
+	if err != nil {
+		return fmt.Errorf("falha ao buscar o catálogo de ações: %w", err)
+	}
+	defer resp.Body.Close()
+
+	if resp.StatusCode == http.StatusNotModified {
+		return nil
+	}
+	if resp.StatusCode < 200 || resp.StatusCode >= 300 {
+		return fmt.Errorf("busca do catálogo de ações falhou com status: %s", resp.Status)
+	}
+
+	var catalog model.ActionCatalog
+	if err := json.NewDecoder(resp.Body).Decode(&catalog); err != nil {
+		return fmt.Errorf("falha ao decodificar o catálogo de ações: %w", err)
+	}
+	actions := make(map[string]model.Action, len(catalog.Actions))
+	for _, action := range catalog.Actions {
+		actions[action.Name] = action
+	}
+	c.version = catalog.Version
+	c.actions = actions
+	log.Printf("📚 Catálogo de ações %s carregado com %d ação(ões).", catalog.Version, len(actions))
+	return nil
+}
@@ -0,0 +1,285 @@
+package executor
+
+import (
+	"encoding/binary"
+	"errors"
+	"fmt"
+	"math"
+)
+
+// decodeCBOR decodifica o subconjunto de CBOR (RFC 8949) que o planner gera:
+// inteiros, strings, arrays e mapas (de tamanho definido ou não), booleanos, nulo
+// e floats. O resultado usa os mesmos tipos genéricos do encoding/json, para virar
+// struct pelo mesmo caminho do JSON.
+func decodeCBOR(data []byte) (interface{}, error) {
+	d := cborDecoder{data: data}
+	value, err := d.value()
+	if err != nil {
+		return nil, err
+	}
+	if d.pos != len(data) {
+		return nil, fmt.Errorf("cbor: %d byte(s) após o fim do valor", len(data)-d.pos)
+	}
+	return value, nil
+}
+
+const cborBreak = 0xff
+
+var errCBORTruncated = errors.New("cbor: dados truncados")
+
+type cborDecoder struct {
+	data []byte
+	pos  int
+}
+
+func (d *cborDecoder) next(n int) ([]byte, error) {
+	if n < 0 || len(d.data)-d.pos < n {
+		return nil, errCBORTruncated
+	}
+	chunk := d.data[d.pos : d.pos+n]
+	d.pos += n
+	return chunk, nil
+}
+
+// atBreak consome o marcador de fim de um item de tamanho indefinido, se for o próximo byte.
+func (d *cborDecoder) atBreak() (bool, error) {
+	if d.pos >= len(d.data) {
+		return false, errCBORTruncated
+	}
+	if d.data[d.pos] == cborBreak {
+		d.pos++
+		return true, nil
+	}
+	return false, nil
+}
+
+// argument lê o argumento do cabeçalho; indefinite indica tamanho não informado.
+func (d *cborDecoder) argument(info byte) (value uint64, indefinite bool, err error) {
+	switch {
+	case info < 24:
+		return uint64(info), false, nil
+	case info == 24:
+		b, err := d.next(1)
+		if err != nil {
+			return 0, false, err
+		}
+		return uint64(b[0]), false, nil
+	case info == 25:
+		b, err := d.next(2)
+		if err != nil {
+			return 0, false, err
+		}
+		return uint64(binary.BigEndian.Uint16(b)), false, nil
+	case info == 26:
+		b, err := d.next(4)
+		if err != nil {
+			return 0, false, err
+		}
+		return uint64(binary.BigEndian.Uint32(b)), false, nil
+	case info == 27:
+		b, err := d.next(8)
+		if err != nil {
+			return 0, false, err
+		}
+		return binary.BigEndian.Uint64(b), false, nil
+	case info == 31:
+		return 0, true, nil
+	}
+	return 0, false, fmt.Errorf("cbor: informação adicional %d inválida", info)
+}
+
+func (d *cborDecoder) value() (interface{}, error) {
+	header, err := d.next(1)
+	if err != nil {
+		return nil, err
+	}
+	major, info := header[0]>>5, header[0]&0x1f
+
+	if major == 7 {
+		return d.simple(info)
+	}
+	arg, indefinite, err := d.argument(info)
+	if err != nil {
+		return nil, err
+	}
+	if indefinite && (major == 0 || major == 1 || major == 6) {
+		return nil, fmt.Errorf("cbor: tamanho indefinido no tipo %d", major)
+	}
+
+	switch major {
+	case 0:
+		return arg, nil
+	case 1:
+		if arg > math.MaxInt64 {
+			return nil, errors.New("cbor: inteiro negativo fora do intervalo")
+		}
+		return -1 - int64(arg), nil
+	case 2, 3:
+		raw, err := d.str(major, arg, indefinite)
+		if err != nil {
+			return nil, err
+		}
+		if major == 2 {
+			return raw, nil
+		}
+		return string(raw), nil
+	case 4:
+		return d.array(arg, indefinite)
+	case 5:
+		return d.mapping(arg, indefinite)
+	default:
+		// Tag (tipo 6): o valor marcado é usado como está
+		return d.value()
+	}
+}
+
+func (d *cborDecoder) str(major byte, length uint64, indefinite bool) ([]byte, error) {
+	if !indefinite {
+		if length > uint64(len(d.data)) {
+			return nil, errCBORTruncated
+		}
+		return d.next(int(length))
+	}
+	// Tamanho indefinido: sequência de pedaços definidos do mesmo tipo até o break
+	var raw []byte
+	for {
+		done, err := d.atBreak()
+		if err != nil {
+			return nil, err
+		}
+		if done {
+			return raw, nil
+		}
+		header, err := d.next(1)
+		if err != nil {
+			return nil, err
+		}
+		if header[0]>>5 != major || header[0]&0x1f == 31 {
+			return nil, errors.New("cbor: pedaço inválido em string de tamanho indefinido")
+		}
+		length, _, err := d.argument(header[0] & 0x1f)
+		if err != nil {
+			return nil, err
+		}
+		if length > uint64(len(d.data)) {
+			return nil, errCBORTruncated
+		}
+		chunk, err := d.next(int(length))
+		if err != nil {
+			return nil, err
+		}
+		raw = append(raw, chunk...)
+	}
+}
+
+func (d *cborDecoder) array(length uint64, indefinite bool) ([]interface{}, error) {
+	// Cada item ocupa ao menos um byte: limita a alocação em dados corrompidos
+	if !indefinite && length > uint64(len(d.data)-d.pos) {
+		return nil, errCBORTruncated
+	}
+	items := make([]interface{}, 0, length)
+	for i := uint64(0); indefinite || i < length; i++ {
+		if indefinite {
+			done, err := d.atBreak()
+			if err != nil {
+				return nil, err
+			}
+			if done {
+				break
+			}
+		}
+		item, err := d.value()
+		if err != nil {
+			return nil, err
+		}
+		items = append(items, item)
+	}
+	return items, nil
+}
+
+func (d *cborDecoder) mapping(length uint64, indefinite bool) (map[string]interface{}, error) {
+	if !indefinite && length > uint64(len(d.data)-d.pos) {
+		return nil, errCBORTruncated
+	}
+	entries := make(map[string]interface{}, length)
+	for i := uint64(0); indefinite || i < length; i++ {
+		if indefinite {
+			done, err := d.atBreak()
+			if err != nil {
+				return nil, err
+			}
+			if done {
+				break
+			}
+		}
+		key, err := d.value()
+		if err != nil {
+			return nil, err
+		}
+		name, ok := key.(string)
+		if !ok {
+			return nil, fmt.Errorf("cbor: chave de mapa do tipo %T não suportada", key)
+		}
+		entry, err := d.value()
+		if err != nil {
+			return nil, err
+		}
+		entries[name] = entry
+	}
+	return entries, nil
+}
+
+func (d *cborDecoder) simple(info byte) (interface{}, error) {
+	switch info {
+	case 20:
+		return false, nil
+	case 21:
+		return true, nil
+	case 22, 23:
+		return nil, nil
+	case 25:
+		b, err := d.next(2)
+		if err != nil {
+			return nil, err
+		}
+		return halfToFloat(binary.BigEndian.Uint16(b)), nil
+	case 26:
+		b, err := d.next(4)
+		if err != nil {
+			return nil, err
+		}
+		return float64(math.Float32frombits(binary.BigEndian.Uint32(b))), nil
+	case 27:
+		b, err := d.next(8)
+		if err != nil {
+			return nil, err
+		}
+		return math.Float64frombits(binary.BigEndian.Uint64(b)), nil
+	case 31:
+		return nil, errors.New("cbor: break fora de item de tamanho indefinido")
+	}
+	return nil, fmt.Errorf("cbor: valor simples %d não suportado", info)
+}
+
+// halfToFloat converte um float de 16 bits (IEEE 754 binary16).
+func halfToFloat(half uint16) float64 {
+	exponent := int(half>>10) & 0x1f
+	mantissa := float64(half & 0x3ff)
+	var value float64
+	switch exponent {
+	case 0:
+		value = math.Ldexp(mantissa, -24)
+	case 31:
+		if mantissa == 0 {
+			value = math.Inf(1)
+		} else {
+			value = math.NaN()
+		}
+	default:
+		value = math.Ldexp(mantissa+1024, exponent-25)
+	}
+	if half&0x8000 != 0 {
+		return -value
+	}
+	return value
+}
@@ -0,0 +1,65 @@
+package executor
+
+import (
+	"bytes"
+	"compress/gzip"
+	"encoding/json"
+	"fmt"
+	"io"
+	"strings"
+
+	"aoe-executor/model"
+)
+
+// Tipos de conteúdo do formato por referência publicados pelo planner.
+const (
+	PlanReferenceJSON = "application/vnd.aoe.plan-ref+json"
+	PlanReferenceCBOR = "application/vnd.aoe.plan-ref+cbor"
+)
+
+// DecodePayload lê a mensagem de plano conforme o content-type e o content-encoding.
+// O payload completo em JSON continua aceito; o formato por referência é resolvido
+// pelo catálogo de ações do planner.
+func DecodePayload(contentType, contentEncoding string, body []byte, catalog *CatalogClient) (model.PlanDispatchPayload, error) {
+	var payload model.PlanDispatchPayload
+
+	if strings.EqualFold(contentEncoding, "gzip") {
+		reader, err := gzip.NewReader(bytes.NewReader(body))
+		if err != nil {
+			return payload, fmt.Errorf("falha ao abrir o corpo gzip: %w", err)
+		}
+		body, err = io.ReadAll(reader)
+		if err != nil {
+			return payload, fmt.Errorf("falha ao descompactar o corpo gzip: %w", err)
+		}
+	}
+
+	mediaType, _, _ := strings.Cut(contentType, ";")
+	switch strings.TrimSpace(strings.ToLower(mediaType)) {
+	case "", "application/json":
+		err := json.Unmarshal(body, &payload)
+		return payload, err
+	case PlanReferenceJSON:
+		var ref model.PlanReference
+		if err := json.Unmarshal(body, &ref); err != nil {
+			return payload, err
+		}
+		return catalog.Resolve(ref)
+	case PlanReferenceCBOR:
+		generic, err := decodeCBOR(body)
+		if err != nil {
+			return payload, err
+		}
+		// Reaproveita as tags JSON das structs para mapear o valor genérico
+		asJSON, err := json.Marshal(generic)
+		if err != nil {
+			return payload, err
+		}
+		var ref model.PlanReference
+		if err := json.Unmarshal(asJSON, &ref); err != nil {
+			return payload, err
+		}
+		return catalog.Resolve(ref)
+	}
+	return payload, fmt.Errorf("content-type '%s' não suportado", contentType)
+}
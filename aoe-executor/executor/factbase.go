@@ -0,0 +1,58 @@
+package executor
+
+import (
+	"context"
+
+	"github.com/go-redis/redis/v8"
+)
+
+const (
+	factBaseKey       = "fact-base"
+	factVersionKey    = factBaseKey + ":version"
+	factChangeLogKey  = factBaseKey + ":changes"
+	factChangeLogSize = 1024
+)
+
+// updateFactsScript é o mesmo script de escrita do RedisFactBaseRepository do
+// planner: só grava os campos que mudam e, se algum mudou, avança a versão da base
+// e registra os campos alterados no log de mudanças, tudo de uma vez.
+//
+// Mantenha em sincronia com RedisFactBaseRepository.UPDATE_SCRIPT
+// (aoe-planner/.../infrastructure/repository/RedisFactBaseRepository.java): os dois
+// lados escrevem na mesma base, e o planner lê o log de mudanças neste formato.
+var updateFactsScript = redis.NewScript(`
+if redis.call('EXISTS', KEYS[2]) == 0 then
+  redis.call('DEL', KEYS[3])
+end
+local changes = {}
+local puts = tonumber(ARGV[2])
+for i = 3, 2 + 2 * puts, 2 do
+  if redis.call('HGET', KEYS[1], ARGV[i]) ~= ARGV[i + 1] then
+    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+    changes[#changes + 1] = ARGV[i]
+    changes[#changes + 1] = '=' .. ARGV[i + 1]
+  end
+end
+for i = 3 + 2 * puts, #ARGV do
+  if redis.call('HDEL', KEYS[1], ARGV[i]) == 1 then
+    changes[#changes + 1] = ARGV[i]
+    changes[#changes + 1] = '-'
+  end
+end
+if #changes == 0 then
+  return tonumber(redis.call('GET', KEYS[2]) or '0')
+end
+local version = redis.call('INCR', KEYS[2])
+redis.call('XADD', KEYS[3], 'MAXLEN', '~', ARGV[1], version .. '-0', unpack(changes))
+return version
+`)
+
+// updateFacts grava os fatos na base e devolve a versão dela depois da escrita.
+func updateFacts(ctx context.Context, rdb *redis.Client, facts map[string]string) (int64, error) {
+	args := make([]interface{}, 0, 2+2*len(facts))
+	args = append(args, factChangeLogSize, len(facts))
+	for name, value := range facts {
+		args = append(args, name, value)
+	}
+	return updateFactsScript.Run(ctx, rdb, []string{factBaseKey, factVersionKey, factChangeLogKey}, args...).Int64()
+}
@@ -3,6 +3,7 @@ package main
 import (
 	"context"
 	"encoding/json"
+	"errors"
 	"log"
 	"os"
 
@@ -100,6 +101,13 @@ func main() {
 
 	log.Println("✅ Conectado ao RabbitMQ e Redis. Aguardando planos...")
 
+	// Catálogo de ações do planner, para os planos publicados por referência.
+	plannerURL := os.Getenv("PLANNER_URL")
+	if plannerURL == "" {
+		plannerURL = "http://localhost:8080"
+	}
+	catalog := executor.NewCatalogClient(plannerURL)
+
 	// --- 5. Iniciar o Consumo de Mensagens ---
 	msgs, err := ch.Consume(q.Name, "", false, false, false, false, nil)
 	failOnError(err, "Falha ao registrar um consumidor")
@@ -108,10 +116,17 @@ func main() {
 
 	go func() {
 		for d := range msgs {
-			var payload model.PlanDispatchPayload
-			err := json.Unmarshal(d.Body, &payload)
+			payload, err := executor.DecodePayload(d.ContentType, d.ContentEncoding, d.Body, catalog)
+			var stale *executor.StalePlanError
+			if errors.As(err, &stale) {
+				// Plano feito com outro catálogo: descarta e pede um plano novo
+				log.Printf("⚠️ %v. Solicitando replanejamento...", stale)
+				replanPublisher(stale.Goal)
+				d.Ack(false)
+				continue
+			}
 			if err != nil {
-				log.Printf("❌ Erro ao decodificar o payload JSON: %s", err)
+				log.Printf("❌ Erro ao decodificar o payload do plano: %s", err)
 				d.Reject(false)
 				continue
 			}
@@ -37,3 +37,18 @@ type PlanDispatchPayload struct {
 	TargetGoal Goal `json:"targetGoal"`
 	Plan       Plan `json:"plan"`
 }
+
+// PlanReference é o formato compacto publicado pelo planner: as ações vão só pelo
+// nome, junto da versão do catálogo em que o plano foi feito.
+type PlanReference struct {
+	TargetGoal     Goal     `json:"targetGoal"`
+	CatalogVersion string   `json:"catalogVersion"`
+	Steps          []string `json:"steps"`
+	TotalCost      int      `json:"totalCost"`
+}
+
+// ActionCatalog é o catálogo de ações servido pelo planner em /api/actions/catalog.
+type ActionCatalog struct {
+	Version string   `json:"version"`
+	Actions []Action `json:"actions"`
+}
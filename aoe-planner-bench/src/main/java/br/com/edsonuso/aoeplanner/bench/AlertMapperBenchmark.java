@@ -0,0 +1,83 @@
+package br.com.edsonuso.aoeplanner.bench;
+
+import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.infrastructure.service.DeclarativeAlertMapper;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link DeclarativeAlertMapper#map} com arquivos de mapeamento sintéticos.
+ *
+ * O arquivo YAML é gerado em um diretório temporário e carregado pelo mesmo
+ * {@code initialize()} usado na aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int mappingCount;
+
+    private DeclarativeAlertMapper mapper;
+    private AlertmanagerWebhookPayload.Alert matchingAlert;
+    private AlertmanagerWebhookPayload.Alert unmatchedAlert;
+    private Path mappingsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticDomainGenerator generator = new SyntheticDomainGenerator(42L);
+        mappingsFile = Files.createTempFile("alert-mappings-", ".yml");
+        new ObjectMapper(new YAMLFactory()).writeValue(mappingsFile.toFile(), generator.alertMappings(mappingCount));
+
+        mapper = new DeclarativeAlertMapper(new SimpleMeterRegistry());
+        Field path = ReflectionUtils.findField(DeclarativeAlertMapper.class, "mappingsPath");
+        ReflectionUtils.makeAccessible(path);
+        ReflectionUtils.setField(path, mapper, mappingsFile.toUri().toString());
+        mapper.initialize();
+
+        matchingAlert = new AlertmanagerWebhookPayload.Alert(generator.alertLabels(0, true), "firing");
+        unmatchedAlert = new AlertmanagerWebhookPayload.Alert(generator.alertLabels(0, false), "firing");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(mappingsFile);
+    }
+
+    @Benchmark
+    public Set<Fact> mapMatchingAlert() {
+        return mapper.map(matchingAlert);
+    }
+
+    @Benchmark
+    public Set<Fact> mapUnmatchedAlert() {
+        return mapper.map(unmatchedAlert);
+    }
+}
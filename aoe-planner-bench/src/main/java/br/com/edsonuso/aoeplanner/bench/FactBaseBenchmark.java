@@ -0,0 +1,69 @@
+package br.com.edsonuso.aoeplanner.bench;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.infrastructure.repository.InMemoryFactBaseRepository;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede os caminhos de conversão da base de fatos: leitura e escrita no repositório
+ * em memória e o empacotamento dos fatos no estado compilado do planejador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactBaseBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int factCount;
+
+    @Param({"100", "10000"})
+    public int actionCount;
+
+    private Set<Fact> facts;
+    private CompiledDomain domain;
+    private InMemoryFactBaseRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDomainGenerator.Problem problem = new SyntheticDomainGenerator(42L).generate(actionCount, factCount, 4, true);
+        facts = problem.facts();
+        domain = CompiledDomain.compile(problem.actions());
+        repository = new InMemoryFactBaseRepository();
+        repository.updateFactBase(facts);
+    }
+
+    @Benchmark
+    public PackedState encodeFactBase() {
+        return domain.encode(facts);
+    }
+
+    @Benchmark
+    public Set<Fact> readInMemoryFactBase() {
+        return repository.getCurrentFactBase();
+    }
+
+    @Benchmark
+    public InMemoryFactBaseRepository writeInMemoryFactBase() {
+        repository.updateFactBase(facts);
+        return repository;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.edsonuso.aoeplanner.bench;
+
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link GoapPlanner#findPlan} sobre problemas sintéticos.
+ *
+ * O catálogo é gerado uma vez por combinação de parâmetros e reaproveitado entre
+ * as invocações, como acontece com o cache do {@code YamlActionRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoapPlannerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int actionCount;
+
+    @Param({"10", "1000", "100000"})
+    public int factCount;
+
+    @Param({"1", "4", "16"})
+    public int planDepth;
+
+    @Param({"true", "false"})
+    public boolean solvable;
+
+    private GoapPlanner planner;
+    private SyntheticDomainGenerator.Problem problem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        planner = new GoapPlanner();
+        problem = new SyntheticDomainGenerator(42L).generate(actionCount, factCount, planDepth, solvable);
+    }
+
+    @Benchmark
+    public Optional<Plan> findPlan() {
+        return planner.findPlan(problem.facts(), problem.actions(), problem.goal());
+    }
+}
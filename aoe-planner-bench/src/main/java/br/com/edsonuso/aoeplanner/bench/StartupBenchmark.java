@@ -0,0 +1,63 @@
+package br.com.edsonuso.aoeplanner.bench;
+
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.infrastructure.warmup.WarmupWorkload;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o primeiro {@link GoapPlanner#findPlan} de uma JVM nova (tempo até o primeiro plano).
+ *
+ * Cada fork mede uma única chamada, sem aquecimento do JMH. Com {@code warmedUp}, o fork
+ * roda antes o {@link WarmupWorkload} usado no boot da aplicação; o problema medido é
+ * outro (o do {@link SyntheticDomainGenerator}), como o primeiro alerta real depois do deploy.
+ * Para medir com o arquivo de CDS da imagem, passe as opções da JVM em {@code -jvmArgsAppend}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean warmedUp;
+
+    @Param({"100", "1000"})
+    public int actionCount;
+
+    private GoapPlanner planner;
+    private SyntheticDomainGenerator.Problem problem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        planner = new GoapPlanner();
+        problem = new SyntheticDomainGenerator(42L).generate(actionCount, actionCount, 4, true);
+        if (warmedUp) {
+            WarmupWorkload workload = new WarmupWorkload();
+            workload.run(new GoapPlanner(), workload.alertMapper(new SimpleMeterRegistry()), 200, Duration.ofSeconds(10));
+        }
+    }
+
+    @Benchmark
+    public Optional<Plan> firstPlan() {
+        return planner.findPlan(problem.facts(), problem.actions(), problem.goal());
+    }
+}
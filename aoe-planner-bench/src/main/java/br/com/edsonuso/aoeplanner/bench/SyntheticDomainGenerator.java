@@ -0,0 +1,129 @@
+package br.com.edsonuso.aoeplanner.bench;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.AlertMapping;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactMapping;
+import br.com.edsonuso.aoeplanner.model.Goal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Gera catálogos de ações, bases de fatos e mapeamentos de alertas sintéticos.
+ *
+ * O domínio tem uma cadeia de remediação com {@code planDepth} passos
+ * ({@code remediation_stage: 0 -> 1 -> ... -> planDepth}) espalhada entre ações
+ * ruído que reparam outros serviços (cerca de 2% deles começam degradados), como
+ * acontece em catálogos com vários serviços. O objetivo inalcançável depende de
+ * uma ação cuja pré-condição nenhuma outra ação produz. A semente é fixa para que
+ * duas execuções gerem o mesmo problema.
+ */
+public final class SyntheticDomainGenerator {
+
+    public static final String STAGE_FACT = "remediation_stage";
+    private static final String LOCK_FACT = "change_freeze";
+    private static final int DEGRADED_PERCENT = 2;
+
+    private final Random random;
+
+    public SyntheticDomainGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public record Problem(List<Action> actions, Set<Fact> facts, Goal goal) {
+    }
+
+    public Problem generate(int actionCount, int factCount, int planDepth, boolean solvable) {
+        List<Action> actions = new ArrayList<>(actionCount);
+
+        // Cadeia principal: cada passo avança um estágio
+        for (int stage = 0; stage < planDepth; stage++) {
+            actions.add(action("Remediate_" + stage,
+                    Map.of(STAGE_FACT, stage),
+                    Map.of(STAGE_FACT, stage + 1),
+                    1 + random.nextInt(10)));
+        }
+
+        // Atalho caro que só é útil com o congelamento desativado (nunca acontece)
+        actions.add(action("EmergencyOverride",
+                Map.of(LOCK_FACT, "lifted"),
+                Map.of(STAGE_FACT, planDepth + 1),
+                1));
+
+        // Ações ruído: reparos alternativos por serviço, aplicáveis só nos serviços degradados
+        int noiseFacts = Math.max(1, Math.min(factCount, actionCount) / 2);
+        while (actions.size() < actionCount) {
+            int i = actions.size();
+            String fact = "svc_" + random.nextInt(noiseFacts) + "_degraded";
+            actions.add(action("Repair_" + i + "_" + fact,
+                    Map.of(fact, true),
+                    Map.of(fact, false),
+                    1 + random.nextInt(20)));
+        }
+
+        Set<Fact> facts = new HashSet<>(factCount * 2);
+        facts.add(new Fact(STAGE_FACT, 0));
+        facts.add(new Fact(LOCK_FACT, "active"));
+        for (int i = 0; i < noiseFacts && facts.size() < factCount; i++) {
+            facts.add(new Fact("svc_" + i + "_degraded", i == 0 || random.nextInt(100) < DEGRADED_PERCENT));
+        }
+        // Completa com métricas que nenhuma ação lê
+        for (int i = 0; facts.size() < factCount; i++) {
+            facts.add(new Fact("metric_" + i, i % 3 == 0 ? "label-" + i : (Object) random.nextInt(1000)));
+        }
+
+        int target = solvable ? planDepth : planDepth + 1;
+        Goal goal = new Goal("synthetic-" + (solvable ? "solvable" : "unsolvable") + "-" + planDepth, 1,
+                Map.of(STAGE_FACT, target));
+        return new Problem(actions, facts, goal);
+    }
+
+    /**
+     * Gera {@code mappingCount} mapeamentos; o primeiro alerta ({@code Alert_0}) sempre existe.
+     */
+    public List<AlertMapping> alertMappings(int mappingCount) {
+        List<AlertMapping> mappings = new ArrayList<>(mappingCount);
+        for (int i = 0; i < mappingCount; i++) {
+            AlertMapping mapping = new AlertMapping();
+            mapping.setAlertName("Alert_" + (i % Math.max(1, mappingCount / 2)));
+            Map<String, String> matches = new LinkedHashMap<>();
+            matches.put("service", "svc-" + (i % 7));
+            if (i % 2 == 0) {
+                matches.put("severity", "critical");
+            }
+            mapping.setMatches(matches);
+
+            FactMapping literal = new FactMapping();
+            literal.setName("svc_" + i + "_degraded");
+            literal.setValue("true");
+            FactMapping template = new FactMapping();
+            template.setName("last_alert_instance");
+            template.setValue("{{ .CommonLabels.instance }}");
+            FactMapping number = new FactMapping();
+            number.setName("svc_" + i + "_replicas");
+            number.setValue(Integer.toString(i % 5));
+            mapping.setFacts(List.of(literal, template, number));
+            mappings.add(mapping);
+        }
+        return mappings;
+    }
+
+    public Map<String, String> alertLabels(int alertIndex, boolean matching) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        labels.put("alertname", "Alert_" + alertIndex);
+        labels.put("service", matching ? "svc-" + (alertIndex % 7) : "svc-unknown");
+        labels.put("severity", "critical");
+        labels.put("instance", "host-" + alertIndex + ":9090");
+        return labels;
+    }
+
+    private static Action action(String name, Map<String, Object> preconditions, Map<String, Object> effects, int cost) {
+        return new Action(name, preconditions, effects, cost, null);
+    }
+}
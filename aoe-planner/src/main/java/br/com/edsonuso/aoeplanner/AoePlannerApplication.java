@@ -1,15 +1,24 @@
 package br.com.edsonuso.aoeplanner;
 
+import br.com.edsonuso.aoeplanner.application.coordination.DuplicatePlanSuppressor;
+import br.com.edsonuso.aoeplanner.application.coordination.GoalCoordinator;
+import br.com.edsonuso.aoeplanner.application.coordination.PlanningScheduler;
 import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
 import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
 import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanCachePort;
 import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanningMetricsPort;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
 import br.com.edsonuso.aoeplanner.application.usecase.GeneratePlanUseCaseImpl;
 import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import java.time.Duration;
+
 @SpringBootApplication
 public class AoePlannerApplication {
 
@@ -17,14 +26,45 @@ public class AoePlannerApplication {
 		SpringApplication.run(AoePlannerApplication.class, args);
 	}
 
+	@Bean(destroyMethod = "shutdown")
+	public PlanningScheduler planningScheduler(
+			@Value("${planner.scheduler.workers:0}") int workers,
+			@Value("${planner.scheduler.queue-capacity:64}") int queueCapacity,
+			@Value("${planner.scheduler.preemption:true}") boolean preemption,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		// 0 usa um worker por núcleo: a busca é limitada por CPU
+		int workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+		if (virtualThreads) {
+			// Os workers só esperam Redis e RabbitMQ; a busca em si vai para o pool de plataforma do GoapPlanner
+			return new PlanningScheduler(workerCount, queueCapacity, preemption,
+					Thread.ofVirtual().name("planning-worker-", 1).factory());
+		}
+		return new PlanningScheduler(workerCount, queueCapacity, preemption);
+	}
+
 	@Bean
-	public GeneratePlanUseCase generatePlanUseCase(
+	public RelevanceAnalyzer relevanceAnalyzer() {
+		// Os objetivos dos mapeamentos de alerta são registrados pelo DeclarativeAlertMapper
+		return new RelevanceAnalyzer();
+	}
 
+	@Bean
+	public GeneratePlanUseCase generatePlanUseCase(
 			FactBaseRepositoryPort factPort,
 			ActionRepositoryPort actionPort,
 			PlanPublisher planPublisher,
-			GoapPlanner planner
+			GoapPlanner planner,
+			PlanCachePort planCache,
+			PlanningMetricsPort planningMetrics,
+			RelevanceAnalyzer relevanceAnalyzer,
+			PlanningScheduler planningScheduler,
+			@Value("${planner.coordination.debounce:PT0.5S}") Duration debounce,
+			@Value("${planner.coordination.duplicate-window:PT30S}") Duration duplicateWindow
 	) {
-		return new GeneratePlanUseCaseImpl(factPort, actionPort, planPublisher, planner);
+		// Pedidos repetidos do mesmo objetivo são agrupados e planos idênticos não são republicados
+		DuplicatePlanSuppressor publisher = new DuplicatePlanSuppressor(planPublisher, duplicateWindow);
+		GeneratePlanUseCaseImpl useCase = new GeneratePlanUseCaseImpl(factPort, actionPort, publisher, planner, planCache, planningMetrics, relevanceAnalyzer);
+		return new GoalCoordinator(useCase, publisher, planningScheduler, debounce);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package br.com.edsonuso.aoeplanner.application.cache;
+
+import java.util.List;
+
+/**
+ * Resultado de planejamento guardado no cache. As ações são referenciadas pelo
+ * nome e resolvidas novamente contra o catálogo da mesma versão na leitura.
+ *
+ * {@code found = false} registra que a busca não encontrou plano, para que o
+ * caminho de diagnóstico não dispare uma nova busca a cada alerta repetido.
+ */
+public record CachedPlan(boolean found, List<String> actionNames, int totalCost) {
+
+    private static final CachedPlan NO_PLAN = new CachedPlan(false, List.of(), 0);
+
+    public static CachedPlan noPlan() {
+        return NO_PLAN;
+    }
+
+    public static CachedPlan of(List<String> actionNames, int totalCost) {
+        return new CachedPlan(true, List.copyOf(actionNames), totalCost);
+    }
+}
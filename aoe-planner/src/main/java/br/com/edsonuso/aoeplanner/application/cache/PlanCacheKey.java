@@ -0,0 +1,13 @@
+package br.com.edsonuso.aoeplanner.application.cache;
+
+/**
+ * Chave do cache de planos: versão do catálogo mais a impressão digital
+ * (SHA-256) dos fatos relevantes e do estado desejado do objetivo.
+ */
+public record PlanCacheKey(String catalogVersion, String fingerprint) {
+
+    @Override
+    public String toString() {
+        return catalogVersion + ":" + fingerprint;
+    }
+}
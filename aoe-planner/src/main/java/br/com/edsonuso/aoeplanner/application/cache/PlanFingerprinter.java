@@ -0,0 +1,106 @@
+package br.com.edsonuso.aoeplanner.application.cache;
+
+import br.com.edsonuso.aoeplanner.core.domain.IdentityCache;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.Goal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Calcula a chave canônica do cache de planos.
+ *
+ * Só entram na impressão digital os fatos que alguma ação lê ou altera e os fatos
+ * do objetivo; os demais não influenciam o plano (ex.: {@code last_alert_source},
+ * reescrito a cada alerta). O vocabulário de fatos e o índice de ações por nome
+ * são calculados uma vez por lista de ações e guardados para as últimas listas
+ * usadas: cada objetivo planeja com o seu recorte do catálogo, e objetivos
+ * alternados não devem recalcular o vocabulário a cada consulta.
+ */
+public class PlanFingerprinter {
+
+    private static final int MAX_VOCABULARIES = 64;
+
+    private final IdentityCache<List<Action>, Vocabulary> vocabularies = new IdentityCache<>(MAX_VOCABULARIES);
+
+    public PlanCacheKey keyFor(Set<Fact> facts, List<Action> actions, String catalogVersion, Goal goal) {
+        Map<String, Object> desiredState = goal.getDesiredState() == null ? Map.of() : goal.getDesiredState();
+        Set<String> vocabulary = vocabulary(actions).factNames();
+
+        TreeMap<String, Object> relevant = new TreeMap<>();
+        for (Fact fact : facts) {
+            if (vocabulary.contains(fact.name()) || desiredState.containsKey(fact.name())) {
+                relevant.put(fact.name(), fact.value());
+            }
+        }
+
+        MessageDigest digest = sha256();
+        update(digest, "goal");
+        new TreeMap<>(desiredState).forEach((name, value) -> update(digest, name, value));
+        if (goal.getSearchMode() != null) {
+            // Direções diferentes podem escolher planos diferentes de mesmo objetivo
+            update(digest, "mode=" + goal.getSearchMode());
+        }
+        update(digest, "facts");
+        relevant.forEach((name, value) -> update(digest, name, value));
+        return new PlanCacheKey(catalogVersion, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Índice das ações por nome, usado para resolver um {@link CachedPlan}.
+     */
+    public Map<String, Action> actionsByName(List<Action> actions) {
+        return vocabulary(actions).actionsByName();
+    }
+
+    private Vocabulary vocabulary(List<Action> actions) {
+        return vocabularies.computeIfAbsent(actions, PlanFingerprinter::compute);
+    }
+
+    private static Vocabulary compute(List<Action> actions) {
+        Set<String> names = new HashSet<>();
+        Map<String, Action> byName = new HashMap<>();
+        for (Action action : actions) {
+            if (action.getPreconditions() != null) {
+                names.addAll(action.getPreconditions().keySet());
+            }
+            if (action.getEffects() != null) {
+                names.addAll(action.getEffects().keySet());
+            }
+            byName.putIfAbsent(action.getName(), action);
+        }
+        return new Vocabulary(Collections.unmodifiableSet(names), Collections.unmodifiableMap(byName));
+    }
+
+    private static void update(MessageDigest digest, String name, Object value) {
+        // O tipo entra na chave: true e "true" não satisfazem as mesmas pré-condições
+        String type = value == null ? "null" : value.getClass().getSimpleName();
+        update(digest, name + "=" + type + ":" + value);
+    }
+
+    private static void update(MessageDigest digest, String token) {
+        digest.update(token.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private record Vocabulary(Set<String> factNames, Map<String, Action> actionsByName) {
+    }
+}
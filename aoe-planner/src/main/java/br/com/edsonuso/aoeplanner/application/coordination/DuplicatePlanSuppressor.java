@@ -0,0 +1,106 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publicador que descarta um plano idêntico (mesmas ações, mesmo custo) ao último
+ * publicado para o mesmo objetivo dentro da janela configurada. Evita que o
+ * executor receba o mesmo plano várias vezes durante uma tempestade de alertas.
+ *
+ * Um replanejamento significa que o plano anterior falhou, então o coordenador
+ * chama {@link #forget(Goal)} antes dele e o mesmo plano pode ser reenviado.
+ */
+public class DuplicatePlanSuppressor implements PlanPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicatePlanSuppressor.class);
+    private static final int MAX_TRACKED_GOALS = 1024;
+
+    private final PlanPublisher delegate;
+    private final long windowNanos;
+    private final Map<GoalKey, Published> lastPublished = new ConcurrentHashMap<>();
+
+    public DuplicatePlanSuppressor(PlanPublisher delegate, Duration window) {
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public void publish(PlanDispatchPayload payload) {
+        if (windowNanos <= 0) {
+            delegate.publish(payload);
+            return;
+        }
+        Published published = Published.of(payload);
+        if (isDuplicate(payload, published)) {
+            return;
+        }
+        delegate.publish(payload);
+        remember(payload, published);
+    }
+
+    /**
+     * Como {@link #publish}, mas se a publicação falhar o plano é esquecido e pode
+     * ser reenviado logo em seguida.
+     */
+    @Override
+    public CompletableFuture<Void> publishAsync(PlanDispatchPayload payload) {
+        if (windowNanos <= 0) {
+            return delegate.publishAsync(payload);
+        }
+        Published published = Published.of(payload);
+        if (isDuplicate(payload, published)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> result = delegate.publishAsync(payload);
+        remember(payload, published);
+        return result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                lastPublished.remove(GoalKey.of(payload.targetGoal()), published);
+            }
+        });
+    }
+
+    private boolean isDuplicate(PlanDispatchPayload payload, Published published) {
+        GoalKey key = GoalKey.of(payload.targetGoal());
+        Published previous = lastPublished.get(key);
+        if (previous != null && published.at - previous.at < windowNanos
+                && previous.totalCost == published.totalCost && previous.steps.equals(published.steps)) {
+            log.info("Plano idêntico ao último publicado para o objetivo '{}'; publicação suprimida.", key.name());
+            return true;
+        }
+        return false;
+    }
+
+    private void remember(PlanDispatchPayload payload, Published published) {
+        if (lastPublished.size() >= MAX_TRACKED_GOALS) {
+            lastPublished.values().removeIf(tracked -> published.at - tracked.at >= windowNanos);
+        }
+        lastPublished.put(GoalKey.of(payload.targetGoal()), published);
+    }
+
+    /**
+     * Esquece o último plano do objetivo, liberando a próxima publicação.
+     */
+    public void forget(Goal goal) {
+        lastPublished.remove(GoalKey.of(goal));
+    }
+
+    private record Published(List<String> steps, int totalCost, long at) {
+
+        static Published of(PlanDispatchPayload payload) {
+            return new Published(payload.plan().steps().stream().map(Action::getName).toList(),
+                    payload.plan().totalCost(), System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordena os pedidos de planejamento por objetivo antes de chegarem ao caso de uso.
+ *
+ * Há no máximo um planejamento em andamento por objetivo (single-flight). Pedidos
+ * do mesmo objetivo que chegam enquanto ele roda, ou dentro da janela de debounce
+ * antes dele começar, são agrupados: o último pedido vence e gera uma única rodada
+ * seguinte, que lê a base de fatos mais recente. Se algum dos pedidos agrupados era
+ * um replanejamento, a rodada também é, e o último plano publicado é esquecido
+ * para que possa ser reenviado.
+ *
+ * As rodadas rodam nos workers do {@link PlanningScheduler}, com a prioridade mais
+ * crítica entre os pedidos agrupados, e os chamadores nunca planejam na própria
+ * thread. Só um objetivo novo ocupa a fila: pedidos agrupados não contam na
+ * capacidade, e um objetivo novo com a fila cheia é recusado com
+ * {@link PlanningRejectedException}.
+ */
+public class GoalCoordinator implements GeneratePlanUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalCoordinator.class);
+
+    private final GeneratePlanUseCase delegate;
+    private final DuplicatePlanSuppressor suppressor;
+    private final PlanningScheduler scheduler;
+    private final long debounceNanos;
+    private final ScheduledExecutorService timer;
+
+    // Guardado pelo próprio mapa
+    private final Map<GoalKey, Flight> flights = new HashMap<>();
+
+    public GoalCoordinator(GeneratePlanUseCase delegate, DuplicatePlanSuppressor suppressor,
+                           PlanningScheduler scheduler, Duration debounce) {
+        this.delegate = delegate;
+        this.suppressor = suppressor;
+        this.scheduler = scheduler;
+        this.debounceNanos = debounce.toNanos();
+        this.timer = debounceNanos > 0
+                ? Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "goal-coordinator"))
+                : null;
+    }
+
+    @Override
+    public void execute(Goal goal) {
+        submit(goal, false);
+    }
+
+    @Override
+    public void replan(Goal goal) {
+        submit(goal, true);
+    }
+
+    private void submit(Goal goal, boolean incremental) {
+        GoalKey key = GoalKey.of(goal);
+        synchronized (flights) {
+            Flight flight = flights.get(key);
+            if (flight != null) {
+                flight.coalesced++;
+                flight.pending = goal;
+                flight.incremental |= incremental;
+                flight.priority = Math.min(flight.priority, goal.getPriority());
+                log.debug("Pedido para o objetivo '{}' agrupado ao planejamento em andamento.", goal.getName());
+                return;
+            }
+            if (!scheduler.hasCapacity(goal.getPriority())) {
+                throw new PlanningRejectedException(
+                        "Fila de planejamento cheia; objetivo '" + goal.getName() + "' recusado.");
+            }
+            flight = new Flight();
+            flight.pending = goal;
+            flight.incremental = incremental;
+            flight.priority = goal.getPriority();
+            flights.put(key, flight);
+        }
+        schedule(key);
+    }
+
+    /**
+     * Agenda a próxima rodada do objetivo depois da janela de debounce.
+     */
+    private void schedule(GoalKey key) {
+        if (timer != null) {
+            timer.schedule(() -> dispatch(key), debounceNanos, TimeUnit.NANOSECONDS);
+        } else {
+            dispatch(key);
+        }
+    }
+
+    private void dispatch(GoalKey key) {
+        int priority;
+        synchronized (flights) {
+            priority = flights.get(key).priority;
+        }
+        try {
+            scheduler.submit(priority, key.name(), () -> runFlight(key), () -> abandon(key));
+        } catch (PlanningRejectedException e) {
+            // Só acontece se a fila encheu durante o debounce
+            log.warn("{} Pedidos agrupados do objetivo descartados.", e.getMessage());
+            abandon(key);
+        }
+    }
+
+    /**
+     * Roda o pedido mais recente do objetivo em um worker do agendador.
+     */
+    private void runFlight(GoalKey key) {
+        Goal goal;
+        boolean incremental;
+        int coalesced;
+        synchronized (flights) {
+            Flight flight = flights.get(key);
+            goal = flight.pending;
+            incremental = flight.incremental;
+            coalesced = flight.coalesced;
+            flight.pending = null;
+            flight.incremental = false;
+            flight.coalesced = 0;
+            flight.priority = Integer.MAX_VALUE;
+        }
+
+        if (coalesced > 0) {
+            log.info("{} pedido(s) repetido(s) do objetivo '{}' agrupados em um planejamento.", coalesced, goal.getName());
+        }
+        boolean cancelled = false;
+        try {
+            run(goal, incremental);
+        } catch (RuntimeException e) {
+            if (!(e instanceof CancellationException) && !Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            // Preemptado: o agendador devolve a rodada para a fila e ela repete este pedido
+            cancelled = true;
+            synchronized (flights) {
+                Flight flight = flights.get(key);
+                if (flight.pending == null) {
+                    flight.pending = goal;
+                }
+                flight.incremental |= incremental;
+                flight.priority = Math.min(flight.priority, goal.getPriority());
+            }
+            throw e;
+        } finally {
+            if (!cancelled) {
+                finish(key);
+            }
+        }
+    }
+
+    private void run(Goal goal, boolean incremental) {
+        if (incremental) {
+            suppressor.forget(goal);
+            delegate.replan(goal);
+        } else {
+            delegate.execute(goal);
+        }
+    }
+
+    /**
+     * Libera o objetivo ou agenda a rodada dos pedidos que chegaram durante a busca.
+     */
+    private void finish(GoalKey key) {
+        synchronized (flights) {
+            if (flights.get(key).pending == null) {
+                flights.remove(key);
+                return;
+            }
+        }
+        schedule(key);
+    }
+
+    private void abandon(GoalKey key) {
+        synchronized (flights) {
+            flights.remove(key);
+        }
+    }
+
+    /**
+     * Verdadeiro quando nenhum objetivo tem rodada em andamento, na fila ou na janela de debounce.
+     */
+    boolean isIdle() {
+        synchronized (flights) {
+            return flights.isEmpty();
+        }
+    }
+
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdown();
+        }
+        scheduler.shutdown();
+    }
+
+    private static final class Flight {
+        Goal pending;
+        boolean incremental;
+        int coalesced;
+        int priority;
+    }
+}
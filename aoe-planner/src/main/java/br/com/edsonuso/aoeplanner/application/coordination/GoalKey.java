@@ -0,0 +1,17 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.SearchMode;
+
+import java.util.Map;
+
+/**
+ * Identidade de um objetivo para coordenação: dois pedidos com o mesmo nome,
+ * estado desejado e modo de busca são o mesmo objetivo, mesmo com prioridades diferentes.
+ */
+record GoalKey(String name, Map<String, Object> desiredState, SearchMode searchMode) {
+
+    static GoalKey of(Goal goal) {
+        return new GoalKey(goal.getName(), goal.getDesiredState(), goal.getSearchMode());
+    }
+}
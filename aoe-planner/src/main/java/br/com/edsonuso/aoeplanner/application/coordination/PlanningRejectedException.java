@@ -0,0 +1,14 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+/**
+ * Pedido de planejamento recusado porque a fila está cheia; o adaptador de
+ * entrada deve devolver a pressão ao chamador.
+ */
+public class PlanningRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PlanningRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila de planejamento por prioridade com um número fixo de workers.
+ *
+ * A prioridade segue {@code Goal.priority}: número menor é mais crítico; empates
+ * saem na ordem de chegada. A fila é limitada: cheia, ela só aceita um trabalho
+ * mais crítico que o pior da fila, que é descartado; caso contrário o pedido é
+ * recusado com {@link PlanningRejectedException} para o adaptador devolver a pressão
+ * (HTTP 429, requeue no RabbitMQ).
+ *
+ * Quando todos os workers estão ocupados e chega um trabalho mais crítico que o
+ * menos crítico em execução, este é interrompido. A interrupção é o sinal de
+ * cancelamento cooperativo que as buscas do {@code GoapPlanner} consultam a cada
+ * expansão; o trabalho interrompido que terminar com erro volta para a fila, sem
+ * contar na capacidade.
+ *
+ * Os workers podem ser threads virtuais: a espera usa {@link ReentrantLock} em vez
+ * de monitores para não prender a carrier thread.
+ */
+public class PlanningScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanningScheduler.class);
+
+    private final int capacity;
+    private final boolean preemption;
+    private final List<Thread> workers = new ArrayList<>();
+    private final List<Job> running = new ArrayList<>();
+    private final PriorityQueue<Job> queue = new PriorityQueue<>(
+            Comparator.comparingInt((Job job) -> job.priority).thenComparingLong(job -> job.sequence));
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private long sequence;
+    private boolean shutdown;
+
+    public PlanningScheduler(int workerCount, int capacity, boolean preemption) {
+        this(workerCount, capacity, preemption, Thread.ofPlatform().name("planning-worker-", 1).daemon(true).factory());
+    }
+
+    public PlanningScheduler(int workerCount, int capacity, boolean preemption, ThreadFactory threadFactory) {
+        this.capacity = capacity;
+        this.preemption = preemption;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Verdadeiro se um trabalho com esta prioridade seria aceito agora.
+     */
+    public boolean hasCapacity(int priority) {
+        lock.lock();
+        try {
+            if (queue.size() < capacity) {
+                return true;
+            }
+            Job worst = leastCritical(queue);
+            return worst != null && worst.priority > priority;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enfileira um trabalho. {@code onDropped} roda se ele for descartado da fila
+     * por um mais crítico antes de começar.
+     */
+    public void submit(int priority, String name, Runnable task, Runnable onDropped) {
+        Job dropped = null;
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new PlanningRejectedException("Agendador de planejamento encerrado.");
+            }
+            if (queue.size() >= capacity) {
+                dropped = leastCritical(queue);
+                if (dropped == null || dropped.priority <= priority) {
+                    throw new PlanningRejectedException(
+                            "Fila de planejamento cheia (" + capacity + "); objetivo '" + name + "' recusado.");
+                }
+                queue.remove(dropped);
+            }
+            queue.add(new Job(priority, sequence++, name, task, onDropped));
+            preemptFor(priority);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (dropped != null) {
+            log.warn("Fila de planejamento cheia: objetivo '{}' (prioridade {}) descartado em favor de '{}' (prioridade {}).",
+                    dropped.name, dropped.priority, name, priority);
+            dropped.onDropped.run();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Interrompe o trabalho menos crítico em execução se todos os workers estiverem
+     * ocupados com algo menos urgente. Chamado com o lock do agendador.
+     */
+    private void preemptFor(int priority) {
+        if (!preemption || running.size() < workers.size()) {
+            return;
+        }
+        Job victim = null;
+        for (Job job : running) {
+            if (!job.preempted && (victim == null || job.priority > victim.priority)) {
+                victim = job;
+            }
+        }
+        if (victim != null && victim.priority > priority) {
+            log.info("Busca do objetivo '{}' (prioridade {}) preemptada por um objetivo de prioridade {}.",
+                    victim.name, victim.priority, priority);
+            victim.preempted = true;
+            victim.worker.interrupt();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !shutdown) {
+                    available.awaitUninterruptibly();
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                job = queue.poll();
+                job.worker = Thread.currentThread();
+                running.add(job);
+            } finally {
+                lock.unlock();
+            }
+
+            boolean failed = false;
+            try {
+                job.task.run();
+            } catch (RuntimeException e) {
+                failed = true;
+                if (!job.preempted) {
+                    log.error("Falha no planejamento do objetivo '{}'.", job.name, e);
+                }
+            }
+
+            lock.lock();
+            try {
+                running.remove(job);
+                // Só há interrupção pendente enquanto o trabalho está em execução
+                Thread.interrupted();
+                if (job.preempted && failed) {
+                    job.preempted = false;
+                    job.worker = null;
+                    queue.add(job);
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static Job leastCritical(Iterable<Job> jobs) {
+        Job worst = null;
+        for (Job job : jobs) {
+            if (worst == null || job.priority > worst.priority
+                    || (job.priority == worst.priority && job.sequence > worst.sequence)) {
+                worst = job;
+            }
+        }
+        return worst;
+    }
+
+    private static final class Job {
+        final int priority;
+        final long sequence;
+        final String name;
+        final Runnable task;
+        final Runnable onDropped;
+        Thread worker;
+        volatile boolean preempted;
+
+        Job(int priority, long sequence, String name, Runnable task, Runnable onDropped) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.name = name;
+            this.task = task;
+            this.onDropped = onDropped;
+        }
+    }
+}
@@ -4,4 +4,11 @@ import br.com.edsonuso.aoeplanner.model.Goal;
 
 public interface GeneratePlanUseCase {
     public void execute(Goal goal);
+
+    /**
+     * Replaneja um objetivo após falha de execução, podendo reaproveitar a busca anterior.
+     */
+    default void replan(Goal goal) {
+        execute(goal);
+    }
 }
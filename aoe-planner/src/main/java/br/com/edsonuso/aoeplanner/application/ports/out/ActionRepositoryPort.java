@@ -1,9 +1,24 @@
 package br.com.edsonuso.aoeplanner.application.ports.out;
 
 import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
 
 import java.util.List;
 
 public interface ActionRepositoryPort {
     List<Action> findAll();
+
+    /**
+     * Identifica o conteúdo do catálogo carregado; muda sempre que as ações mudam.
+     * Pode ser nulo quando o repositório não sabe versionar o catálogo.
+     */
+    String getCatalogVersion();
+
+    /**
+     * Ações e versão lidas juntas. Repositórios que recarregam o catálogo devem
+     * sobrescrever para que as duas venham sempre da mesma versão.
+     */
+    default ActionCatalog currentCatalog() {
+        return new ActionCatalog(getCatalogVersion(), findAll());
+    }
 }
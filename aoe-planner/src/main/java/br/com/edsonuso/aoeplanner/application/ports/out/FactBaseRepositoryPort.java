@@ -1,10 +1,44 @@
 package br.com.edsonuso.aoeplanner.application.ports.out;
 
 import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
 
+import java.util.HashSet;
 import java.util.Set;
 
 public interface FactBaseRepositoryPort {
     Set<Fact> getCurrentFactBase();
     void updateFactBase(Set<Fact> facts);
+
+    /**
+     * Fatos e versão lidos de forma atômica. A versão só cresce, e só avança quando
+     * uma escrita muda algum valor.
+     */
+    FactBaseSnapshot getSnapshot();
+
+    /**
+     * Mudanças desde a versão {@code version}, a partir de um log de tamanho limitado;
+     * incompleto quando o log não alcança mais essa versão.
+     */
+    FactChanges getChangesSince(long version);
+
+    default long getVersion() {
+        return getSnapshot().version();
+    }
+
+    /**
+     * Só os fatos com os nomes pedidos; os que não existem na base ficam de fora.
+     * A implementação padrão filtra a base inteira; repositórios remotos devem
+     * sobrescrever para buscar só esses fatos.
+     */
+    default Set<Fact> getFacts(Set<String> names) {
+        Set<Fact> facts = new HashSet<>();
+        for (Fact fact : getCurrentFactBase()) {
+            if (names.contains(fact.name())) {
+                facts.add(fact);
+            }
+        }
+        return facts;
+    }
 }
@@ -0,0 +1,24 @@
+package br.com.edsonuso.aoeplanner.application.ports.out;
+
+import br.com.edsonuso.aoeplanner.application.cache.CachedPlan;
+import br.com.edsonuso.aoeplanner.application.cache.PlanCacheKey;
+
+import java.util.Optional;
+
+/**
+ * Cache de resultados de planejamento.
+ *
+ * A chave já contém a impressão digital dos fatos relevantes, do estado desejado e
+ * da versão do catálogo: uma escrita na base de fatos que altera um fato relevante
+ * produz outra chave, então entradas antigas nunca são servidas para o estado novo.
+ */
+public interface PlanCachePort {
+    Optional<CachedPlan> get(PlanCacheKey key);
+
+    void put(PlanCacheKey key, CachedPlan plan);
+
+    /**
+     * Descarta todas as entradas locais (ex.: quando o catálogo de ações muda).
+     */
+    void invalidateAll();
+}
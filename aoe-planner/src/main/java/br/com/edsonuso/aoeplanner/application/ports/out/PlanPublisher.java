@@ -4,6 +4,26 @@ import br.com.edsonuso.aoeplanner.model.Plan;
 
 import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface PlanPublisher {
+
+    /**
+     * Entrega o plano para publicação. Implementações assíncronas podem retornar
+     * antes da confirmação do broker; use {@link #publishAsync} para acompanhá-la.
+     */
     void publish(PlanDispatchPayload payload);
+
+    /**
+     * Publica o plano; o future conclui quando a entrega é confirmada e falha quando
+     * o plano é recusado ou se esgotam as tentativas. O padrão publica de forma síncrona.
+     */
+    default CompletableFuture<Void> publishAsync(PlanDispatchPayload payload) {
+        try {
+            publish(payload);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package br.com.edsonuso.aoeplanner.application.ports.out;
+
+import br.com.edsonuso.aoeplanner.model.Goal;
+
+/**
+ * Métricas do caso de uso de planejamento: o desfecho de cada rodada.
+ */
+public interface PlanningMetricsPort {
+
+    PlanningMetricsPort NONE = (goal, catalogVersion, outcome) -> { };
+
+    void planningFinished(Goal goal, String catalogVersion, Outcome outcome);
+
+    enum Outcome {
+        /** Plano encontrado (na busca ou no cache) e publicado. */
+        PLANNED,
+        /** Sem plano direto; publicado o plano de diagnóstico. */
+        DIAGNOSTIC,
+        /** Sem plano e sem ação de diagnóstico disponível. */
+        NO_PLAN
+    }
+}
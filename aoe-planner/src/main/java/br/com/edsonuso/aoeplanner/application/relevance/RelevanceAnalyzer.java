@@ -0,0 +1,207 @@
+package br.com.edsonuso.aoeplanner.application.relevance;
+
+import br.com.edsonuso.aoeplanner.core.domain.IdentityCache;
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Análise de relevância: recorta o catálogo e a base de fatos para um objetivo antes da busca.
+ *
+ * A análise é regressiva sobre pares (fato, valor). Os pares do estado desejado são
+ * necessários; uma ação é relevante se algum efeito dela produz um par necessário, e
+ * aí as pré-condições dela também passam a ser necessárias. Uma ação que não produz
+ * nenhum par necessário nunca é preciso em um plano (tirá-la de um plano válido o
+ * mantém válido), então o recorte não muda a existência nem o custo do plano, só o
+ * tamanho da busca. Os valores são comparados com {@code equals}, como no domínio compilado.
+ *
+ * O recorte é guardado por lista de ações do catálogo e forma do objetivo (estado
+ * desejado), em um LRU limitado por catálogo. A mesma lista de ações volta em toda
+ * chamada, então o domínio compilado do recorte também é reaproveitado pelo planner.
+ * Os índices das duas últimas listas ficam vivos: durante uma recarga, {@link #prepare} monta os
+ * recortes da versão nova sem descartar os da versão em uso.
+ *
+ * As formas de objetivo já analisadas (mais as registradas com {@link #addKnownGoal})
+ * são lembradas, para que {@link #prepare} recorte um catálogo novo para elas antes
+ * de ele entrar em uso.
+ */
+public class RelevanceAnalyzer {
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final int MAX_CATALOGS = 2;
+    private static final int[] NO_ACTIONS = new int[0];
+
+    private final int maxEntries;
+    // Sair do cache descarta o catálogo junto com os recortes dele, que citam ações que podem ter mudado
+    private final IdentityCache<List<Action>, Catalog> catalogs = new IdentityCache<>(MAX_CATALOGS);
+    private final Map<Map<String, Object>, Boolean> goals = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RelevanceAnalyzer() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RelevanceAnalyzer(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Registra um objetivo conhecido de antemão (ex.: os criados a partir de alertas),
+     * para que o primeiro recorte dele já saia pronto de {@link #prepare}.
+     */
+    public void addKnownGoal(Map<String, Object> desiredState) {
+        remember(copyOf(desiredState));
+    }
+
+    /**
+     * Recorta o catálogo para todas as formas de objetivo conhecidas e devolve os
+     * recortes distintos, que são as mesmas instâncias que {@link #analyze} devolverá
+     * para este catálogo. Quem chama compila o domínio deles antes de o catálogo
+     * entrar em uso.
+     */
+    public List<RelevantProblem> prepare(String catalogVersion, List<Action> actions) {
+        List<Map<String, Object>> known;
+        synchronized (goals) {
+            known = new ArrayList<>(goals.keySet());
+        }
+        Map<List<Action>, RelevantProblem> distinct = new IdentityHashMap<>();
+        for (Map<String, Object> desired : known) {
+            RelevantProblem problem = analyze(desired, catalogVersion, actions);
+            distinct.putIfAbsent(problem.actions(), problem);
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    public RelevantProblem analyze(Map<String, Object> desiredState, String catalogVersion, List<Action> actions) {
+        Map<String, Object> desired = copyOf(desiredState);
+        Catalog catalog = catalogs.computeIfAbsent(actions, Catalog::of);
+        Key key = new Key(catalogVersion, desired);
+        synchronized (catalog.problems()) {
+            RelevantProblem cached = catalog.problems().get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        remember(desired);
+
+        RelevantProblem computed = compute(desired, actions, catalog.producers());
+        synchronized (catalog.problems()) {
+            RelevantProblem existing = catalog.problems().putIfAbsent(key, computed);
+            if (catalog.problems().size() > maxEntries) {
+                catalog.problems().remove(catalog.problems().keySet().iterator().next());
+            }
+            return existing != null ? existing : computed;
+        }
+    }
+
+    private void remember(Map<String, Object> desired) {
+        synchronized (goals) {
+            goals.put(desired, Boolean.TRUE);
+            if (goals.size() > maxEntries) {
+                goals.remove(goals.keySet().iterator().next());
+            }
+        }
+    }
+
+    private static Map<String, Object> copyOf(Map<String, Object> desiredState) {
+        return desiredState == null ? Map.of() : Collections.unmodifiableMap(new HashMap<>(desiredState));
+    }
+
+    private static RelevantProblem compute(Map<String, Object> desired, List<Action> actions, Producers index) {
+        Set<Atom> needed = new HashSet<>();
+        Deque<Atom> pending = new ArrayDeque<>();
+        desired.forEach((name, value) -> {
+            Atom atom = new Atom(name, value);
+            if (needed.add(atom)) {
+                pending.add(atom);
+            }
+        });
+
+        boolean[] relevant = new boolean[actions.size()];
+        while (!pending.isEmpty()) {
+            for (int id : index.of(pending.poll())) {
+                if (relevant[id]) {
+                    continue;
+                }
+                relevant[id] = true;
+                Map<String, Object> preconditions = actions.get(id).getPreconditions();
+                if (preconditions != null) {
+                    preconditions.forEach((name, value) -> {
+                        Atom atom = new Atom(name, value);
+                        if (needed.add(atom)) {
+                            pending.add(atom);
+                        }
+                    });
+                }
+            }
+        }
+
+        List<Action> pruned = new ArrayList<>();
+        Set<String> factNames = new HashSet<>(desired.keySet());
+        for (int id = 0; id < relevant.length; id++) {
+            if (relevant[id]) {
+                Action action = actions.get(id);
+                pruned.add(action);
+                if (action.getPreconditions() != null) {
+                    factNames.addAll(action.getPreconditions().keySet());
+                }
+                if (action.getEffects() != null) {
+                    factNames.addAll(action.getEffects().keySet());
+                }
+            }
+        }
+        return new RelevantProblem(Collections.unmodifiableList(pruned), Collections.unmodifiableSet(factNames));
+    }
+
+    private record Key(String catalogVersion, Map<String, Object> desiredState) {
+    }
+
+    /**
+     * Índice de produtores de uma lista de ações e os recortes já feitos sobre ela
+     * ({@code problems} é protegido por ele mesmo).
+     */
+    private record Catalog(Producers producers, Map<Key, RelevantProblem> problems) {
+
+        static Catalog of(List<Action> actions) {
+            return new Catalog(Producers.of(actions), new LinkedHashMap<>(16, 0.75f, true));
+        }
+    }
+
+    private record Atom(String name, Object value) {
+    }
+
+    /**
+     * Ações que produzem cada par (fato, valor), montado uma vez por catálogo.
+     */
+    private record Producers(Map<Atom, int[]> byAtom) {
+
+        static Producers of(List<Action> actions) {
+            Map<Atom, List<Integer>> producers = new HashMap<>();
+            for (int id = 0; id < actions.size(); id++) {
+                Map<String, Object> effects = actions.get(id).getEffects();
+                if (effects == null) {
+                    continue;
+                }
+                int action = id;
+                effects.forEach((name, value) ->
+                        producers.computeIfAbsent(new Atom(name, value), atom -> new ArrayList<>()).add(action));
+            }
+            Map<Atom, int[]> byAtom = new HashMap<>(producers.size() * 2);
+            producers.forEach((atom, ids) -> byAtom.put(atom, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new Producers(byAtom);
+        }
+
+        int[] of(Atom atom) {
+            return byAtom.getOrDefault(atom, NO_ACTIONS);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.edsonuso.aoeplanner.application.relevance;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recorte do problema para um objetivo: as ações que podem contribuir para ele, na
+ * ordem do catálogo, e os nomes dos fatos que o objetivo e essas ações leem ou alteram.
+ */
+public record RelevantProblem(List<Action> actions, Set<String> factNames) {
+}
@@ -1,17 +1,31 @@
 package br.com.edsonuso.aoeplanner.application.usecase;
 
+import br.com.edsonuso.aoeplanner.application.cache.CachedPlan;
+import br.com.edsonuso.aoeplanner.application.cache.PlanCacheKey;
+import br.com.edsonuso.aoeplanner.application.cache.PlanFingerprinter;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevantProblem;
 import br.com.edsonuso.aoeplanner.core.GoapPlanner;
 import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
 import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
 import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanCachePort;
 import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanningMetricsPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanningMetricsPort.Outcome;
 import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
 import br.com.edsonuso.aoeplanner.model.Fact;
 import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 public class GeneratePlanUseCaseImpl implements GeneratePlanUseCase {
@@ -22,41 +36,163 @@ public class GeneratePlanUseCaseImpl implements GeneratePlanUseCase {
     private final ActionRepositoryPort  actionPort;
     private final PlanPublisher planPublisher;
     private final GoapPlanner planner;
+    private final PlanCachePort planCache;
+    private final PlanningMetricsPort metrics;
+    private final PlanFingerprinter fingerprinter = new PlanFingerprinter();
+    private final RelevanceAnalyzer relevance;
+    private volatile String lastCatalogVersion;
 
-    public GeneratePlanUseCaseImpl(FactBaseRepositoryPort factPort, ActionRepositoryPort actionPort, PlanPublisher planPublisher, GoapPlanner planner) {
+    public GeneratePlanUseCaseImpl(FactBaseRepositoryPort factPort, ActionRepositoryPort actionPort, PlanPublisher planPublisher, GoapPlanner planner, PlanCachePort planCache) {
+        this(factPort, actionPort, planPublisher, planner, planCache, PlanningMetricsPort.NONE);
+    }
+
+    public GeneratePlanUseCaseImpl(FactBaseRepositoryPort factPort, ActionRepositoryPort actionPort, PlanPublisher planPublisher, GoapPlanner planner, PlanCachePort planCache, PlanningMetricsPort metrics) {
+        this(factPort, actionPort, planPublisher, planner, planCache, metrics, new RelevanceAnalyzer());
+    }
+
+    /**
+     * O analisador é compartilhado com a recarga do catálogo e o aquecimento, que
+     * compilam os domínios dos recortes antes de a primeira busca precisar deles.
+     */
+    public GeneratePlanUseCaseImpl(FactBaseRepositoryPort factPort, ActionRepositoryPort actionPort, PlanPublisher planPublisher, GoapPlanner planner, PlanCachePort planCache, PlanningMetricsPort metrics, RelevanceAnalyzer relevance) {
         this.factPort = factPort;
         this.actionPort = actionPort;
         this.planPublisher = planPublisher;
         this.planner = planner;
+        this.planCache = planCache;
+        this.metrics = metrics;
+        this.relevance = relevance;
     }
 
     @Override
     public void execute(Goal goal) {
         log.info("Iniciando processo de planejamento para o objetivo: {}", goal.getName());
+        plan(goal, false);
+    }
+
+    @Override
+    public void replan(Goal goal) {
+        log.info("Iniciando replanejamento incremental para o objetivo: {}", goal.getName());
+        plan(goal, true);
+    }
+
+    private void plan(Goal goal, boolean incremental) {
+
+        // Ações e versão da mesma leitura: uma recarga no meio não as mistura
+        ActionCatalog catalog = actionPort.currentCatalog();
+        List<Action> avaliableActions = catalog.actions();
+        String catalogVersion = catalog.version();
 
-        Set<Fact> currentFacts = factPort.getCurrentFactBase();
-        List<Action> avaliableActions = actionPort.findAll();
-        log.debug("Avaliable actions: {}", avaliableActions);
+        // Só as ações que podem levar ao objetivo e os fatos que elas usam; sem versão
+        // do catálogo o recorte não pode ser guardado, então vai o problema inteiro
+        Set<Fact> currentFacts;
+        List<Action> relevantActions;
+        if (catalogVersion == null) {
+            currentFacts = factPort.getCurrentFactBase();
+            relevantActions = avaliableActions;
+        } else {
+            RelevantProblem relevant = relevance.analyze(goal.getDesiredState(), catalogVersion, avaliableActions);
+            currentFacts = factPort.getFacts(relevant.factNames());
+            relevantActions = relevant.actions();
+            log.debug("Recorte do objetivo {}: {} de {} ações, {} fatos.",
+                    goal.getName(), relevantActions.size(), avaliableActions.size(), relevant.factNames().size());
+        }
+        log.debug("Avaliable actions: {}", relevantActions);
         log.debug("Avaliable Facts: {}", currentFacts);
 
-        planner.findPlan(currentFacts, avaliableActions, goal)
-                .ifPresentOrElse(
-                        plan -> {
-                            log.info("Plano encontrado com {} passo(s). Publicando...", plan.steps().size());
-                            planPublisher.publish(new br.com.edsonuso.aoeplanner.model.PlanDispatchPayload(goal, plan));
-                        },
-                        () -> {
-                            log.warn("Nenhum plano direto encontrado para o objetivo: {}. Tentando plano de diagnóstico...", goal.getName());
-                            avaliableActions.stream()
-                                    .filter(action -> action.getPreconditions() == null || action.getPreconditions().isEmpty())
-                                    .findFirst()
-                                    .ifPresent(diagnosticAction -> {
-                                        log.info("Criando e publicando plano de diagnóstico com a ação: {}", diagnosticAction.getName());
-                                        var diagnosticPlan = new br.com.edsonuso.aoeplanner.model.Plan(goal, List.of(diagnosticAction), diagnosticAction.getCost());
-                                        planPublisher.publish(new br.com.edsonuso.aoeplanner.model.PlanDispatchPayload(goal, diagnosticPlan));
-                                    });
-                        }
-                );
+        Outcome outcome = findPlan(currentFacts, relevantActions, catalogVersion, goal, incremental)
+                .map(plan -> {
+                    log.info("Plano encontrado com {} passo(s). Publicando...", plan.steps().size());
+                    publish(goal, plan, catalogVersion);
+                    return Outcome.PLANNED;
+                })
+                .orElseGet(() -> {
+                    log.warn("Nenhum plano direto encontrado para o objetivo: {}. Tentando plano de diagnóstico...", goal.getName());
+                    return avaliableActions.stream()
+                            .filter(action -> action.getPreconditions() == null || action.getPreconditions().isEmpty())
+                            .findFirst()
+                            .map(diagnosticAction -> {
+                                log.info("Criando e publicando plano de diagnóstico com a ação: {}", diagnosticAction.getName());
+                                var diagnosticPlan = new br.com.edsonuso.aoeplanner.model.Plan(goal, List.of(diagnosticAction), diagnosticAction.getCost());
+                                publish(goal, diagnosticPlan, catalogVersion);
+                                return Outcome.DIAGNOSTIC;
+                            })
+                            .orElse(Outcome.NO_PLAN);
+                });
+        metrics.planningFinished(goal, catalogVersion, outcome);
+
+    }
+
+    /**
+     * Publica acompanhando a confirmação: um plano recusado ou sem confirmação é
+     * esquecido pelo supressor de duplicados, e a próxima rodada pode reenviá-lo.
+     * O publicador já conta as falhas; aqui só fica o registro no log.
+     */
+    private void publish(Goal goal, Plan plan, String catalogVersion) {
+        planPublisher.publishAsync(new PlanDispatchPayload(goal, plan, catalogVersion))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.error("Falha ao publicar o plano do objetivo {}: {}", goal.getName(), error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Consulta o cache antes de rodar o A*. Sem versão de catálogo não há como
+     * garantir que o plano guardado ainda é válido, então o cache é ignorado.
+     */
+    private Optional<Plan> findPlan(Set<Fact> currentFacts, List<Action> avaliableActions, String catalogVersion,
+                                    Goal goal, boolean incremental) {
+        if (catalogVersion == null) {
+            return search(currentFacts, avaliableActions, goal, incremental);
+        }
+        if (!catalogVersion.equals(lastCatalogVersion)) {
+            // Catálogo recarregado: planos locais referenciam ações antigas
+            planCache.invalidateAll();
+            lastCatalogVersion = catalogVersion;
+        }
+
+        PlanCacheKey key = fingerprinter.keyFor(currentFacts, avaliableActions, catalogVersion, goal);
+        Optional<CachedPlan> cached = planCache.get(key);
+        if (cached.isPresent()) {
+            CachedPlan hit = cached.get();
+            if (!hit.found()) {
+                log.debug("Cache de planos: objetivo {} sem plano para o estado atual.", goal.getName());
+                return Optional.empty();
+            }
+            List<Action> steps = resolveSteps(hit, avaliableActions);
+            if (steps != null) {
+                log.debug("Cache de planos: plano para o objetivo {} reaproveitado.", goal.getName());
+                return Optional.of(new Plan(goal, steps, hit.totalCost()));
+            }
+        }
+
+        Optional<Plan> plan = search(currentFacts, avaliableActions, goal, incremental);
+        planCache.put(key, plan
+                .map(found -> CachedPlan.of(found.steps().stream().map(Action::getName).toList(), found.totalCost()))
+                .orElse(CachedPlan.noPlan()));
+        return plan;
+    }
+
+    private Optional<Plan> search(Set<Fact> currentFacts, List<Action> avaliableActions, Goal goal, boolean incremental) {
+        return incremental
+                ? planner.replan(currentFacts, avaliableActions, goal)
+                : planner.findPlan(currentFacts, avaliableActions, goal);
+    }
 
+    /**
+     * Resolve os nomes guardados contra o catálogo atual; nulo se algum não existir mais.
+     */
+    private List<Action> resolveSteps(CachedPlan cached, List<Action> avaliableActions) {
+        Map<String, Action> actionsByName = fingerprinter.actionsByName(avaliableActions);
+        List<Action> steps = new ArrayList<>(cached.actionNames().size());
+        for (String name : cached.actionNames()) {
+            Action action = actionsByName.get(name);
+            if (action == null) {
+                return null;
+            }
+            steps.add(action);
+        }
+        return steps;
     }
 }
@@ -1,217 +1,346 @@
 package br.com.edsonuso.aoeplanner.core;
 
 
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.DomainCompiler;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.core.search.AnytimeSearch;
+import br.com.edsonuso.aoeplanner.core.search.ForwardSearch;
+import br.com.edsonuso.aoeplanner.core.search.Heuristic;
+import br.com.edsonuso.aoeplanner.core.search.IncrementalRegressionSearch;
+import br.com.edsonuso.aoeplanner.core.search.PortfolioSearch;
+import br.com.edsonuso.aoeplanner.core.search.RegressionSearch;
+import br.com.edsonuso.aoeplanner.core.search.SearchResult;
+import br.com.edsonuso.aoeplanner.core.search.SearchStatistics;
+import br.com.edsonuso.aoeplanner.core.search.SearchStrategy;
 import br.com.edsonuso.aoeplanner.model.Action;
 import br.com.edsonuso.aoeplanner.model.Fact;
 import br.com.edsonuso.aoeplanner.model.Goal;
 import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.SearchMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Node;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 @Component
 public class GoapPlanner {
     private static final int MAX_ITERATIONS = 1000;
 
-    public Optional<Plan> findPlan(Set<Fact> currentState, List<Action> availableActions, Goal goal) {
-        Node startNode = new Node(null, 0, currentState, null);
+    // AUTO usa regressão quando o objetivo toca no máximo 1/4 das variáveis do domínio
+    private static final int REGRESSION_GOAL_RATIO = 4;
 
-        // PriorityQueue ordenada por fScore (gScore + hScore)
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingInt(node -> node.fScore));
+    // Peso da heurística na variante de A* ponderado do portfólio
+    private static final int PORTFOLIO_HEURISTIC_WEIGHT = 3;
 
-        // Mantém os melhores gScores para cada estado
-        Map<Set<Fact>, Integer> bestGScores = new HashMap<>();
+    // Modo ANYTIME: peso da primeira rodada e quanto ele cai a cada rodada até 1
+    private static final double ANYTIME_INITIAL_WEIGHT = 3;
+    private static final double ANYTIME_WEIGHT_STEP = 0.5;
 
-        startNode.hScore = calculateHeuristic(startNode.state, goal.getDesiredState());
-        startNode.fScore = startNode.gScore + startNode.hScore;
+    private final DomainCompiler domainCompiler = new DomainCompiler();
+    // Trocadas juntas por setHeuristic; as buscas leem o par de uma vez, sem lock
+    private volatile Searches searches = Searches.of(Heuristic.H_MAX);
 
-        openSet.add(startNode);
-        bestGScores.put(startNode.state, startNode.gScore);
+    @Value("${planner.search.default-mode:AUTO}")
+    private SearchMode defaultSearchMode = SearchMode.AUTO;
 
-        int iterations = 0;
+    // 0 usa um worker por núcleo disponível
+    @Value("${planner.search.portfolio.parallelism:0}")
+    private int portfolioParallelism;
 
-        while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
-            iterations++;
-            Node currentNode = openSet.poll();
+    // Buscas incrementais mantidas por objetivo para o replanejamento
+    @Value("${planner.replan.max-goals:64}")
+    private int replanMaxGoals = 64;
 
-            // Verifica se atingimos o objetivo
-            if (stateSatisfiesGoal(currentNode.state, goal.getDesiredState())) {
-                return Optional.of(reconstructPlan(currentNode, goal));
-            }
+    @Value("${planner.replan.max-nodes:50000}")
+    private int replanMaxNodes = 50_000;
 
-            // Expande os vizinhos
-            for (Action action : availableActions) {
-                if (actionIsApplicable(action, currentNode.state)) {
-                    Set<Fact> neighborState = applyEffects(currentNode.state, action.getEffects());
-                    int tentativeGScore = currentNode.gScore + action.getCost();
-
-                    // Verifica se encontramos um caminho melhor para este estado
-                    Integer bestKnownGScore = bestGScores.get(neighborState);
-                    if (bestKnownGScore == null || tentativeGScore < bestKnownGScore) {
-                        Node neighborNode = new Node(currentNode, tentativeGScore, neighborState, action);
-                        neighborNode.hScore = calculateHeuristic(neighborState, goal.getDesiredState());
-                        neighborNode.fScore = neighborNode.gScore + neighborNode.hScore;
-
-                        openSet.add(neighborNode);
-                        bestGScores.put(neighborState, tentativeGScore);
-                    }
-                }
-            }
-        }
+    private final Map<String, IncrementalRegressionSearch> replanSessions = new LinkedHashMap<>(16, 0.75f, true);
 
-        return Optional.empty();
-    }
+    // Prazo do modo ANYTIME: o da prioridade 1, dobrando a cada nível, até o máximo
+    @Value("${planner.search.anytime.urgent-budget:PT0.02S}")
+    private Duration anytimeUrgentBudget = Duration.ofMillis(20);
+
+    @Value("${planner.search.anytime.max-budget:PT2S}")
+    private Duration anytimeMaxBudget = Duration.ofSeconds(2);
+
+    @Value("${planner.search.anytime.max-nodes:200000}")
+    private int anytimeMaxNodes = 200_000;
+
+    // Threads de plataforma das buscas vindas de threads virtuais (0 = uma por núcleo)
+    @Value("${planner.search.threads:0}")
+    private int searchThreads;
+
+    private ExecutorService searchPool;
+    private ForkJoinPool portfolioPool;
+    private SearchStrategy portfolioSearch;
+    private SearchObserver searchObserver = SearchObserver.NONE;
 
     /**
-     * Verifica se o estado atual satisfaz todos os requisitos do objetivo
+     * Compila o domínio de um catálogo antes de ele entrar em uso, fora do caminho das
+     * buscas. Buscas em andamento continuam com o domínio da versão anterior.
      */
-    private boolean stateSatisfiesGoal(Set<Fact> state, Map<String, Object> desiredState) {
-        Map<String, Object> stateMap = convertFactsToMap(state);
+    public void prepare(List<Action> availableActions) {
+        domainCompiler.compile(availableActions);
+    }
 
-        for (Map.Entry<String, Object> entry : desiredState.entrySet()) {
-            String key = entry.getKey();
-            Object desiredValue = entry.getValue();
-            Object actualValue = stateMap.get(key);
+    public Optional<Plan> findPlan(Set<Fact> currentState, List<Action> availableActions, Goal goal) {
+        return onSearchThread(cancelled -> findPlan(currentState, availableActions, goal, cancelled));
+    }
 
-            if (actualValue == null || !actualValue.equals(desiredValue)) {
-                return false;
-            }
+    private Optional<Plan> findPlan(Set<Fact> currentState, List<Action> availableActions, Goal goal,
+                                    BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        SearchStatistics statistics = new SearchStatistics();
+        CompiledDomain domain = domainCompiler.compile(availableActions);
+        CompiledGoal compiledGoal = domain.compileGoal(goal.getDesiredState(), currentState);
+        if (compiledGoal.unreachable()) {
+            return observed(goal, "unreachable", statistics, Optional.empty(), start);
         }
+        PackedState initial = domain.encode(currentState);
+        if (isDeadEnd(domain, initial, compiledGoal)) {
+            return observed(goal, "dead-end", statistics, Optional.empty(), start);
+        }
+
+        SearchMode mode = resolveMode(goal, domain, compiledGoal);
+        SearchStrategy strategy = switch (mode) {
+            case REGRESSION -> searches.regression();
+            case PORTFOLIO -> portfolioSearch();
+            case ANYTIME -> new AnytimeSearch(ANYTIME_INITIAL_WEIGHT, ANYTIME_WEIGHT_STEP, anytimeMaxNodes,
+                    anytimeBudget(goal.getPriority()));
+            default -> searches.forward();
+        };
+        Optional<SearchResult> result = strategy.search(domain, initial, compiledGoal, cancelled, statistics);
+        failIfCancelled(result, cancelled, goal);
+        return observed(goal, mode.name().toLowerCase(Locale.ROOT), statistics,
+                result.map(found -> new Plan(goal, found.steps(), found.totalCost())), start);
+    }
 
-        return true;
+    private Optional<Plan> observed(Goal goal, String strategy, SearchStatistics statistics,
+                                    Optional<Plan> plan, long start) {
+        searchObserver.searchFinished(goal, strategy, statistics, plan, System.nanoTime() - start);
+        return plan;
     }
 
     /**
-     * Verifica se uma ação pode ser aplicada no estado atual
+     * Roda a parte de CPU do planejamento. A interrupção da thread que pediu o plano
+     * é o sinal de cancelamento da busca (usado na preempção pelo agendador); o sinal
+     * é capturado aqui para valer também nos workers do portfólio.
+     *
+     * Em uma thread virtual a busca vai para o pool limitado de threads de
+     * plataforma: uma busca longa (e o {@code synchronized} do replanejamento)
+     * prenderia a carrier thread e tiraria as threads virtuais de I/O de circulação.
+     * A thread virtual só espera o resultado.
      */
-    private boolean actionIsApplicable(Action action, Set<Fact> state) {
-        Map<String, Object> stateMap = convertFactsToMap(state);
-        Map<String, Object> preconditions = action.getPreconditions();
-
-        for (Map.Entry<String, Object> entry : preconditions.entrySet()) {
-            String key = entry.getKey();
-            Object requiredValue = entry.getValue();
-            Object actualValue = stateMap.get(key);
+    private <T> T onSearchThread(Function<BooleanSupplier, T> search) {
+        Thread caller = Thread.currentThread();
+        if (!caller.isVirtual()) {
+            return search.apply(caller::isInterrupted);
+        }
 
-            if (actualValue == null || !actualValue.equals(requiredValue)) {
-                return false;
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Future<T> future = searchPool().submit(() -> search.apply(() -> abandoned.get() || caller.isInterrupted()));
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // A busca vê o cancelamento na próxima expansão; espera ela devolver
+                    interrupted = true;
+                    abandoned.set(true);
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha na busca do plano.", e.getCause());
+        } finally {
+            if (interrupted) {
+                caller.interrupt();
             }
         }
-
-        return true;
     }
 
     /**
-     * Aplica os efeitos de uma ação em um estado, criando um novo estado
+     * Uma busca cancelada não prova que não há plano, então não pode virar "sem plano"
+     * (nem no cache, nem no plano de diagnóstico).
      */
-    private Set<Fact> applyEffects(Set<Fact> originalState, Map<String, Object> effects) {
-        // Cria uma cópia do estado original
-        Map<String, Object> newStateMap = convertFactsToMap(originalState);
-
-        // Aplica os efeitos, se houver
-        if (effects != null) {
-            newStateMap.putAll(effects);
+    private static void failIfCancelled(Optional<SearchResult> result, BooleanSupplier cancelled, Goal goal) {
+        if (result.isEmpty() && cancelled.getAsBoolean()) {
+            throw new CancellationException("Busca do objetivo '" + goal.getName() + "' cancelada.");
         }
+    }
 
-        // Converte de volta para Set<Fact>
-        return convertMapToFacts(newStateMap);
+    /**
+     * Prova que o objetivo é inalcançável antes da busca: se nem no grafo relaxado
+     * (sem remoções) todos os fatos do objetivo são alcançáveis, nenhum plano existe.
+     */
+    private boolean isDeadEnd(CompiledDomain domain, PackedState initial, CompiledGoal compiledGoal) {
+        return domain.relaxedPlanningGraph().newExploration().hMax(initial, compiledGoal.mask()) == Heuristic.DEAD_END;
     }
 
     /**
-     * Heurística: conta quantas propriedades do objetivo ainda não foram satisfeitas
-     * Esta é uma heurística admissível (nunca superestima o custo real)
+     * Replaneja um objetivo reaproveitando a busca da chamada anterior para o mesmo
+     * objetivo. Usado quando um passo falha no executor e só alguns fatos mudaram:
+     * a busca regressiva guardada continua válida para os novos fatos e só a parte
+     * ainda não explorada é expandida. Se o catálogo ou o objetivo compilado mudarem,
+     * a busca recomeça.
      */
-    private int calculateHeuristic(Set<Fact> state, Map<String, Object> desiredState) {
-        Map<String, Object> stateMap = convertFactsToMap(state);
-        int unsatisfiedGoals = 0;
-
-        if(desiredState != null){
-            for (Map.Entry<String, Object> entry : desiredState.entrySet()) {
-                String key = entry.getKey();
-                Object desiredValue = entry.getValue();
-                Object actualValue = stateMap.get(key);
-
-                if (actualValue == null || !actualValue.equals(desiredValue)) {
-                    unsatisfiedGoals++;
-                }
-            }
+    public Optional<Plan> replan(Set<Fact> currentState, List<Action> availableActions, Goal goal) {
+        return onSearchThread(cancelled -> replan(currentState, availableActions, goal, cancelled));
+    }
+
+    private Optional<Plan> replan(Set<Fact> currentState, List<Action> availableActions, Goal goal,
+                                  BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        SearchStatistics statistics = new SearchStatistics();
+        CompiledDomain domain = domainCompiler.compile(availableActions);
+        CompiledGoal compiledGoal = domain.compileGoal(goal.getDesiredState(), currentState);
+        if (compiledGoal.unreachable()) {
+            return observed(goal, "unreachable", statistics, Optional.empty(), start);
         }
 
+        PackedState initial = domain.encode(currentState);
+        if (isDeadEnd(domain, initial, compiledGoal)) {
+            return observed(goal, "dead-end", statistics, Optional.empty(), start);
+        }
+
+        IncrementalRegressionSearch session = replanSession(goal.getName(), domain, compiledGoal);
+        Optional<SearchResult> result;
+        synchronized (session) {
+            result = session.search(initial, cancelled, statistics);
+        }
+        failIfCancelled(result, cancelled, goal);
+        return observed(goal, "incremental", statistics,
+                result.map(found -> new Plan(goal, found.steps(), found.totalCost())), start);
+    }
 
-        return unsatisfiedGoals;
+    private IncrementalRegressionSearch replanSession(String goalName, CompiledDomain domain, CompiledGoal compiledGoal) {
+        synchronized (replanSessions) {
+            IncrementalRegressionSearch session = replanSessions.get(goalName);
+            if (session == null || !session.matches(domain, compiledGoal)) {
+                session = new IncrementalRegressionSearch(domain, compiledGoal, MAX_ITERATIONS, replanMaxNodes);
+                replanSessions.put(goalName, session);
+                // LRU: descarta o objetivo usado há mais tempo
+                if (replanSessions.size() > replanMaxGoals) {
+                    replanSessions.remove(replanSessions.keySet().iterator().next());
+                }
+            }
+            return session;
+        }
     }
 
     /**
-     * Reconstrói o plano seguindo o caminho de volta do nó final até o inicial
+     * Direção efetiva da busca: a do objetivo, senão a padrão; AUTO é resolvido
+     * pelo tamanho do objetivo em relação ao domínio.
      */
-    private Plan reconstructPlan(Node finalNode, Goal goal) {
-        List<Action> actions = new ArrayList<>();
-        Node current = finalNode;
-
-        // Percorre de trás para frente
-        while (current.parent != null) {
-            actions.add(current.generatingAction);
-            current = current.parent;
+    SearchMode resolveMode(Goal goal, CompiledDomain domain, CompiledGoal compiledGoal) {
+        SearchMode mode = goal.getSearchMode() != null ? goal.getSearchMode() : defaultSearchMode;
+        if (mode != SearchMode.AUTO) {
+            return mode;
         }
+        int goalSize = compiledGoal.mask().size();
+        return goalSize > 0 && goalSize * REGRESSION_GOAL_RATIO <= domain.symbols().variableCount()
+                ? SearchMode.REGRESSION
+                : SearchMode.FORWARD;
+    }
 
-        // Inverte para obter a ordem correta
-        Collections.reverse(actions);
-
-        return new Plan(goal, actions, finalNode.gScore);
+    /**
+     * Prazo de melhoria do modo ANYTIME. Prioridade 1 (ou menor) é a mais urgente e
+     * recebe o prazo curto; cada nível abaixo dobra o prazo, limitado ao máximo.
+     */
+    Duration anytimeBudget(int priority) {
+        int level = Math.min(Math.max(priority, 1) - 1, 30);
+        Duration budget = anytimeUrgentBudget.multipliedBy(1L << level);
+        return budget.compareTo(anytimeMaxBudget) > 0 ? anytimeMaxBudget : budget;
     }
 
     /**
-     * Converte Set<Fact> para Map<String, Object> para facilitar comparações
+     * O pool é criado no primeiro uso do modo portfólio, depois da injeção das propriedades.
      */
-    private Map<String, Object> convertFactsToMap(Set<Fact> facts) {
-        Map<String, Object> map = new HashMap<>();
-        for (Fact fact : facts) {
-            map.put(fact.name(), fact.value());
+    private synchronized SearchStrategy portfolioSearch() {
+        if (portfolioPool == null) {
+            int parallelism = portfolioParallelism > 0 ? portfolioParallelism : Runtime.getRuntime().availableProcessors();
+            portfolioPool = new ForkJoinPool(parallelism, pool -> {
+                var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("goap-portfolio-" + worker.getPoolIndex());
+                return worker;
+            }, null, false);
+        }
+        if (portfolioSearch == null) {
+            // Variantes mais baratas primeiro: com menos workers que variantes elas começam antes.
+            // As não ótimas usam as heurísticas mais informativas (FF e h_add).
+            Searches current = searches;
+            portfolioSearch = new PortfolioSearch(List.of(
+                    new ForwardSearch(MAX_ITERATIONS, 0, 1, Heuristic.FF),
+                    current.regression(),
+                    new ForwardSearch(MAX_ITERATIONS, 1, PORTFOLIO_HEURISTIC_WEIGHT, Heuristic.H_ADD),
+                    current.forward()
+            ), portfolioPool);
         }
-        return map;
+        return portfolioSearch;
     }
 
     /**
-     * Converte Map<String, Object> para Set<Fact>
+     * Pool de plataforma das buscas pedidas por threads virtuais, criado no primeiro uso.
      */
-    private Set<Fact> convertMapToFacts(Map<String, Object> map) {
-        Set<Fact> facts = new HashSet<>();
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            facts.add(new Fact(entry.getKey(), entry.getValue()));
+    private synchronized ExecutorService searchPool() {
+        if (searchPool == null) {
+            int threads = searchThreads > 0 ? searchThreads : Runtime.getRuntime().availableProcessors();
+            searchPool = Executors.newFixedThreadPool(threads,
+                    Thread.ofPlatform().name("goap-search-", 1).daemon(true).factory());
+        }
+        return searchPool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (portfolioPool != null) {
+            portfolioPool.shutdownNow();
+        }
+        if (searchPool != null) {
+            searchPool.shutdownNow();
         }
-        return facts;
     }
 
     /**
-     * Classe interna para representar um nó na busca A*
+     * Heurística das buscas A* progressiva e regressiva (o portfólio também usa FF e h_add).
      */
-    private static class Node {
-        Node parent;
-        int gScore; // Custo real do início até aqui
-        int hScore; // Heurística (estimativa do custo daqui até o objetivo)
-        int fScore; // gScore + hScore (custo total estimado)
-        Set<Fact> state;
-        Action generatingAction;
-
-        Node(Node parent, int gScore, Set<Fact> state, Action generatingAction) {
-            this.parent = parent;
-            this.gScore = gScore;
-            this.state = state;
-            this.generatingAction = generatingAction;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Node node = (Node) o;
-            return Objects.equals(state, node.state);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(state);
+    @Value("${planner.search.heuristic:H_MAX}")
+    public synchronized void setHeuristic(Heuristic heuristic) {
+        this.searches = Searches.of(heuristic);
+        this.portfolioSearch = null;
+    }
+
+    public void setDefaultSearchMode(SearchMode defaultSearchMode) {
+        this.defaultSearchMode = defaultSearchMode;
+    }
+
+    @Autowired(required = false)
+    public void setSearchObserver(SearchObserver searchObserver) {
+        this.searchObserver = searchObserver;
+    }
+
+    private record Searches(SearchStrategy forward, SearchStrategy regression) {
+
+        static Searches of(Heuristic heuristic) {
+            return new Searches(new ForwardSearch(MAX_ITERATIONS, 1, 1, heuristic),
+                    new RegressionSearch(MAX_ITERATIONS, heuristic));
         }
     }
 }
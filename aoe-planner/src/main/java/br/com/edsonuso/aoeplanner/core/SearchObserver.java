@@ -0,0 +1,26 @@
+package br.com.edsonuso.aoeplanner.core;
+
+import br.com.edsonuso.aoeplanner.core.search.SearchStatistics;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+
+import java.util.Optional;
+
+/**
+ * Recebe o resultado de cada busca do {@link GoapPlanner}, para métricas.
+ *
+ * É chamado na thread da busca, depois dela terminar; implementações devem ser
+ * baratas e não podem lançar exceções. Buscas canceladas não são reportadas.
+ */
+@FunctionalInterface
+public interface SearchObserver {
+
+    SearchObserver NONE = (goal, strategy, statistics, plan, elapsedNanos) -> { };
+
+    /**
+     * @param strategy busca usada ({@code forward}, {@code regression}, {@code portfolio},
+     *                 {@code incremental}) ou o motivo de não ter havido busca
+     *                 ({@code unreachable}, {@code dead-end})
+     */
+    void searchFinished(Goal goal, String strategy, SearchStatistics statistics, Optional<Plan> plan, long elapsedNanos);
+}
@@ -0,0 +1,95 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.Arrays;
+
+/**
+ * Máscara esparsa sobre um estado empacotado: guarda apenas as palavras de 64 bits
+ * que têm algum bit ligado. Pré-condições, efeitos e objetivos tocam poucas variáveis,
+ * então testar uma máscara custa O(palavras tocadas) e não O(tamanho do estado).
+ */
+public final class BitMask {
+
+    public static final BitMask EMPTY = new BitMask(new int[0], new long[0], new int[0]);
+
+    private final int[] wordIndexes;
+    private final long[] wordBits;
+    private final int[] bits;
+
+    private BitMask(int[] wordIndexes, long[] wordBits, int[] bits) {
+        this.wordIndexes = wordIndexes;
+        this.wordBits = wordBits;
+        this.bits = bits;
+    }
+
+    /**
+     * Cria a máscara a partir de uma lista de bits (duplicados são ignorados).
+     */
+    public static BitMask of(int... bits) {
+        if (bits.length == 0) {
+            return EMPTY;
+        }
+        int[] sorted = Arrays.stream(bits).distinct().sorted().toArray();
+        int[] indexes = new int[sorted.length];
+        long[] values = new long[sorted.length];
+        int count = 0;
+        for (int bit : sorted) {
+            int word = bit >>> 6;
+            if (count == 0 || indexes[count - 1] != word) {
+                indexes[count++] = word;
+            }
+            values[count - 1] |= 1L << bit;
+        }
+        return new BitMask(Arrays.copyOf(indexes, count), Arrays.copyOf(values, count), sorted);
+    }
+
+    /**
+     * Verdadeiro se todos os bits da máscara estão ligados no estado.
+     */
+    public boolean isSubsetOf(long[] state) {
+        for (int i = 0; i < wordIndexes.length; i++) {
+            long mask = wordBits[i];
+            if ((state[wordIndexes[i]] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quantos bits da máscara estão desligados no estado.
+     */
+    public int countMissing(long[] state) {
+        int missing = 0;
+        for (int i = 0; i < wordIndexes.length; i++) {
+            missing += Long.bitCount(wordBits[i] & ~state[wordIndexes[i]]);
+        }
+        return missing;
+    }
+
+    public boolean isEmpty() {
+        return bits.length == 0;
+    }
+
+    public int size() {
+        return bits.length;
+    }
+
+    public int wordCount() {
+        return wordIndexes.length;
+    }
+
+    public int wordIndex(int i) {
+        return wordIndexes[i];
+    }
+
+    public long wordBits(int i) {
+        return wordBits[i];
+    }
+
+    /**
+     * Bits ligados, em ordem crescente. O array é compartilhado e não deve ser alterado.
+     */
+    public int[] bits() {
+        return bits;
+    }
+}
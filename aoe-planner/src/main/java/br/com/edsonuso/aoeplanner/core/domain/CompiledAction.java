@@ -0,0 +1,178 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+
+/**
+ * Ação pré-compilada contra a {@link SymbolTable} do domínio.
+ *
+ * As pré-condições viram uma máscara esparsa e os efeitos viram pares
+ * (limpa, liga) por palavra: aplicar a ação é {@code (estado & ~limpa) | liga}
+ * apenas nas palavras tocadas.
+ */
+public final class CompiledAction {
+
+    private final int id;
+    private final Action source;
+    private final int cost;
+    private final boolean satisfiable;
+    private final BitMask preconditions;
+    private final BitMask effects;
+    private final int[] effectWords;
+    private final long[] effectClear;
+    private final long[] effectSet;
+    private final int[] preconditionWords;
+    private final long[] preconditionClear;
+    private final long[] preconditionSet;
+
+    CompiledAction(int id, Action source, boolean satisfiable, BitMask preconditions, BitMask preconditionVariables,
+                   BitMask effects, BitMask effectVariables) {
+        this.id = id;
+        this.source = source;
+        this.cost = source.getCost();
+        this.satisfiable = satisfiable;
+        this.preconditions = preconditions;
+        this.effects = effects;
+
+        this.effectWords = wordsOf(effectVariables);
+        this.effectClear = bitsOf(effectVariables);
+        this.effectSet = alignedBits(effectWords, effects);
+        this.preconditionWords = wordsOf(preconditionVariables);
+        this.preconditionClear = bitsOf(preconditionVariables);
+        this.preconditionSet = alignedBits(preconditionWords, preconditions);
+    }
+
+    /**
+     * Verdadeiro se a ação pode ser aplicada no estado empacotado.
+     */
+    public boolean isApplicable(long[] state) {
+        return satisfiable && preconditions.isSubsetOf(state);
+    }
+
+    /**
+     * Aplica os efeitos em {@code target} (que já deve conter uma cópia do estado de origem)
+     * e devolve o delta do hash de Zobrist.
+     */
+    long applyTo(long[] target, long[] zobristKeys) {
+        long hashDelta = 0L;
+        for (int i = 0; i < effectWords.length; i++) {
+            int word = effectWords[i];
+            long before = target[word];
+            long after = (before & ~effectClear[i]) | effectSet[i];
+            hashDelta ^= keysOf(word, before ^ after, zobristKeys);
+            target[word] = after;
+        }
+        return hashDelta;
+    }
+
+    /**
+     * Verdadeiro se a ação produz algum bit do subobjetivo sem contradizer nenhum
+     * outro (ou seja, sem levar uma variável exigida para um valor diferente).
+     */
+    boolean supports(long[] subgoal) {
+        if (!satisfiable) {
+            return false;
+        }
+        boolean achievesSomething = false;
+        for (int i = 0; i < effectWords.length; i++) {
+            long required = subgoal[effectWords[i]] & effectClear[i];
+            if ((required & ~effectSet[i]) != 0) {
+                return false;
+            }
+            achievesSomething |= required != 0;
+        }
+        return achievesSomething;
+    }
+
+    /**
+     * Regride o subobjetivo em {@code target} (cópia do original): remove as variáveis
+     * que a ação produz e acrescenta as pré-condições. Devolve o delta do hash de
+     * Zobrist, ou {@code null} se as pré-condições contradizem o restante do subobjetivo.
+     */
+    Long regressInto(long[] target, long[] zobristKeys) {
+        long hashDelta = 0L;
+        for (int i = 0; i < effectWords.length; i++) {
+            int word = effectWords[i];
+            hashDelta ^= keysOf(word, target[word] & effectClear[i], zobristKeys);
+            target[word] &= ~effectClear[i];
+        }
+        for (int i = 0; i < preconditionWords.length; i++) {
+            int word = preconditionWords[i];
+            long remaining = target[word] & preconditionClear[i];
+            if ((remaining & ~preconditionSet[i]) != 0) {
+                return null;
+            }
+            hashDelta ^= keysOf(word, preconditionSet[i] & ~target[word], zobristKeys);
+            target[word] |= preconditionSet[i];
+        }
+        return hashDelta;
+    }
+
+    private static long keysOf(int word, long bits, long[] zobristKeys) {
+        long keys = 0L;
+        while (bits != 0) {
+            keys ^= zobristKeys[(word << 6) + Long.numberOfTrailingZeros(bits)];
+            bits &= bits - 1;
+        }
+        return keys;
+    }
+
+    private static int[] wordsOf(BitMask mask) {
+        int[] words = new int[mask.wordCount()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = mask.wordIndex(i);
+        }
+        return words;
+    }
+
+    private static long[] bitsOf(BitMask mask) {
+        long[] bits = new long[mask.wordCount()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = mask.wordBits(i);
+        }
+        return bits;
+    }
+
+    /**
+     * Distribui os bits de {@code values} nas mesmas palavras de {@code words}.
+     */
+    private static long[] alignedBits(int[] words, BitMask values) {
+        long[] aligned = new long[words.length];
+        for (int bit : values.bits()) {
+            int word = bit >>> 6;
+            for (int i = 0; i < words.length; i++) {
+                if (words[i] == word) {
+                    aligned[i] |= 1L << bit;
+                    break;
+                }
+            }
+        }
+        return aligned;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public Action source() {
+        return source;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Falso quando alguma pré-condição exige um valor nulo, que nunca é satisfeito.
+     */
+    public boolean isSatisfiable() {
+        return satisfiable;
+    }
+
+    public BitMask preconditions() {
+        return preconditions;
+    }
+
+    public BitMask effects() {
+        return effects;
+    }
+}
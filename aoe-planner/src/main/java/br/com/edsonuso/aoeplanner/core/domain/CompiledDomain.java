@@ -0,0 +1,299 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Fact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Representação compilada de um catálogo de ações: tabela de símbolos, ações
+ * pré-compiladas em máscaras e chaves de Zobrist por bit.
+ *
+ * É imutável e pode ser compartilhada entre buscas concorrentes. Só os fatos
+ * mencionados por alguma ação entram no estado empacotado; os demais são
+ * constantes durante a busca e são tratados na compilação do objetivo.
+ */
+public final class CompiledDomain {
+
+    // Semente fixa: o mesmo catálogo gera as mesmas chaves em qualquer réplica.
+    private static final long ZOBRIST_SEED = 0x9E3779B97F4A7C15L;
+    private static final int[] NO_ACTIONS = new int[0];
+
+    private final List<Action> source;
+    private final SymbolTable symbols;
+    private final CompiledAction[] actions;
+    private final long[] zobristKeys;
+    private final long[] initialWords;
+    private final SuccessorGenerator successorGenerator;
+    private final int[][] achievers;
+    private final RelaxedPlanningGraph relaxedPlanningGraph;
+
+    private CompiledDomain(List<Action> source, SymbolTable symbols, CompiledAction[] actions, long[] zobristKeys) {
+        this.source = source;
+        this.symbols = symbols;
+        this.actions = actions;
+        this.zobristKeys = zobristKeys;
+
+        // Estado base: todas as variáveis no slot OTHER.
+        this.initialWords = new long[symbols.words()];
+        for (int var = 0; var < symbols.variableCount(); var++) {
+            int bit = symbols.otherBit(var);
+            initialWords[bit >>> 6] |= 1L << bit;
+        }
+        this.successorGenerator = new SuccessorGenerator(symbols, actions);
+        this.achievers = indexAchievers(symbols, actions);
+        this.relaxedPlanningGraph = new RelaxedPlanningGraph(symbols, actions);
+    }
+
+    public static CompiledDomain compile(List<Action> availableActions) {
+        SymbolTable.Builder builder = SymbolTable.builder();
+        for (Action action : availableActions) {
+            preconditionsOf(action).forEach(builder::intern);
+            effectsOf(action).forEach(builder::intern);
+        }
+        SymbolTable symbols = builder.build();
+
+        long[] zobristKeys = new long[symbols.bitCount()];
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        for (int i = 0; i < zobristKeys.length; i++) {
+            zobristKeys[i] = random.nextLong();
+        }
+
+        CompiledAction[] compiled = new CompiledAction[availableActions.size()];
+        for (int id = 0; id < compiled.length; id++) {
+            compiled[id] = compileAction(id, availableActions.get(id), symbols);
+        }
+        return new CompiledDomain(availableActions, symbols, compiled, zobristKeys);
+    }
+
+    private static CompiledAction compileAction(int id, Action action, SymbolTable symbols) {
+        boolean satisfiable = true;
+        Map<String, Object> preconditions = preconditionsOf(action);
+        int[] preconditionBits = new int[preconditions.size()];
+        List<Integer> preconditionVariableBits = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<String, Object> entry : preconditions.entrySet()) {
+            // Um valor nulo nunca é igual ao valor atual de um fato.
+            if (entry.getValue() == null) {
+                satisfiable = false;
+            }
+            int var = symbols.variableOf(entry.getKey());
+            preconditionBits[i++] = symbols.bitOf(var, entry.getValue());
+            addVariableBits(symbols, var, preconditionVariableBits);
+        }
+
+        Map<String, Object> effects = effectsOf(action);
+        int[] effectBits = new int[effects.size()];
+        List<Integer> effectVariableBits = new ArrayList<>();
+        i = 0;
+        for (Map.Entry<String, Object> entry : effects.entrySet()) {
+            int var = symbols.variableOf(entry.getKey());
+            effectBits[i++] = symbols.bitOf(var, entry.getValue());
+            addVariableBits(symbols, var, effectVariableBits);
+        }
+
+        return new CompiledAction(id, action, satisfiable,
+                BitMask.of(preconditionBits), BitMask.of(toArray(preconditionVariableBits)),
+                BitMask.of(effectBits), BitMask.of(toArray(effectVariableBits)));
+    }
+
+    private static void addVariableBits(SymbolTable symbols, int var, List<Integer> bits) {
+        int first = symbols.otherBit(var);
+        for (int bit = first; bit < first + symbols.slotCount(var); bit++) {
+            bits.add(bit);
+        }
+    }
+
+    private static int[] toArray(List<Integer> bits) {
+        return bits.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[][] indexAchievers(SymbolTable symbols, CompiledAction[] actions) {
+        List<List<Integer>> byBit = new ArrayList<>(symbols.bitCount());
+        for (int bit = 0; bit < symbols.bitCount(); bit++) {
+            byBit.add(null);
+        }
+        for (CompiledAction action : actions) {
+            if (!action.isSatisfiable()) {
+                continue;
+            }
+            for (int bit : action.effects().bits()) {
+                if (byBit.get(bit) == null) {
+                    byBit.set(bit, new ArrayList<>());
+                }
+                byBit.get(bit).add(action.id());
+            }
+        }
+        int[][] achievers = new int[byBit.size()][];
+        for (int bit = 0; bit < achievers.length; bit++) {
+            achievers[bit] = byBit.get(bit) == null ? NO_ACTIONS : toArray(byBit.get(bit));
+        }
+        return achievers;
+    }
+
+    /**
+     * Empacota a base de fatos. Fatos que nenhuma ação menciona são ignorados e
+     * valores fora do domínio ficam no slot OTHER da variável.
+     */
+    public PackedState encode(Set<Fact> facts) {
+        long[] words = initialWords.clone();
+        for (Fact fact : facts) {
+            int var = symbols.variableOf(fact.name());
+            if (var < 0) {
+                continue;
+            }
+            int first = symbols.otherBit(var);
+            for (int bit = first; bit < first + symbols.slotCount(var); bit++) {
+                words[bit >>> 6] &= ~(1L << bit);
+            }
+            int bit = symbols.bitOf(var, fact.value());
+            if (bit < 0) {
+                bit = first;
+            }
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return new PackedState(words, hashOf(words));
+    }
+
+    /**
+     * Compila o estado desejado do objetivo contra os fatos atuais.
+     */
+    public CompiledGoal compileGoal(Map<String, Object> desiredState, Set<Fact> currentFacts) {
+        if (desiredState == null || desiredState.isEmpty()) {
+            return new CompiledGoal(BitMask.EMPTY, false);
+        }
+
+        Map<String, Object> currentValues = new HashMap<>(desiredState.size() * 2);
+        for (Fact fact : currentFacts) {
+            if (desiredState.containsKey(fact.name())) {
+                currentValues.put(fact.name(), fact.value());
+            }
+        }
+
+        int[] bits = new int[desiredState.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : desiredState.entrySet()) {
+            Object desired = entry.getValue();
+            if (desired == null) {
+                return CompiledGoal.UNREACHABLE;
+            }
+            boolean holdsNow = Objects.equals(currentValues.get(entry.getKey()), desired);
+            int var = symbols.variableOf(entry.getKey());
+            if (var < 0) {
+                // Nenhuma ação altera este fato: ou já está satisfeito, ou nunca estará.
+                if (!holdsNow) {
+                    return CompiledGoal.UNREACHABLE;
+                }
+                continue;
+            }
+            int bit = symbols.bitOf(var, desired);
+            if (bit < 0) {
+                // Nenhuma ação produz este valor: só vale enquanto a variável não for alterada.
+                if (!holdsNow) {
+                    return CompiledGoal.UNREACHABLE;
+                }
+                bit = symbols.otherBit(var);
+            }
+            bits[i++] = bit;
+        }
+        return new CompiledGoal(BitMask.of(Arrays.copyOf(bits, i)), false);
+    }
+
+    /**
+     * Gera o estado sucessor aplicando os efeitos da ação, atualizando o hash incrementalmente.
+     */
+    public PackedState apply(PackedState state, CompiledAction action) {
+        long[] words = state.words().clone();
+        long hashDelta = action.applyTo(words, zobristKeys);
+        return new PackedState(words, state.zobristHash() ^ hashDelta);
+    }
+
+    /**
+     * Subobjetivo inicial da busca regressiva: apenas os bits exigidos pelo objetivo.
+     */
+    public PackedState goalState(CompiledGoal goal) {
+        long[] words = new long[symbols.words()];
+        for (int bit : goal.mask().bits()) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return new PackedState(words, hashOf(words));
+    }
+
+    /**
+     * Regride o subobjetivo pela ação, ou devolve {@code null} se a ação não contribui
+     * para ele ou se suas pré-condições o contradizem.
+     */
+    public PackedState regress(PackedState subgoal, CompiledAction action) {
+        if (!action.supports(subgoal.words())) {
+            return null;
+        }
+        long[] words = subgoal.words().clone();
+        Long hashDelta = action.regressInto(words, zobristKeys);
+        return hashDelta == null ? null : new PackedState(words, subgoal.zobristHash() ^ hashDelta);
+    }
+
+    /**
+     * Ações cujo efeito liga o bit (produtores do par variável/valor).
+     */
+    public int[] achieversOf(int bit) {
+        return achievers[bit];
+    }
+
+    private long hashOf(long[] words) {
+        long hash = 0L;
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                hash ^= zobristKeys[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+        }
+        return hash;
+    }
+
+    public List<Action> source() {
+        return source;
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    public CompiledAction[] actions() {
+        return actions;
+    }
+
+    /**
+     * Índice de pré-condições construído uma vez para este catálogo.
+     */
+    public SuccessorGenerator successorGenerator() {
+        return successorGenerator;
+    }
+
+    /**
+     * Grafo relaxado usado pelas heurísticas e pela detecção de becos sem saída.
+     */
+    public RelaxedPlanningGraph relaxedPlanningGraph() {
+        return relaxedPlanningGraph;
+    }
+
+    public int actionCount() {
+        return actions.length;
+    }
+
+    private static Map<String, Object> preconditionsOf(Action action) {
+        return action.getPreconditions() == null ? Collections.emptyMap() : action.getPreconditions();
+    }
+
+    private static Map<String, Object> effectsOf(Action action) {
+        return action.getEffects() == null ? Collections.emptyMap() : action.getEffects();
+    }
+}
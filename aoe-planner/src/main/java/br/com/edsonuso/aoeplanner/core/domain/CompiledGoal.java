@@ -0,0 +1,24 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+/**
+ * Objetivo traduzido para uma máscara sobre o estado empacotado.
+ *
+ * Entradas do objetivo sobre fatos que nenhuma ação altera são resolvidas na
+ * compilação contra os fatos atuais: se já estão satisfeitas somem da máscara,
+ * caso contrário o objetivo é marcado como inalcançável.
+ */
+public record CompiledGoal(BitMask mask, boolean unreachable) {
+
+    static final CompiledGoal UNREACHABLE = new CompiledGoal(BitMask.EMPTY, true);
+
+    public boolean isSatisfiedBy(PackedState state) {
+        return !unreachable && state.satisfies(mask);
+    }
+
+    /**
+     * Quantidade de entradas do objetivo ainda não satisfeitas no estado.
+     */
+    public int unsatisfiedCount(PackedState state) {
+        return mask.countMissing(state.words());
+    }
+}
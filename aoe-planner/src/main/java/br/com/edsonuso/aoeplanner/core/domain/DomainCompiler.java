@@ -0,0 +1,26 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.List;
+
+/**
+ * Compila catálogos de ações e reaproveita o resultado enquanto o chamador
+ * devolver a mesma lista (o {@code YamlActionRepository} mantém a lista carregada
+ * em cache, então a compilação acontece uma vez por catálogo).
+ *
+ * Guarda os domínios das últimas listas usadas, não só o último: durante a recarga
+ * do catálogo, buscas que começaram com a versão antiga não forçam recompilações, e
+ * os subconjuntos do catálogo relevantes para cada objetivo (também mantidos em
+ * cache por quem chama) convivem sem se expulsar.
+ */
+public final class DomainCompiler {
+
+    private static final int MAX_DOMAINS = 64;
+
+    private final IdentityCache<List<Action>, CompiledDomain> domains = new IdentityCache<>(MAX_DOMAINS);
+
+    public CompiledDomain compile(List<Action> availableActions) {
+        return domains.computeIfAbsent(availableActions, CompiledDomain::compile);
+    }
+}
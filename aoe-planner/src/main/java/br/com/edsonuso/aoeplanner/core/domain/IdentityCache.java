@@ -0,0 +1,71 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * LRU limitado com chave por identidade, para valores derivados de uma lista de ações
+ * (domínio compilado, vocabulário do cache de planos, índice de relevância).
+ *
+ * As listas de ações são mantidas em cache por quem as produz, então a mesma instância
+ * volta a cada chamada e comparar o conteúdo custaria tanto quanto recalcular o valor.
+ * A última entrada usada fica num campo volátil e é devolvida sem lock; as demais
+ * ficam no LRU, para que listas alternadas (recortes de objetivos diferentes, ou as
+ * versões antiga e nova do catálogo durante uma recarga) não se expulsem.
+ */
+public final class IdentityCache<K, V> {
+
+    private final int maxEntries;
+    private final Map<Identity<K>, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Entry<K, V> last;
+
+    public IdentityCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Devolve o valor da chave, calculando-o se ainda não estiver no cache. O cálculo
+     * roda fora do lock: duas chamadas com a mesma chave nova podem calcular duas
+     * vezes, e fica o primeiro valor guardado.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        Entry<K, V> recent = last;
+        if (recent != null && recent.key() == key) {
+            return recent.value();
+        }
+        Identity<K> identity = new Identity<>(key);
+        V value;
+        synchronized (entries) {
+            value = entries.get(identity);
+        }
+        if (value == null) {
+            V loaded = loader.apply(key);
+            synchronized (entries) {
+                V existing = entries.putIfAbsent(identity, loaded);
+                value = existing != null ? existing : loaded;
+                if (entries.size() > maxEntries) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        last = new Entry<>(key, value);
+        return value;
+    }
+
+    private record Entry<K, V>(K key, V value) {
+    }
+
+    private record Identity<K>(K key) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity<?> identity && identity.key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+}
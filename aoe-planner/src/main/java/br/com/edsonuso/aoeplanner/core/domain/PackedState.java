@@ -0,0 +1,74 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.Arrays;
+
+/**
+ * Estado do mundo empacotado em um bitset {@code long[]} com hash de Zobrist.
+ *
+ * O hash é mantido incrementalmente a cada aplicação de ação, então usar o estado
+ * como chave de mapa não percorre os fatos. Instâncias são imutáveis: o array
+ * interno nunca é alterado depois de construído.
+ */
+public final class PackedState {
+
+    private final long[] words;
+    private final long hash;
+
+    PackedState(long[] words, long hash) {
+        this.words = words;
+        this.hash = hash;
+    }
+
+    /**
+     * Palavras do bitset. O array é compartilhado e não deve ser alterado.
+     */
+    public long[] words() {
+        return words;
+    }
+
+    public long zobristHash() {
+        return hash;
+    }
+
+    public boolean satisfies(BitMask mask) {
+        return mask.isSubsetOf(words);
+    }
+
+    /**
+     * Verdadeiro se todo bit ligado aqui também está ligado em {@code other}
+     * (um subobjetivo parcial é satisfeito por um estado completo).
+     */
+    public boolean isSubsetOf(PackedState other) {
+        long[] otherWords = other.words;
+        for (int w = 0; w < words.length; w++) {
+            if ((words[w] & ~otherWords[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quantos bits ligados aqui estão desligados em {@code other}.
+     */
+    public int countMissingIn(PackedState other) {
+        long[] otherWords = other.words;
+        int missing = 0;
+        for (int w = 0; w < words.length; w++) {
+            missing += Long.bitCount(words[w] & ~otherWords[w]);
+        }
+        return missing;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedState other)) return false;
+        return hash == other.hash && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.Arrays;
+
+/**
+ * Avaliação das heurísticas do grafo relaxado a partir de um estado.
+ *
+ * A exploração é um Dijkstra sobre bits: cada bit do estado custa zero, uma ação
+ * dispara quando todas as suas pré-condições foram fixadas e oferece aos seus
+ * efeitos o próprio custo somado ao custo agregado das pré-condições (máximo para
+ * h_max, soma para h_add). A exploração para assim que todos os bits do objetivo
+ * foram fixados. Os arrays de trabalho são reaproveitados entre avaliações, então
+ * uma instância pertence a uma única busca.
+ */
+public final class RelaxedExploration {
+
+    /**
+     * Valor devolvido quando algum bit do objetivo é inalcançável mesmo no problema
+     * relaxado: o estado é um beco sem saída.
+     */
+    public static final int DEAD_END = Integer.MAX_VALUE;
+
+    private static final long INFINITE = Long.MAX_VALUE;
+
+    private final RelaxedPlanningGraph graph;
+    private final long[] bitCost;
+    private final int[] supporter;
+    private final int[] pending;
+    private final long[] accumulated;
+    private final int[] goalMark;
+    private final int[] actionMark;
+    private long[] heap = new long[64];
+    private int heapSize;
+    private int stamp;
+
+    RelaxedExploration(RelaxedPlanningGraph graph) {
+        this.graph = graph;
+        this.bitCost = new long[graph.bitCount];
+        this.supporter = new int[graph.bitCount];
+        this.pending = new int[graph.actionCount()];
+        this.accumulated = new long[graph.actionCount()];
+        this.goalMark = new int[graph.bitCount];
+        this.actionMark = new int[graph.actionCount()];
+    }
+
+    /**
+     * h_max: custo do bit mais caro do objetivo. Admissível.
+     */
+    public int hMax(PackedState state, BitMask goal) {
+        if (!explore(state.words(), goal, false)) {
+            return DEAD_END;
+        }
+        long max = 0;
+        for (int bit : goal.bits()) {
+            max = Math.max(max, bitCost[bit]);
+        }
+        return clamp(max);
+    }
+
+    /**
+     * h_add: soma dos custos dos bits do objetivo. Mais informativa, não admissível.
+     */
+    public int hAdd(PackedState state, BitMask goal) {
+        if (!explore(state.words(), goal, true)) {
+            return DEAD_END;
+        }
+        long sum = 0;
+        for (int bit : goal.bits()) {
+            sum += bitCost[bit];
+        }
+        return clamp(sum);
+    }
+
+    /**
+     * Heurística do FF: custo de um plano relaxado extraído pelos melhores
+     * produtores de h_add, contando cada ação uma vez. Não admissível.
+     */
+    public int hFF(PackedState state, BitMask goal) {
+        if (!explore(state.words(), goal, true)) {
+            return DEAD_END;
+        }
+        stamp++;
+        int[] stack = new int[Math.max(1, goal.size())];
+        int top = 0;
+        for (int bit : goal.bits()) {
+            stack = push(stack, top++, bit);
+        }
+        long total = 0;
+        while (top > 0) {
+            int bit = stack[--top];
+            int action = supporter[bit];
+            if (bitCost[bit] == 0 || action < 0 || actionMark[action] == stamp) {
+                continue;
+            }
+            actionMark[action] = stamp;
+            total += graph.costs[action];
+            for (int pre : graph.preconditions[action]) {
+                stack = push(stack, top++, pre);
+            }
+        }
+        return clamp(total);
+    }
+
+    /**
+     * Custos relaxados de todos os bits a partir do estado (sem parada antecipada),
+     * no modo soma ou máximo. Bits inalcançáveis ficam com {@link #DEAD_END}. O
+     * array devolvido é novo e pode ser guardado pelo chamador.
+     */
+    public int[] bitCosts(PackedState state, boolean additive) {
+        explore(state.words(), BitMask.EMPTY, additive);
+        int[] costs = new int[bitCost.length];
+        for (int bit = 0; bit < costs.length; bit++) {
+            costs[bit] = bitCost[bit] == INFINITE ? DEAD_END : clamp(bitCost[bit]);
+        }
+        return costs;
+    }
+
+    /**
+     * Roda a exploração; devolve falso se algum bit do objetivo ficou inalcançável.
+     */
+    private boolean explore(long[] state, BitMask goal, boolean additive) {
+        Arrays.fill(bitCost, INFINITE);
+        Arrays.fill(supporter, -1);
+        Arrays.fill(accumulated, 0L);
+        for (int a = 0; a < pending.length; a++) {
+            pending[a] = graph.preconditions[a].length;
+        }
+        heapSize = 0;
+
+        stamp++;
+        int goalsLeft = 0;
+        for (int bit : goal.bits()) {
+            if (goalMark[bit] != stamp) {
+                goalMark[bit] = stamp;
+                goalsLeft++;
+            }
+        }
+
+        for (int w = 0; w < state.length; w++) {
+            long bits = state[w];
+            while (bits != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bitCost[bit] = 0;
+                offer(0, bit);
+                bits &= bits - 1;
+            }
+        }
+        for (int action : graph.withoutPreconditions) {
+            fire(action, graph.costs[action]);
+        }
+
+        while (heapSize > 0) {
+            long entry = poll();
+            int bit = (int) entry;
+            long cost = entry >>> 32;
+            if (cost > bitCost[bit]) {
+                continue; // Entrada obsoleta
+            }
+            if (goalMark[bit] == stamp) {
+                goalMark[bit] = 0;
+                if (--goalsLeft == 0 && goal.size() > 0) {
+                    break;
+                }
+            }
+            for (int action : graph.consumers[bit]) {
+                accumulated[action] = additive ? accumulated[action] + cost : Math.max(accumulated[action], cost);
+                if (--pending[action] == 0) {
+                    fire(action, accumulated[action] + graph.costs[action]);
+                }
+            }
+        }
+
+        for (int bit : goal.bits()) {
+            if (bitCost[bit] == INFINITE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fire(int action, long cost) {
+        for (int effect : graph.effects[action]) {
+            if (cost < bitCost[effect]) {
+                bitCost[effect] = cost;
+                supporter[effect] = action;
+                offer(cost, effect);
+            }
+        }
+    }
+
+    // Heap binário de longs: custo nos 32 bits altos, bit nos baixos.
+    private void offer(long cost, int bit) {
+        long entry = (Math.min(cost, Integer.MAX_VALUE) << 32) | bit;
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long poll() {
+        long result = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return result;
+    }
+
+    private static int[] push(int[] stack, int index, int value) {
+        int[] target = index == stack.length ? Arrays.copyOf(stack, stack.length * 2) : stack;
+        target[index] = value;
+        return target;
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.min(value, DEAD_END - 1L);
+    }
+}
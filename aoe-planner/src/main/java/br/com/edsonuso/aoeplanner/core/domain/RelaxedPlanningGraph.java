@@ -0,0 +1,74 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grafo de planejamento relaxado (sem efeitos de remoção) de um catálogo compilado.
+ *
+ * Guarda, por bit, as ações que o exigem como pré-condição e, por ação, suas
+ * pré-condições e efeitos como arrays de bits. É construído uma vez junto com o
+ * {@link CompiledDomain} e é imutável; as avaliações usam uma
+ * {@link RelaxedExploration} própria de cada busca.
+ */
+public final class RelaxedPlanningGraph {
+
+    private static final int[] NO_ACTIONS = new int[0];
+
+    final int bitCount;
+    final int[][] preconditions;
+    final int[][] effects;
+    final int[] costs;
+    final int[][] consumers;
+    final int[] withoutPreconditions;
+
+    RelaxedPlanningGraph(SymbolTable symbols, CompiledAction[] actions) {
+        this.bitCount = symbols.bitCount();
+        this.preconditions = new int[actions.length][];
+        this.effects = new int[actions.length][];
+        this.costs = new int[actions.length];
+
+        List<List<Integer>> consumersByBit = new ArrayList<>(bitCount);
+        for (int bit = 0; bit < bitCount; bit++) {
+            consumersByBit.add(null);
+        }
+        List<Integer> free = new ArrayList<>();
+        for (CompiledAction action : actions) {
+            int id = action.id();
+            costs[id] = action.cost();
+            // Ações com pré-condição nula nunca disparam: ficam sem efeitos no grafo
+            preconditions[id] = action.preconditions().bits();
+            effects[id] = action.isSatisfiable() ? action.effects().bits() : NO_ACTIONS;
+            if (!action.isSatisfiable()) {
+                continue;
+            }
+            if (preconditions[id].length == 0) {
+                free.add(id);
+            }
+            for (int bit : preconditions[id]) {
+                if (consumersByBit.get(bit) == null) {
+                    consumersByBit.set(bit, new ArrayList<>());
+                }
+                consumersByBit.get(bit).add(id);
+            }
+        }
+
+        this.consumers = new int[bitCount][];
+        for (int bit = 0; bit < bitCount; bit++) {
+            List<Integer> ids = consumersByBit.get(bit);
+            consumers[bit] = ids == null ? NO_ACTIONS : ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.withoutPreconditions = free.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Cria uma área de trabalho para avaliações; não deve ser compartilhada entre threads.
+     */
+    public RelaxedExploration newExploration() {
+        return new RelaxedExploration(this);
+    }
+
+    int actionCount() {
+        return costs.length;
+    }
+}
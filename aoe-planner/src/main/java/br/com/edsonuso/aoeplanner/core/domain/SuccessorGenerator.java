@@ -0,0 +1,165 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gerador de sucessores em árvore de decisão, no estilo dos planejadores clássicos.
+ *
+ * Cada nó testa uma variável: as ações com pré-condição sobre ela ficam no filho
+ * correspondente ao valor exigido, as demais ficam no filho "tanto faz". Percorrer a
+ * árvore para um estado visita apenas os ramos compatíveis com ele, então o custo de
+ * uma expansão depende das ações aplicáveis e não do tamanho do catálogo.
+ *
+ * Construído uma vez por {@link CompiledDomain} e imutável depois disso.
+ */
+public final class SuccessorGenerator {
+
+    private static final int[] NO_ACTIONS = new int[0];
+
+    private final SymbolTable symbols;
+    private final Node root;
+
+    SuccessorGenerator(SymbolTable symbols, CompiledAction[] actions) {
+        this.symbols = symbols;
+        List<Candidate> candidates = new ArrayList<>(actions.length);
+        for (CompiledAction action : actions) {
+            if (action.isSatisfiable()) {
+                candidates.add(new Candidate(action.id(), action.preconditions().bits(), 0));
+            }
+        }
+        this.root = build(candidates);
+    }
+
+    /**
+     * Escreve em {@code out} os ids das ações aplicáveis no estado, em ordem crescente
+     * (a mesma ordem do catálogo), e devolve quantos foram escritos.
+     *
+     * @param out buffer com pelo menos {@code actionCount} posições
+     */
+    public int collect(long[] state, int[] out) {
+        int count = visit(root, state, out, 0);
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    private int visit(Node node, long[] state, int[] out, int count) {
+        while (node != null) {
+            for (int id : node.immediate) {
+                out[count++] = id;
+            }
+            if (node.variable < 0) {
+                return count;
+            }
+            int slot = currentSlot(node.variable, state);
+            if (slot >= 0 && node.children[slot] != null) {
+                count = visit(node.children[slot], state, out, count);
+            }
+            node = node.dontCare;
+        }
+        return count;
+    }
+
+    /**
+     * Posição (relativa ao slot OTHER) do bit ligado da variável no estado.
+     */
+    private int currentSlot(int variable, long[] state) {
+        int first = symbols.otherBit(variable);
+        int end = first + symbols.slotCount(variable);
+        int bit = first;
+        while (bit < end) {
+            int word = bit >>> 6;
+            long bits = state[word] & (-1L << bit);
+            int wordEnd = (word + 1) << 6;
+            if (end < wordEnd) {
+                bits &= (1L << end) - 1;
+            }
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits) - first;
+            }
+            bit = wordEnd;
+        }
+        return -1;
+    }
+
+    private Node build(List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        List<Integer> immediate = new ArrayList<>();
+        int variable = Integer.MAX_VALUE;
+        for (Candidate candidate : candidates) {
+            if (candidate.exhausted()) {
+                immediate.add(candidate.actionId);
+            } else {
+                variable = Math.min(variable, symbols.variableOfBit(candidate.nextBit()));
+            }
+        }
+
+        Node node = new Node();
+        node.immediate = immediate.isEmpty() ? NO_ACTIONS : immediate.stream().mapToInt(Integer::intValue).toArray();
+        if (variable == Integer.MAX_VALUE) {
+            return node;
+        }
+
+        // Separa as ações que testam a variável (por valor) das que não a testam.
+        int first = symbols.otherBit(variable);
+        List<List<Candidate>> byValue = new ArrayList<>();
+        for (int i = 0; i < symbols.slotCount(variable); i++) {
+            byValue.add(null);
+        }
+        List<Candidate> dontCare = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.exhausted()) {
+                continue;
+            }
+            int bit = candidate.nextBit();
+            if (symbols.variableOfBit(bit) == variable) {
+                int slot = bit - first;
+                if (byValue.get(slot) == null) {
+                    byValue.set(slot, new ArrayList<>());
+                }
+                byValue.get(slot).add(candidate.advance());
+            } else {
+                dontCare.add(candidate);
+            }
+        }
+
+        node.variable = variable;
+        node.children = new Node[byValue.size()];
+        for (int slot = 0; slot < byValue.size(); slot++) {
+            if (byValue.get(slot) != null) {
+                node.children[slot] = build(byValue.get(slot));
+            }
+        }
+        node.dontCare = build(dontCare);
+        return node;
+    }
+
+    private static final class Node {
+        int[] immediate;
+        int variable = -1;
+        Node[] children;
+        Node dontCare;
+    }
+
+    /**
+     * Ação durante a construção: pré-condições ordenadas por bit (e portanto por
+     * variável, já que os bits de uma variável são contíguos) e o próximo índice a testar.
+     */
+    private record Candidate(int actionId, int[] conditions, int next) {
+        boolean exhausted() {
+            return next >= conditions.length;
+        }
+
+        int nextBit() {
+            return conditions[next];
+        }
+
+        Candidate advance() {
+            return new Candidate(actionId, conditions, next + 1);
+        }
+    }
+}
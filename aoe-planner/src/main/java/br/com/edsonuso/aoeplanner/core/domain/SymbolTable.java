@@ -0,0 +1,149 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tabela de símbolos do domínio: interna os nomes de fatos (variáveis) e os
+ * valores que as ações conhecem, atribuindo a cada par (variável, valor) um bit.
+ *
+ * Cada variável ocupa um intervalo contíguo de bits. O primeiro bit do intervalo
+ * é o slot OTHER, que representa "ausente ou com um valor que nenhuma ação menciona".
+ * Um estado válido tem exatamente um bit ligado por variável.
+ */
+public final class SymbolTable {
+
+    /** Marcador usado como valor do slot OTHER. */
+    public static final Object OTHER = new Object() {
+        @Override
+        public String toString() {
+            return "<other>";
+        }
+    };
+
+    private final Map<String, Integer> variableIds;
+    private final String[] variableNames;
+    private final List<Map<Object, Integer>> valueBits;
+    private final int[] firstBit;
+    private final int[] slotCount;
+    private final int[] bitVariable;
+    private final Object[] bitValue;
+    private final int words;
+
+    private SymbolTable(Map<String, ? extends Collection<Object>> values) {
+        int variableCount = values.size();
+        this.variableIds = new HashMap<>(variableCount * 2);
+        this.variableNames = new String[variableCount];
+        this.valueBits = new ArrayList<>(variableCount);
+        this.firstBit = new int[variableCount];
+        this.slotCount = new int[variableCount];
+
+        int bitCount = 0;
+        for (Collection<Object> domainValues : values.values()) {
+            bitCount += domainValues.size() + 1;
+        }
+        this.bitVariable = new int[bitCount];
+        this.bitValue = new Object[bitCount];
+        this.words = Math.max(1, (bitCount + 63) >>> 6);
+
+        int var = 0;
+        int bit = 0;
+        for (Map.Entry<String, ? extends Collection<Object>> entry : values.entrySet()) {
+            variableIds.put(entry.getKey(), var);
+            variableNames[var] = entry.getKey();
+            firstBit[var] = bit;
+            slotCount[var] = entry.getValue().size() + 1;
+
+            Map<Object, Integer> bits = new HashMap<>();
+            bitVariable[bit] = var;
+            bitValue[bit] = OTHER;
+            bit++;
+            for (Object value : entry.getValue()) {
+                bits.put(value, bit);
+                bitVariable[bit] = var;
+                bitValue[bit] = value;
+                bit++;
+            }
+            valueBits.add(bits);
+            var++;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retorna o id da variável, ou -1 se nenhuma ação a menciona.
+     */
+    public int variableOf(String name) {
+        Integer id = variableIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retorna o bit do par (variável, valor), ou -1 se o valor não pertence ao domínio.
+     */
+    public int bitOf(int variable, Object value) {
+        Integer bit = valueBits.get(variable).get(value);
+        return bit == null ? -1 : bit;
+    }
+
+    public int otherBit(int variable) {
+        return firstBit[variable];
+    }
+
+    /**
+     * Quantidade de bits da variável, incluindo o slot OTHER.
+     */
+    public int slotCount(int variable) {
+        return slotCount[variable];
+    }
+
+    public int variableOfBit(int bit) {
+        return bitVariable[bit];
+    }
+
+    public String variableName(int variable) {
+        return variableNames[variable];
+    }
+
+    public Object valueOfBit(int bit) {
+        return bitValue[bit];
+    }
+
+    public int variableCount() {
+        return variableNames.length;
+    }
+
+    public int bitCount() {
+        return bitVariable.length;
+    }
+
+    public int words() {
+        return words;
+    }
+
+    /**
+     * Acumula os pares (variável, valor) em ordem de aparição para que a
+     * numeração dos bits seja determinística para um mesmo catálogo.
+     */
+    public static final class Builder {
+        private final Map<String, Set<Object>> values = new LinkedHashMap<>();
+
+        public Builder intern(String name, Object value) {
+            values.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(value);
+            return this;
+        }
+
+        public SymbolTable build() {
+            return new SymbolTable(values);
+        }
+    }
+}
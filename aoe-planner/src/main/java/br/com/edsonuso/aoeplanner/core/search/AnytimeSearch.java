@@ -0,0 +1,238 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledAction;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.core.domain.SuccessorGenerator;
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Busca progressiva anytime (ARA*): encontra rápido um primeiro plano com A*
+ * ponderado de peso alto e, enquanto houver prazo, reduz o peso e melhora o plano
+ * reaproveitando os nós já gerados.
+ *
+ * Cada rodada com peso {@code w} termina com um plano no máximo {@code w} vezes o
+ * ótimo; com o prazo esgotado a busca devolve o melhor plano até ali, com o fator
+ * calculado pela fronteira ({@code custo / min(g + h)}). A rodada com peso 1 prova
+ * o ótimo. A heurística é sempre H_MAX, a única admissível, para o fator valer.
+ *
+ * O prazo só corta melhorias: sem nenhum plano a busca continua até o limite de
+ * nós, porque devolver vazio levaria ao plano de diagnóstico.
+ *
+ * Uma instância carrega o prazo da busca e pode ser usada por várias threads.
+ */
+public class AnytimeSearch implements SearchStrategy {
+
+    private final double initialWeight;
+    private final double weightStep;
+    private final int maxNodes;
+    private final long budgetNanos;
+
+    public AnytimeSearch(double initialWeight, double weightStep, int maxNodes, Duration budget) {
+        this.initialWeight = Math.max(1, initialWeight);
+        this.weightStep = weightStep;
+        this.maxNodes = maxNodes;
+        this.budgetNanos = budget.toNanos();
+    }
+
+    @Override
+    public Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal,
+                                         BooleanSupplier cancelled, SearchStatistics statistics) {
+        long deadline = System.nanoTime() + budgetNanos;
+        if (goal.isSatisfiedBy(initial)) {
+            statistics.recordBound(1);
+            return Optional.of(new SearchResult(List.of(), 0, 1));
+        }
+        ToIntFunction<PackedState> estimate = Heuristic.H_MAX.forward(domain, goal);
+        int startH = estimate.applyAsInt(initial);
+        if (startH == Heuristic.DEAD_END) {
+            return Optional.empty();
+        }
+
+        // Um nó por estado: o melhor caminho conhecido. Um caminho melhor cria um nó
+        // novo e as entradas antigas na fila são descartadas ao sair dela.
+        Map<PackedState, Node> best = new HashMap<>();
+        Node start = new Node(null, 0, startH, initial, null);
+        best.put(initial, start);
+
+        double weight = initialWeight;
+        int round = 0;
+        start.key = start.gScore + weight * start.hScore;
+        PriorityQueue<Node> openSet = newOpenSet();
+        openSet.add(start);
+        // Nós melhorados depois de expandidos na rodada atual (INCONS do ARA*)
+        List<Node> inconsistent = new ArrayList<>();
+
+        CompiledAction[] actions = domain.actions();
+        SuccessorGenerator successors = domain.successorGenerator();
+        int[] applicable = new int[actions.length];
+
+        Node incumbent = null;
+        double provenBound = Double.POSITIVE_INFINITY;
+        int expanded = 0;
+        int generated = 1;
+        int peakOpen = 1;
+        boolean nodeLimit = false;
+
+        search:
+        while (true) {
+            // Expande enquanto a fronteira ainda pode melhorar o plano sob o peso atual
+            while (!openSet.isEmpty() && (incumbent == null || openSet.peek().key < incumbent.gScore)) {
+                if (cancelled.getAsBoolean() || (incumbent != null && System.nanoTime() >= deadline)) {
+                    break search;
+                }
+                if (best.size() >= maxNodes) {
+                    nodeLimit = true;
+                    break search;
+                }
+                Node current = openSet.poll();
+                if (best.get(current.state) != current || current.expandedInRound == round) {
+                    continue;
+                }
+                if (incumbent != null && current.gScore + current.hScore >= incumbent.gScore) {
+                    continue;
+                }
+                current.expandedInRound = round;
+                expanded++;
+
+                int applicableCount = successors.collect(current.state.words(), applicable);
+                for (int i = 0; i < applicableCount; i++) {
+                    CompiledAction action = actions[applicable[i]];
+                    PackedState neighborState = domain.apply(current.state, action);
+                    int tentativeGScore = current.gScore + action.cost();
+
+                    Node known = best.get(neighborState);
+                    if (known != null && known.gScore <= tentativeGScore) {
+                        continue;
+                    }
+                    if (incumbent != null && tentativeGScore >= incumbent.gScore) {
+                        continue;
+                    }
+                    int hScore = known != null ? known.hScore : estimate.applyAsInt(neighborState);
+                    if (hScore == Heuristic.DEAD_END) {
+                        continue;
+                    }
+                    Node neighbor = new Node(current, tentativeGScore, hScore, neighborState, action);
+                    best.put(neighborState, neighbor);
+
+                    if (goal.isSatisfiedBy(neighborState)) {
+                        // Estados do objetivo não precisam ser expandidos: qualquer sucessor custa mais
+                        incumbent = neighbor;
+                        continue;
+                    }
+                    if (known != null && known.expandedInRound == round) {
+                        // Já expandido nesta rodada: volta à fila só na próxima, como no ARA*
+                        neighbor.expandedInRound = round;
+                        inconsistent.add(neighbor);
+                        continue;
+                    }
+                    neighbor.key = tentativeGScore + weight * hScore;
+                    openSet.add(neighbor);
+                    generated++;
+                    peakOpen = Math.max(peakOpen, openSet.size());
+                }
+            }
+
+            if (incumbent == null) {
+                // Fronteira esgotada sem plano: o objetivo é inalcançável
+                break;
+            }
+            provenBound = Math.min(provenBound, weight);
+            if (weight <= 1 || System.nanoTime() >= deadline) {
+                break;
+            }
+
+            // Próxima rodada: peso menor, fila reordenada e nós inconsistentes de volta
+            weight = Math.max(1, weight - weightStep);
+            round++;
+            List<Node> pending = new ArrayList<>(openSet.size() + inconsistent.size());
+            pending.addAll(openSet);
+            pending.addAll(inconsistent);
+            inconsistent.clear();
+            openSet = newOpenSet();
+            for (Node node : pending) {
+                if (best.get(node.state) == node && node.gScore + node.hScore < incumbent.gScore) {
+                    node.key = node.gScore + weight * node.hScore;
+                    openSet.add(node);
+                }
+            }
+        }
+
+        statistics.record(expanded, generated, peakOpen, nodeLimit && incumbent == null);
+        if (incumbent == null) {
+            return Optional.empty();
+        }
+        double bound = Math.min(provenBound, frontierBound(incumbent, openSet, inconsistent, best));
+        statistics.recordBound(bound);
+        return Optional.of(reconstruct(incumbent, bound));
+    }
+
+    /**
+     * Fator pela fronteira: nenhum plano custa menos que o menor {@code g + h} entre
+     * os nós que ainda podem melhorar, então {@code custo / esse mínimo} limita o erro.
+     */
+    private static double frontierBound(Node incumbent, PriorityQueue<Node> openSet, List<Node> inconsistent,
+                                        Map<PackedState, Node> best) {
+        long lowest = incumbent.gScore;
+        for (Node node : openSet) {
+            if (best.get(node.state) == node) {
+                lowest = Math.min(lowest, (long) node.gScore + node.hScore);
+            }
+        }
+        for (Node node : inconsistent) {
+            if (best.get(node.state) == node) {
+                lowest = Math.min(lowest, (long) node.gScore + node.hScore);
+            }
+        }
+        if (lowest <= 0) {
+            return incumbent.gScore == 0 ? 1 : Double.POSITIVE_INFINITY;
+        }
+        return (double) incumbent.gScore / lowest;
+    }
+
+    // Empates favorecem o nó mais fundo, que tende a chegar antes ao objetivo
+    private static PriorityQueue<Node> newOpenSet() {
+        return new PriorityQueue<>(Comparator.<Node>comparingDouble(node -> node.key)
+                .thenComparing(Comparator.comparingInt((Node node) -> node.gScore).reversed()));
+    }
+
+    private static SearchResult reconstruct(Node finalNode, double bound) {
+        List<Action> steps = new ArrayList<>();
+        for (Node current = finalNode; current.parent != null; current = current.parent) {
+            steps.add(current.generatingAction.source());
+        }
+        Collections.reverse(steps);
+        return new SearchResult(steps, finalNode.gScore, bound);
+    }
+
+    private static final class Node {
+        final Node parent;
+        final int gScore;
+        final int hScore;
+        final PackedState state;
+        final CompiledAction generatingAction;
+        double key;
+        int expandedInRound = -1;
+
+        Node(Node parent, int gScore, int hScore, PackedState state, CompiledAction generatingAction) {
+            this.parent = parent;
+            this.gScore = gScore;
+            this.hScore = hScore;
+            this.state = state;
+            this.generatingAction = generatingAction;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledAction;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.core.domain.SuccessorGenerator;
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Busca progressiva de melhor-primeiro: parte dos fatos atuais e expande as ações aplicáveis.
+ *
+ * A prioridade de um nó é {@code gWeight * g + hWeight * h}: (1, 1) é o A* clássico,
+ * (1, w) com w &gt; 1 é o A* ponderado e (0, 1) é a busca gulosa.
+ *
+ * Os nós ficam em uma {@link NodeArena} e a fronteira é uma {@link OpenList} com
+ * decrease-key: cada estado é expandido uma vez por custo melhor encontrado, sem
+ * cópias obsoletas na fila.
+ */
+public class ForwardSearch implements SearchStrategy {
+
+    // Capacidade inicial da arena e da fila; ambas crescem sob demanda
+    private static final int INITIAL_NODES = 128;
+
+    private final int maxIterations;
+    private final int gWeight;
+    private final int hWeight;
+    private final Heuristic heuristic;
+
+    public ForwardSearch(int maxIterations) {
+        this(maxIterations, 1, 1, Heuristic.GOAL_COUNT);
+    }
+
+    public ForwardSearch(int maxIterations, int gWeight, int hWeight, Heuristic heuristic) {
+        this.maxIterations = maxIterations;
+        this.gWeight = gWeight;
+        this.hWeight = hWeight;
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal,
+                                         BooleanSupplier cancelled, SearchStatistics statistics) {
+        ToIntFunction<PackedState> estimate = heuristic.forward(domain, goal);
+        int startH = estimate.applyAsInt(initial);
+        if (startH == Heuristic.DEAD_END) {
+            return Optional.empty();
+        }
+
+        // Cada estado tem um único nó na arena; a fila aberta reposiciona em vez de duplicar
+        NodeArena arena = new NodeArena(INITIAL_NODES);
+        OpenList openSet = new OpenList(arena, INITIAL_NODES);
+        openSet.push(arena.add(initial, NodeArena.NONE, NodeArena.NONE, 0, startH, priorityOf(0, startH)));
+
+        CompiledAction[] actions = domain.actions();
+        SuccessorGenerator successors = domain.successorGenerator();
+        int[] applicable = new int[actions.length];
+
+        int iterations = 0;
+        int generated = 1;
+        int peakOpen = 1;
+
+        while (!openSet.isEmpty() && iterations < maxIterations && !cancelled.getAsBoolean()) {
+            iterations++;
+            int current = openSet.pop();
+            PackedState currentState = arena.state[current];
+
+            // Verifica se atingimos o objetivo
+            if (goal.isSatisfiedBy(currentState)) {
+                statistics.record(iterations, generated, peakOpen, false);
+                return Optional.of(reconstruct(arena, actions, current));
+            }
+
+            // Expande os vizinhos: o índice devolve só as ações aplicáveis
+            int currentGScore = arena.gScore[current];
+            int applicableCount = successors.collect(currentState.words(), applicable);
+            for (int i = 0; i < applicableCount; i++) {
+                CompiledAction action = actions[applicable[i]];
+                PackedState neighborState = domain.apply(currentState, action);
+                int tentativeGScore = currentGScore + action.cost();
+
+                int neighbor = arena.find(neighborState);
+                if (neighbor == NodeArena.NONE) {
+                    int hScore = estimate.applyAsInt(neighborState);
+                    if (hScore == Heuristic.DEAD_END) {
+                        // O objetivo é inalcançável mesmo relaxado a partir daqui: o nó fica fechado
+                        arena.add(neighborState, current, action.id(), tentativeGScore, hScore, Integer.MAX_VALUE);
+                        continue;
+                    }
+                    neighbor = arena.add(neighborState, current, action.id(), tentativeGScore, hScore,
+                            priorityOf(tentativeGScore, hScore));
+                } else if (tentativeGScore < arena.gScore[neighbor] && arena.hScore[neighbor] != Heuristic.DEAD_END) {
+                    // Caminho melhor: atualiza o nó (e o reabre se já foi expandido)
+                    arena.parent[neighbor] = current;
+                    arena.action[neighbor] = action.id();
+                    arena.gScore[neighbor] = tentativeGScore;
+                    arena.fScore[neighbor] = priorityOf(tentativeGScore, arena.hScore[neighbor]);
+                } else {
+                    continue;
+                }
+
+                if (arena.heapIndex[neighbor] == NodeArena.CLOSED) {
+                    generated++;
+                }
+                openSet.push(neighbor);
+                peakOpen = Math.max(peakOpen, openSet.size());
+            }
+        }
+
+        statistics.record(iterations, generated, peakOpen, iterations >= maxIterations && !openSet.isEmpty());
+        return Optional.empty();
+    }
+
+    private int priorityOf(int gScore, int hScore) {
+        return gWeight * gScore + hWeight * hScore;
+    }
+
+    /**
+     * Reconstrói o plano seguindo o caminho de volta do nó final até o inicial
+     */
+    private static SearchResult reconstruct(NodeArena arena, CompiledAction[] actions, int finalNode) {
+        List<Action> steps = new ArrayList<>();
+
+        // Percorre de trás para frente
+        for (int node = finalNode; arena.parent[node] != NodeArena.NONE; node = arena.parent[node]) {
+            steps.add(actions[arena.action[node]].source());
+        }
+
+        // Inverte para obter a ordem correta
+        Collections.reverse(steps);
+
+        return new SearchResult(steps, arena.gScore[finalNode]);
+    }
+}
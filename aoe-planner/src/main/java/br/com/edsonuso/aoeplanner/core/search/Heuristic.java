@@ -0,0 +1,69 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.core.domain.RelaxedExploration;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Heurísticas disponíveis para as buscas.
+ *
+ * GOAL_COUNT conta os fatos do objetivo ainda não satisfeitos e ignora custos.
+ * As demais usam o grafo de planejamento relaxado do domínio: H_MAX é admissível,
+ * H_ADD e FF são mais informativas e servem aos modos não ótimos (guloso, ponderado).
+ * Valores {@link #DEAD_END} indicam estados dos quais o objetivo é inalcançável.
+ */
+public enum Heuristic {
+    GOAL_COUNT,
+    H_MAX,
+    H_ADD,
+    FF;
+
+    public static final int DEAD_END = RelaxedExploration.DEAD_END;
+
+    /**
+     * Estimativa do custo de um estado até o objetivo, para a busca progressiva.
+     * A função devolvida guarda área de trabalho e pertence a uma única busca.
+     */
+    public ToIntFunction<PackedState> forward(CompiledDomain domain, CompiledGoal goal) {
+        if (this == GOAL_COUNT) {
+            return goal::unsatisfiedCount;
+        }
+        RelaxedExploration exploration = domain.relaxedPlanningGraph().newExploration();
+        return switch (this) {
+            case H_MAX -> state -> exploration.hMax(state, goal.mask());
+            case H_ADD -> state -> exploration.hAdd(state, goal.mask());
+            default -> state -> exploration.hFF(state, goal.mask());
+        };
+    }
+
+    /**
+     * Estimativa do custo dos fatos atuais até um subobjetivo, para a busca regressiva.
+     * O estado inicial é fixo, então os custos relaxados por bit são calculados uma vez.
+     */
+    public ToIntFunction<PackedState> regression(CompiledDomain domain, PackedState initial) {
+        if (this == GOAL_COUNT) {
+            return subgoal -> subgoal.countMissingIn(initial);
+        }
+        boolean additive = this != H_MAX;
+        int[] bitCosts = domain.relaxedPlanningGraph().newExploration().bitCosts(initial, additive);
+        return subgoal -> {
+            long total = 0;
+            long[] words = subgoal.words();
+            for (int w = 0; w < words.length; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    int cost = bitCosts[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                    if (cost == DEAD_END) {
+                        return DEAD_END;
+                    }
+                    total = additive ? total + cost : Math.max(total, cost);
+                    bits &= bits - 1;
+                }
+            }
+            return (int) Math.min(total, DEAD_END - 1L);
+        };
+    }
+}
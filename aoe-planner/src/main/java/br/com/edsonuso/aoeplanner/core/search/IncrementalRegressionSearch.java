@@ -0,0 +1,245 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledAction;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Busca regressiva que sobrevive entre replanejamentos de um mesmo objetivo, no
+ * espírito do D* Lite.
+ *
+ * Como o D* Lite, a busca parte do objetivo: o custo de cada subobjetivo até o
+ * objetivo não depende dos fatos atuais, então continua válido quando eles mudam.
+ * Os fatos só entram na heurística e no teste de parada. Em um replanejamento a
+ * busca reaproveita todos os subobjetivos já gerados: verifica quais deles os
+ * novos fatos já satisfazem (candidatos a plano), reordena a fronteira com a
+ * heurística do novo estado e só expande o que ainda pode melhorar o melhor
+ * candidato. Quando a fronteira se esgota o grafo regressivo está completo e
+ * qualquer replanejamento é respondido sem expansões.
+ *
+ * Não é thread-safe: o chamador serializa o acesso (uma instância por objetivo).
+ */
+public class IncrementalRegressionSearch {
+
+    private final CompiledDomain domain;
+    private final PackedState goalState;
+    private final int maxIterations;
+    private final int maxNodes;
+
+    // Melhor nó conhecido por subobjetivo; o gScore é o custo até o objetivo
+    private final Map<PackedState, Node> nodes = new HashMap<>();
+    private final int[] relevant;
+    private final int[] seenAt;
+    private int stamp;
+    private PackedState lastInitial;
+    private PriorityQueue<Node> openSet;
+
+    public IncrementalRegressionSearch(CompiledDomain domain, CompiledGoal goal, int maxIterations, int maxNodes) {
+        this.domain = domain;
+        this.goalState = domain.goalState(goal);
+        this.maxIterations = maxIterations;
+        this.maxNodes = maxNodes;
+        this.relevant = new int[domain.actionCount()];
+        this.seenAt = new int[domain.actionCount()];
+
+        Node root = new Node(null, 0, goalState, null);
+        root.open = true;
+        nodes.put(goalState, root);
+    }
+
+    /**
+     * Verdadeiro se esta busca foi construída para o mesmo domínio e objetivo compilados.
+     */
+    public boolean matches(CompiledDomain domain, CompiledGoal goal) {
+        return this.domain == domain && goalState.equals(domain.goalState(goal));
+    }
+
+    /**
+     * Procura um plano a partir de {@code initial}, continuando a busca das chamadas anteriores.
+     */
+    public Optional<SearchResult> search(PackedState initial) {
+        return search(initial, () -> false);
+    }
+
+    /**
+     * Como {@link #search(PackedState)}, mas desiste (devolvendo vazio) assim que
+     * {@code cancelled} ficar verdadeiro. O grafo guardado continua consistente e a
+     * próxima chamada retoma de onde esta parou.
+     */
+    public Optional<SearchResult> search(PackedState initial, BooleanSupplier cancelled) {
+        return search(initial, cancelled, new SearchStatistics());
+    }
+
+    /**
+     * Como {@link #search(PackedState, BooleanSupplier)}, registrando os contadores
+     * desta chamada (só as expansões novas) em {@code statistics}.
+     */
+    public Optional<SearchResult> search(PackedState initial, BooleanSupplier cancelled, SearchStatistics statistics) {
+        if (nodes.size() > maxNodes) {
+            // Grafo grande demais para manter: recomeça do objetivo
+            reset();
+        }
+        if (!initial.equals(lastInitial)) {
+            rekey(initial);
+        }
+
+        // Melhor subobjetivo já gerado que os fatos atuais satisfazem
+        Node incumbent = null;
+        for (Node node : nodes.values()) {
+            if ((incumbent == null || node.gScore < incumbent.gScore) && node.subgoal.isSubsetOf(initial)) {
+                incumbent = node;
+            }
+        }
+
+        int iterations = 0;
+        int generated = 0;
+        int peakOpen = openSet.size();
+        while (!openSet.isEmpty() && iterations < maxIterations) {
+            if (cancelled.getAsBoolean()) {
+                statistics.record(iterations, generated, peakOpen, false);
+                return Optional.empty();
+            }
+            Node currentNode = openSet.peek();
+            if (incumbent != null && currentNode.fScore >= incumbent.gScore) {
+                break;
+            }
+            openSet.poll();
+            if (!currentNode.open) {
+                // Entrada obsoleta: o subobjetivo foi melhorado depois de entrar na fila
+                continue;
+            }
+            currentNode.open = false;
+            iterations++;
+
+            int relevantCount = collectRelevant(currentNode.subgoal);
+            for (int i = 0; i < relevantCount; i++) {
+                CompiledAction action = domain.actions()[relevant[i]];
+                PackedState predecessor = domain.regress(currentNode.subgoal, action);
+                if (predecessor == null) {
+                    continue;
+                }
+                int tentativeGScore = currentNode.gScore + action.cost();
+                Node known = nodes.get(predecessor);
+                if (known != null && tentativeGScore >= known.gScore) {
+                    continue;
+                }
+                if (known != null) {
+                    known.open = false;
+                }
+                Node neighborNode = new Node(currentNode, tentativeGScore, predecessor, action);
+                neighborNode.fScore = tentativeGScore + calculateHeuristic(predecessor, initial);
+                neighborNode.open = true;
+                nodes.put(predecessor, neighborNode);
+                openSet.add(neighborNode);
+                generated++;
+                peakOpen = Math.max(peakOpen, openSet.size());
+                if ((incumbent == null || tentativeGScore < incumbent.gScore) && predecessor.isSubsetOf(initial)) {
+                    incumbent = neighborNode;
+                }
+            }
+        }
+
+        statistics.record(iterations, generated, peakOpen, iterations >= maxIterations && !openSet.isEmpty());
+        // Se o orçamento acabar antes de provar que o candidato é o melhor, ele ainda é um plano válido
+        return Optional.ofNullable(incumbent).map(this::reconstruct);
+    }
+
+    /**
+     * Quantos subobjetivos estão guardados (usado para limitar memória e em diagnósticos).
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * A heurística depende dos fatos atuais, então a fronteira é reordenada quando eles mudam.
+     */
+    private void rekey(PackedState initial) {
+        PriorityQueue<Node> rekeyed = new PriorityQueue<>(Comparator.comparingInt(node -> node.fScore));
+        for (Node node : nodes.values()) {
+            if (node.open) {
+                node.fScore = node.gScore + calculateHeuristic(node.subgoal, initial);
+                rekeyed.add(node);
+            }
+        }
+        openSet = rekeyed;
+        lastInitial = initial;
+    }
+
+    private void reset() {
+        nodes.clear();
+        Node root = new Node(null, 0, goalState, null);
+        root.open = true;
+        nodes.put(goalState, root);
+        lastInitial = null;
+    }
+
+    /**
+     * Ações que produzem algum bit do subobjetivo, sem repetição e na ordem do catálogo.
+     */
+    private int collectRelevant(PackedState subgoal) {
+        stamp++;
+        int count = 0;
+        long[] words = subgoal.words();
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (int id : domain.achieversOf(bit)) {
+                    if (seenAt[id] != stamp) {
+                        seenAt[id] = stamp;
+                        relevant[count++] = id;
+                    }
+                }
+                bits &= bits - 1;
+            }
+        }
+        Arrays.sort(relevant, 0, count);
+        return count;
+    }
+
+    private int calculateHeuristic(PackedState subgoal, PackedState initial) {
+        return subgoal.countMissingIn(initial);
+    }
+
+    /**
+     * Sobe pelos pais até o objetivo, o que já dá as ações na ordem de execução.
+     */
+    private SearchResult reconstruct(Node node) {
+        List<Action> steps = new ArrayList<>();
+        Node current = node;
+        while (current.parent != null) {
+            steps.add(current.generatingAction.source());
+            current = current.parent;
+        }
+        return new SearchResult(steps, node.gScore);
+    }
+
+    private static class Node {
+        Node parent;
+        int gScore; // Custo das ações do subobjetivo até o objetivo
+        int fScore;
+        boolean open;
+        PackedState subgoal;
+        CompiledAction generatingAction;
+
+        Node(Node parent, int gScore, PackedState subgoal, CompiledAction generatingAction) {
+            this.parent = parent;
+            this.gScore = gScore;
+            this.subgoal = subgoal;
+            this.generatingAction = generatingAction;
+        }
+    }
+}
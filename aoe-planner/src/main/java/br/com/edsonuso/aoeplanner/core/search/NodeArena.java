@@ -0,0 +1,117 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+
+import java.util.Arrays;
+
+/**
+ * Nós de uma busca guardados em arrays paralelos: cada nó é um índice, sem um
+ * objeto por nó. Também é o conjunto de estados já vistos: uma tabela de
+ * endereçamento aberto pelo hash de Zobrist leva do estado ao seu nó, e cada
+ * estado tem um único nó com o melhor custo conhecido.
+ *
+ * Os campos são lidos e escritos direto pelas buscas, no laço quente. Pertence a
+ * uma única busca.
+ */
+final class NodeArena {
+
+    static final int NONE = -1;
+
+    // Posição na fila aberta; CLOSED quando o nó não está nela (expandido ou sem saída)
+    static final int CLOSED = -1;
+
+    int size;
+    int[] parent;
+    int[] action;
+    int[] gScore;
+    int[] hScore;
+    int[] fScore;
+    int[] heapIndex;
+    PackedState[] state;
+
+    private int[] table;
+    private int mask;
+
+    NodeArena(int expectedNodes) {
+        int capacity = Math.max(16, expectedNodes);
+        parent = new int[capacity];
+        action = new int[capacity];
+        gScore = new int[capacity];
+        hScore = new int[capacity];
+        fScore = new int[capacity];
+        heapIndex = new int[capacity];
+        state = new PackedState[capacity];
+        table = new int[Integer.highestOneBit(capacity) << 2];
+        Arrays.fill(table, NONE);
+        mask = table.length - 1;
+    }
+
+    /**
+     * Nó do estado, ou {@link #NONE} se ele ainda não foi visto.
+     */
+    int find(PackedState key) {
+        for (int slot = slotOf(key.zobristHash()); ; slot = (slot + 1) & mask) {
+            int node = table[slot];
+            if (node == NONE || state[node].equals(key)) {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Cria o nó de um estado ainda não visto, fora da fila aberta.
+     */
+    int add(PackedState key, int parentNode, int actionId, int g, int h, int f) {
+        if (size == state.length) {
+            grow();
+        }
+        int node = size++;
+        parent[node] = parentNode;
+        action[node] = actionId;
+        gScore[node] = g;
+        hScore[node] = h;
+        fScore[node] = f;
+        heapIndex[node] = CLOSED;
+        state[node] = key;
+        // Carga máxima de 1/2 mantém as sondagens curtas
+        if (size * 2 > table.length) {
+            rehash();
+        } else {
+            insert(node);
+        }
+        return node;
+    }
+
+    private void insert(int node) {
+        int slot = slotOf(state[node].zobristHash());
+        while (table[slot] != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = node;
+    }
+
+    private void grow() {
+        int capacity = state.length * 2;
+        parent = Arrays.copyOf(parent, capacity);
+        action = Arrays.copyOf(action, capacity);
+        gScore = Arrays.copyOf(gScore, capacity);
+        hScore = Arrays.copyOf(hScore, capacity);
+        fScore = Arrays.copyOf(fScore, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        state = Arrays.copyOf(state, capacity);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, NONE);
+        mask = table.length - 1;
+        for (int node = 0; node < size; node++) {
+            insert(node);
+        }
+    }
+
+    // O hash de Zobrist já é uniforme; os bits altos são misturados para a máscara
+    private int slotOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import java.util.Arrays;
+
+/**
+ * Fila aberta das buscas: heap binário indexado de nós da {@link NodeArena}, em um
+ * {@code int[]}, com a posição de cada nó guardada na própria arena. Um caminho
+ * melhor para um nó já na fila atualiza a sua posição (decrease-key) em vez de
+ * inserir uma cópia.
+ *
+ * A ordem é determinística: menor {@code f}; no empate, menor {@code h} (o nó mais
+ * próximo do objetivo); por fim o nó criado primeiro.
+ */
+final class OpenList {
+
+    private final NodeArena arena;
+    private int[] heap;
+    private int size;
+
+    OpenList(NodeArena arena, int expectedNodes) {
+        this.arena = arena;
+        this.heap = new int[Math.max(16, expectedNodes)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Insere o nó ou, se ele já estiver na fila, reposiciona após a redução de {@code f}.
+     */
+    void push(int node) {
+        int position = arena.heapIndex[node];
+        if (position == NodeArena.CLOSED) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            position = size++;
+            heap[position] = node;
+        }
+        siftUp(position, node);
+    }
+
+    /**
+     * Remove o nó mais promissor e o marca como fechado.
+     */
+    int pop() {
+        int top = heap[0];
+        arena.heapIndex[top] = NodeArena.CLOSED;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    private void siftUp(int position, int node) {
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (!before(node, parent)) {
+                break;
+            }
+            place(position, parent);
+            position = parentPosition;
+        }
+        place(position, node);
+    }
+
+    private void siftDown(int position, int node) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && before(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!before(heap[child], node)) {
+                break;
+            }
+            place(position, heap[child]);
+            position = child;
+        }
+        place(position, node);
+    }
+
+    private void place(int position, int node) {
+        heap[position] = node;
+        arena.heapIndex[node] = position;
+    }
+
+    private boolean before(int a, int b) {
+        int[] f = arena.fScore;
+        if (f[a] != f[b]) {
+            return f[a] < f[b];
+        }
+        int[] h = arena.hScore;
+        if (h[a] != h[b]) {
+            return h[a] < h[b];
+        }
+        return a < b;
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Portfólio de buscas: roda várias estratégias ao mesmo tempo em um
+ * {@link ForkJoinPool} dedicado e devolve o primeiro plano encontrado.
+ *
+ * Assim que uma estratégia encontra um plano as demais são canceladas de forma
+ * cooperativa (o sinal é consultado a cada expansão). Se todas terminarem sem
+ * plano, o resultado é vazio. O domínio compilado e o estado inicial são imutáveis,
+ * então são compartilhados entre as tarefas sem cópia.
+ */
+public class PortfolioSearch implements SearchStrategy {
+
+    private final List<SearchStrategy> strategies;
+    private final ForkJoinPool pool;
+
+    public PortfolioSearch(List<SearchStrategy> strategies, ForkJoinPool pool) {
+        this.strategies = List.copyOf(strategies);
+        this.pool = pool;
+    }
+
+    @Override
+    public Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal,
+                                         BooleanSupplier cancelled, SearchStatistics statistics) {
+        CompletableFuture<Optional<SearchResult>> winner = new CompletableFuture<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicInteger pending = new AtomicInteger(strategies.size());
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        BooleanSupplier stop = () -> finished.get() || cancelled.getAsBoolean();
+
+        for (SearchStrategy strategy : strategies) {
+            pool.execute(() -> {
+                try {
+                    Optional<SearchResult> result = strategy.search(domain, initial, goal, stop, statistics);
+                    if (result.isPresent() && winner.complete(result)) {
+                        finished.set(true);
+                    }
+                } catch (RuntimeException e) {
+                    // Uma variante com defeito não derruba o portfólio; as demais seguem
+                    failure.compareAndSet(null, e);
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        if (failure.get() != null) {
+                            winner.completeExceptionally(failure.get());
+                        } else {
+                            winner.complete(Optional.empty());
+                        }
+                    }
+                }
+            });
+        }
+
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em todas as variantes do portfólio de busca.", e.getCause());
+        } finally {
+            finished.set(true);
+        }
+    }
+}
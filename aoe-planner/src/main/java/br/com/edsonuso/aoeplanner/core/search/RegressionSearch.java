@@ -0,0 +1,150 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledAction;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A* regressivo: parte do objetivo e regride pelas ações que produzem algum de seus
+ * fatos, até chegar a um subobjetivo que os fatos atuais já satisfazem.
+ *
+ * Os nós são estados parciais (só os pares variável/valor exigidos), então a busca
+ * nunca olha para ações que não contribuem para o objetivo. Em catálogos grandes com
+ * objetivos de poucos fatos isso reduz muito o fator de ramificação em relação à
+ * busca progressiva.
+ *
+ * Usa a mesma arena de nós e a mesma fila com decrease-key da {@link ForwardSearch}.
+ */
+public class RegressionSearch implements SearchStrategy {
+
+    private static final int INITIAL_NODES = 128;
+
+    private final int maxIterations;
+    private final Heuristic heuristic;
+
+    public RegressionSearch(int maxIterations) {
+        this(maxIterations, Heuristic.GOAL_COUNT);
+    }
+
+    public RegressionSearch(int maxIterations, Heuristic heuristic) {
+        this.maxIterations = maxIterations;
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal,
+                                         BooleanSupplier cancelled, SearchStatistics statistics) {
+        ToIntFunction<PackedState> estimate = heuristic.regression(domain, initial);
+        PackedState goalState = domain.goalState(goal);
+        int startH = estimate.applyAsInt(goalState);
+        if (startH == Heuristic.DEAD_END) {
+            return Optional.empty();
+        }
+
+        NodeArena arena = new NodeArena(INITIAL_NODES);
+        OpenList openSet = new OpenList(arena, INITIAL_NODES);
+        openSet.push(arena.add(goalState, NodeArena.NONE, NodeArena.NONE, 0, startH, startH));
+
+        CompiledAction[] actions = domain.actions();
+        int[] relevant = new int[actions.length];
+        int[] seenAt = new int[actions.length];
+        int iterations = 0;
+        int generated = 1;
+        int peakOpen = 1;
+
+        while (!openSet.isEmpty() && iterations < maxIterations && !cancelled.getAsBoolean()) {
+            iterations++;
+            int current = openSet.pop();
+            PackedState subgoal = arena.state[current];
+
+            // O subobjetivo já vale nos fatos atuais: o caminho até aqui é o plano
+            if (subgoal.isSubsetOf(initial)) {
+                statistics.record(iterations, generated, peakOpen, false);
+                return Optional.of(reconstruct(arena, actions, current));
+            }
+
+            int currentGScore = arena.gScore[current];
+            int relevantCount = collectRelevant(domain, subgoal, iterations, seenAt, relevant);
+            for (int i = 0; i < relevantCount; i++) {
+                CompiledAction action = actions[relevant[i]];
+                PackedState predecessor = domain.regress(subgoal, action);
+                if (predecessor == null) {
+                    continue;
+                }
+                int tentativeGScore = currentGScore + action.cost();
+
+                int neighbor = arena.find(predecessor);
+                if (neighbor == NodeArena.NONE) {
+                    int hScore = estimate.applyAsInt(predecessor);
+                    if (hScore == Heuristic.DEAD_END) {
+                        // Algum fato do subobjetivo é inalcançável a partir dos fatos atuais
+                        arena.add(predecessor, current, action.id(), tentativeGScore, hScore, Integer.MAX_VALUE);
+                        continue;
+                    }
+                    neighbor = arena.add(predecessor, current, action.id(), tentativeGScore, hScore,
+                            tentativeGScore + hScore);
+                } else if (tentativeGScore < arena.gScore[neighbor] && arena.hScore[neighbor] != Heuristic.DEAD_END) {
+                    arena.parent[neighbor] = current;
+                    arena.action[neighbor] = action.id();
+                    arena.gScore[neighbor] = tentativeGScore;
+                    arena.fScore[neighbor] = tentativeGScore + arena.hScore[neighbor];
+                } else {
+                    continue;
+                }
+
+                if (arena.heapIndex[neighbor] == NodeArena.CLOSED) {
+                    generated++;
+                }
+                openSet.push(neighbor);
+                peakOpen = Math.max(peakOpen, openSet.size());
+            }
+        }
+
+        statistics.record(iterations, generated, peakOpen, iterations >= maxIterations && !openSet.isEmpty());
+        return Optional.empty();
+    }
+
+    /**
+     * Ações que produzem algum bit do subobjetivo, sem repetição e na ordem do catálogo.
+     */
+    private int collectRelevant(CompiledDomain domain, PackedState subgoal, int stamp, int[] seenAt, int[] out) {
+        int count = 0;
+        long[] words = subgoal.words();
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (int id : domain.achieversOf(bit)) {
+                    if (seenAt[id] != stamp) {
+                        seenAt[id] = stamp;
+                        out[count++] = id;
+                    }
+                }
+                bits &= bits - 1;
+            }
+        }
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    /**
+     * Na regressão o nó final corresponde ao início do plano: subir pelos pais já
+     * percorre as ações na ordem de execução.
+     */
+    private static SearchResult reconstruct(NodeArena arena, CompiledAction[] actions, int finalNode) {
+        List<Action> steps = new ArrayList<>();
+        for (int node = finalNode; arena.parent[node] != NodeArena.NONE; node = arena.parent[node]) {
+            steps.add(actions[arena.action[node]].source());
+        }
+        return new SearchResult(steps, arena.gScore[finalNode]);
+    }
+}
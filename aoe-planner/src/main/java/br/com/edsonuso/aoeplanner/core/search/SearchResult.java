@@ -0,0 +1,18 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+
+import java.util.List;
+
+/**
+ * Sequência de ações (na ordem de execução) encontrada por uma busca e seu custo total.
+ *
+ * {@code suboptimalityBound} é o fator máximo entre o custo do plano e o ótimo
+ * (1 = ótimo comprovado); {@link Double#NaN} quando a busca não dá garantia.
+ */
+public record SearchResult(List<Action> steps, int totalCost, double suboptimalityBound) {
+
+    public SearchResult(List<Action> steps, int totalCost) {
+        this(steps, totalCost, Double.NaN);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de uma busca: nós expandidos, nós gerados (inseridos na fronteira),
+ * pico da fronteira, se o limite de iterações foi atingido e, nas buscas anytime,
+ * o fator de subotimalidade garantido do plano devolvido.
+ *
+ * Cada busca acumula em variáveis locais e registra uma única vez ao terminar; no
+ * portfólio todas as variantes registram na mesma instância (contagens somadas,
+ * pico pelo máximo).
+ */
+public final class SearchStatistics {
+
+    private final AtomicLong expanded = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicInteger peakOpen = new AtomicInteger();
+    private volatile boolean iterationLimitReached;
+    private volatile double suboptimalityBound = Double.NaN;
+
+    public void record(int expanded, int generated, int peakOpen, boolean iterationLimitReached) {
+        this.expanded.addAndGet(expanded);
+        this.generated.addAndGet(generated);
+        this.peakOpen.accumulateAndGet(peakOpen, Math::max);
+        if (iterationLimitReached) {
+            this.iterationLimitReached = true;
+        }
+    }
+
+    public void recordBound(double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    public long expanded() {
+        return expanded.get();
+    }
+
+    public long generated() {
+        return generated.get();
+    }
+
+    public int peakOpen() {
+        return peakOpen.get();
+    }
+
+    public boolean iterationLimitReached() {
+        return iterationLimitReached;
+    }
+
+    /**
+     * Fator máximo entre o custo do plano e o ótimo; {@link Double#NaN} sem garantia.
+     */
+    public double suboptimalityBound() {
+        return suboptimalityBound;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.edsonuso.aoeplanner.core.search;
+
+import br.com.edsonuso.aoeplanner.core.domain.CompiledDomain;
+import br.com.edsonuso.aoeplanner.core.domain.CompiledGoal;
+import br.com.edsonuso.aoeplanner.core.domain.PackedState;
+
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Algoritmo de busca sobre um domínio compilado.
+ *
+ * Implementações não guardam estado entre chamadas e podem ser usadas por
+ * várias threads ao mesmo tempo.
+ */
+public interface SearchStrategy {
+
+    /**
+     * Procura uma sequência de ações que leve {@code initial} a satisfazer {@code goal}.
+     * O objetivo já foi verificado como alcançável na compilação.
+     */
+    default Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal) {
+        return search(domain, initial, goal, () -> false);
+    }
+
+    /**
+     * Como {@link #search(CompiledDomain, PackedState, CompiledGoal)}, mas desiste
+     * (devolvendo vazio) assim que {@code cancelled} ficar verdadeiro. O sinal é
+     * consultado a cada expansão.
+     */
+    default Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal, BooleanSupplier cancelled) {
+        return search(domain, initial, goal, cancelled, new SearchStatistics());
+    }
+
+    /**
+     * Como {@link #search(CompiledDomain, PackedState, CompiledGoal, BooleanSupplier)},
+     * registrando os contadores da busca em {@code statistics}, com ou sem plano.
+     */
+    Optional<SearchResult> search(CompiledDomain domain, PackedState initial, CompiledGoal goal,
+                                  BooleanSupplier cancelled, SearchStatistics statistics);
+}
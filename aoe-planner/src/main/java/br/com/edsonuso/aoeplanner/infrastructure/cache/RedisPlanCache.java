@@ -0,0 +1,55 @@
+package br.com.edsonuso.aoeplanner.infrastructure.cache;
+
+import br.com.edsonuso.aoeplanner.application.cache.CachedPlan;
+import br.com.edsonuso.aoeplanner.application.cache.PlanCacheKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Camada compartilhada do cache de planos, no Redis, para que réplicas do planner
+ * aproveitem as buscas umas das outras. As chaves incluem a versão do catálogo,
+ * então réplicas com catálogos diferentes nunca trocam planos entre si; entradas
+ * de versões antigas expiram pelo TTL.
+ *
+ * Falhas no Redis são tratadas como cache miss: o cache nunca impede o planejamento.
+ */
+@Component
+@ConditionalOnProperty(name = "planner.cache.shared.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisPlanCache {
+
+    private static final String KEY_PREFIX = "plan-cache:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public Optional<CachedPlan> get(PlanCacheKey key) {
+        try {
+            Object raw = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            if (raw == null) {
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readValue(raw.toString(), CachedPlan.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Falha ao ler o cache de planos compartilhado para a chave {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(PlanCacheKey key, CachedPlan plan, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(plan), ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Falha ao gravar no cache de planos compartilhado para a chave {}: {}", key, e.getMessage());
+        }
+    }
+}
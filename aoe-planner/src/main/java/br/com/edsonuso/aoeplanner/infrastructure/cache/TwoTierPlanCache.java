@@ -0,0 +1,96 @@
+package br.com.edsonuso.aoeplanner.infrastructure.cache;
+
+import br.com.edsonuso.aoeplanner.application.cache.CachedPlan;
+import br.com.edsonuso.aoeplanner.application.cache.PlanCacheKey;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanCachePort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache de planos em duas camadas: uma local limitada (Caffeine, política
+ * W-TinyLFU) e, opcionalmente, a {@link RedisPlanCache} compartilhada entre réplicas.
+ *
+ * Resultados "sem plano" usam um TTL menor, já que costumam mudar assim que o
+ * executor ou um novo alerta atualiza a base de fatos.
+ */
+@Component
+@Slf4j
+public class TwoTierPlanCache implements PlanCachePort {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Cache<PlanCacheKey, CachedPlan> local;
+    private final Optional<RedisPlanCache> shared;
+
+    public TwoTierPlanCache(@Value("${planner.cache.enabled:true}") boolean enabled,
+                            @Value("${planner.cache.local.max-entries:1024}") long maxEntries,
+                            @Value("${planner.cache.ttl:PT10M}") Duration ttl,
+                            @Value("${planner.cache.negative-ttl:PT30S}") Duration negativeTtl,
+                            Optional<RedisPlanCache> shared) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.shared = shared;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<PlanCacheKey, CachedPlan>() {
+                    @Override
+                    public long expireAfterCreate(PlanCacheKey key, CachedPlan plan, long currentTime) {
+                        return ttlFor(plan).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(PlanCacheKey key, CachedPlan plan, long currentTime, long currentDuration) {
+                        return ttlFor(plan).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(PlanCacheKey key, CachedPlan plan, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("Cache de planos {} (local: {} entradas, compartilhado: {}).",
+                enabled ? "ativo" : "desativado", maxEntries, shared.isPresent() ? "Redis" : "não");
+    }
+
+    @Override
+    public Optional<CachedPlan> get(PlanCacheKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedPlan plan = local.getIfPresent(key);
+        if (plan != null) {
+            return Optional.of(plan);
+        }
+        Optional<CachedPlan> remote = shared.flatMap(cache -> cache.get(key));
+        remote.ifPresent(found -> local.put(key, found));
+        return remote;
+    }
+
+    @Override
+    public void put(PlanCacheKey key, CachedPlan plan) {
+        if (!enabled) {
+            return;
+        }
+        local.put(key, plan);
+        shared.ifPresent(cache -> cache.put(key, plan, ttlFor(plan)));
+    }
+
+    @Override
+    public void invalidateAll() {
+        local.invalidateAll();
+    }
+
+    private Duration ttlFor(CachedPlan plan) {
+        return plan.found() ? ttl : negativeTtl;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -21,6 +22,8 @@ public class RabbitMQConfig {
     public static final String REPLAN_EXCHANGE_NAME = "aoe.replan.exchange";
     public static final String REPLAN_QUEUE_NAME = "aoe.replan.queue";
     public static final String REPLAN_ROUTING_KEY = "replan.request";
+    // Espera dos pedidos recusados com a fila de planejamento cheia: expiram aqui e voltam à fila de replanejamento
+    public static final String REPLAN_RETRY_QUEUE_NAME = "aoe.replan.retry.queue";
 
     @Bean
     public TopicExchange exchange() {
@@ -52,6 +55,14 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(replanQueue).to(replanExchange).with(REPLAN_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue replanRetryQueue() {
+        return QueueBuilder.durable(REPLAN_RETRY_QUEUE_NAME)
+                .deadLetterExchange(REPLAN_EXCHANGE_NAME)
+                .deadLetterRoutingKey(REPLAN_ROUTING_KEY)
+                .build();
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
         return new Jackson2JsonMessageConverter(objectMapper);
@@ -61,6 +72,8 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(org.springframework.amqp.rabbit.connection.ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter);
+        // Mensagem sem fila de destino volta ao publicador em vez de ser descartada
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 }
@@ -2,8 +2,10 @@ package br.com.edsonuso.aoeplanner.infrastructure.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -19,4 +21,15 @@ public class RedisConfig {
         template.setHashValueSerializer(new StringRedisSerializer()); // Adicionado
         return template;
     }
+
+    /**
+     * Container das assinaturas pub/sub (keyspace notifications do near cache de fatos).
+     */
+    @Bean
+    @Profile("!test")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
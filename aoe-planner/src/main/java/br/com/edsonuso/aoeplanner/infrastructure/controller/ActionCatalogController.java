@@ -0,0 +1,39 @@
+package br.com.edsonuso.aoeplanner.infrastructure.controller;
+
+import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Catálogo de ações para os executores que recebem planos por referência. A versão
+ * vai no corpo e no ETag, então o executor só baixa o catálogo de novo quando um
+ * plano chega com outra versão.
+ */
+@RestController
+@RequestMapping("/api/actions")
+@RequiredArgsConstructor
+public class ActionCatalogController {
+
+    private final ActionRepositoryPort actionRepository;
+
+    @GetMapping("/catalog")
+    public ResponseEntity<ActionCatalog> catalog(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        ActionCatalog catalog = actionRepository.currentCatalog();
+        String version = catalog.version();
+        String etag = version == null ? null : "\"" + version + "\"";
+        if (etag != null && etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(catalog);
+    }
+}
@@ -1,9 +1,11 @@
 package br.com.edsonuso.aoeplanner.infrastructure.controller;
 
+import br.com.edsonuso.aoeplanner.application.coordination.PlanningRejectedException;
 import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
 import br.com.edsonuso.aoeplanner.model.Goal;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Response;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,7 +26,12 @@ public class GoalController {
     @PostMapping
     public ResponseEntity<Void> submitGoal(@RequestBody Goal goal){
         log.info("Received goal: {}", goal);
-        generatePlanUseCase.execute(goal);
+        try {
+            generatePlanUseCase.execute(goal);
+        } catch (PlanningRejectedException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
         return ResponseEntity.accepted().build();
     }
 }
@@ -1,24 +1,48 @@
 package br.com.edsonuso.aoeplanner.infrastructure.listener;
 
+import br.com.edsonuso.aoeplanner.application.coordination.PlanningRejectedException;
 import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
+import br.com.edsonuso.aoeplanner.infrastructure.config.RabbitMQConfig;
 import br.com.edsonuso.aoeplanner.model.Goal;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ReplanQueueListener {
 
     private final GeneratePlanUseCase generatePlanUseCase;
+    private final RabbitTemplate rabbitTemplate;
+    private final String retryExpiration;
+
+    public ReplanQueueListener(GeneratePlanUseCase generatePlanUseCase,
+                               RabbitTemplate rabbitTemplate,
+                               @Value("${planner.replan.retry-delay:PT1S}") Duration retryDelay) {
+        this.generatePlanUseCase = generatePlanUseCase;
+        this.rabbitTemplate = rabbitTemplate;
+        this.retryExpiration = String.valueOf(Math.max(1, retryDelay.toMillis()));
+    }
 
-    @RabbitListener(queues = "aoe.replan.queue")
+    @RabbitListener(queues = RabbitMQConfig.REPLAN_QUEUE_NAME)
     public void onReplanRequest(Goal goal) {
         log.info("Solicitação de replanejamento recebida para o objetivo: {}", goal.getName());
-        // Simplesmente re-executa o caso de uso de geração de plano com o mesmo objetivo.
-        // O planner irá ler a Base de Fatos atualizada e gerar um novo plano.
-        generatePlanUseCase.execute(goal);
+        // O planner lê a Base de Fatos atualizada e continua a busca guardada para este
+        // objetivo, em vez de expandir todo o espaço de novo a cada falha.
+        try {
+            generatePlanUseCase.replan(goal);
+        } catch (PlanningRejectedException e) {
+            // A espera fica no broker: o pedido expira na fila de espera e volta para esta,
+            // sem prender o consumidor. Se o envio falhar, a exceção devolve a mensagem original.
+            log.warn("{} Replanejamento reenviado em {} ms.", e.getMessage(), retryExpiration);
+            rabbitTemplate.convertAndSend("", RabbitMQConfig.REPLAN_RETRY_QUEUE_NAME, goal, message -> {
+                message.getMessageProperties().setExpiration(retryExpiration);
+                return message;
+            });
+        }
     }
 }
@@ -0,0 +1,101 @@
+package br.com.edsonuso.aoeplanner.infrastructure.metrics;
+
+import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanningMetricsPort;
+import br.com.edsonuso.aoeplanner.core.SearchObserver;
+import br.com.edsonuso.aoeplanner.core.search.SearchStatistics;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas de planejamento no Micrometer, expostas em {@code /actuator/prometheus}.
+ *
+ * Todas levam o objetivo e a versão do catálogo de ações, para separar os objetivos
+ * que deixam o planner lento e comparar catálogos:
+ * <ul>
+ *     <li>{@code planner.search}: duração da busca, com histograma, por estratégia e desfecho;</li>
+ *     <li>{@code planner.search.nodes.expanded}, {@code planner.search.nodes.generated} e
+ *     {@code planner.search.open.peak}: esforço da busca;</li>
+ *     <li>{@code planner.search.iteration.limit}: buscas que pararam no limite de iterações;</li>
+ *     <li>{@code planner.plan.length} e {@code planner.plan.cost}: planos encontrados;</li>
+ *     <li>{@code planner.plan.bound}: fator de subotimalidade garantido (modo ANYTIME);</li>
+ *     <li>{@code planner.plans}: desfecho de cada rodada; a taxa de plano de diagnóstico
+ *     é a fração com {@code outcome="diagnostic"}.</li>
+ *     <li>{@code planner.startup.first.plan}: tempo desde o início da JVM até o primeiro
+ *     plano publicado (sem tags).</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class MicrometerPlannerMetrics implements SearchObserver, PlanningMetricsPort {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final ActionRepositoryPort actionRepository;
+    private final AtomicLong firstPlanMillis = new AtomicLong(-1);
+
+    @Override
+    public void searchFinished(Goal goal, String strategy, SearchStatistics statistics, Optional<Plan> plan, long elapsedNanos) {
+        Tags tags = goalTags(goal, actionRepository.getCatalogVersion()).and("strategy", strategy);
+
+        Timer.builder("planner.search")
+                .description("Duração da busca de um plano")
+                .tags(tags.and("outcome", plan.isPresent() ? "found" : "not_found"))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        summary("planner.search.nodes.expanded", "Nós expandidos por busca", tags).record(statistics.expanded());
+        summary("planner.search.nodes.generated", "Nós gerados por busca", tags).record(statistics.generated());
+        summary("planner.search.open.peak", "Maior tamanho do conjunto aberto por busca", tags).record(statistics.peakOpen());
+        if (statistics.iterationLimitReached()) {
+            registry.counter("planner.search.iteration.limit", tags).increment();
+        }
+
+        plan.ifPresent(found -> {
+            summary("planner.plan.length", "Passos dos planos encontrados", tags).record(found.steps().size());
+            summary("planner.plan.cost", "Custo dos planos encontrados", tags).record(found.totalCost());
+            if (Double.isFinite(statistics.suboptimalityBound())) {
+                summary("planner.plan.bound", "Fator máximo entre o custo do plano e o ótimo", tags)
+                        .record(statistics.suboptimalityBound());
+            }
+        });
+    }
+
+    @Override
+    public void planningFinished(Goal goal, String catalogVersion, Outcome outcome) {
+        registry.counter("planner.plans",
+                goalTags(goal, catalogVersion).and("outcome", outcome.name().toLowerCase(Locale.ROOT))).increment();
+        if (outcome != Outcome.NO_PLAN && firstPlanMillis.compareAndSet(-1, ManagementFactory.getRuntimeMXBean().getUptime())) {
+            TimeGauge.builder("planner.startup.first.plan", firstPlanMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("Tempo desde o início da JVM até o primeiro plano publicado")
+                    .register(registry);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Tags goalTags(Goal goal, String catalogVersion) {
+        return Tags.of("goal", goal.getName() != null ? goal.getName() : UNKNOWN,
+                "catalog", catalogVersion != null ? catalogVersion : UNKNOWN);
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.edsonuso.aoeplanner.infrastructure.reload;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Arquivos de um padrão de recursos lidos de uma vez, com a versão (hash do
+ * conteúdo) que muda sempre que algum deles muda, e a impressão dos metadados
+ * (nome, tamanho e data), que permite saber se mudaram sem ler o conteúdo.
+ */
+public record CatalogFiles(List<Entry> files, String version, String fingerprint) {
+
+    public record Entry(String name, byte[] content) {
+    }
+
+    public static CatalogFiles read(String pattern) throws IOException {
+        // Usa um resolver do Spring para encontrar todos os arquivos que correspondem ao padrão
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(pattern);
+        // Metadados antes do conteúdo: um arquivo alterado durante a leitura deixa a impressão antiga
+        String fingerprint = fingerprint(resources);
+        MessageDigest digest = newDigest();
+        List<Entry> files = new ArrayList<>();
+        for (Resource resource : resources) {
+            try (InputStream inputStream = resource.getInputStream()) {
+                byte[] content = inputStream.readAllBytes();
+                digest.update(content);
+                files.add(new Entry(resource.getFilename(), content));
+            }
+        }
+        return new CatalogFiles(List.copyOf(files), hex(digest), fingerprint);
+    }
+
+    /**
+     * Impressão dos metadados dos arquivos do padrão, sem ler o conteúdo deles.
+     */
+    public static String fingerprint(String pattern) throws IOException {
+        return fingerprint(new PathMatchingResourcePatternResolver().getResources(pattern));
+    }
+
+    private static String fingerprint(Resource[] resources) throws IOException {
+        MessageDigest digest = newDigest();
+        for (Resource resource : resources) {
+            String entry = resource.getFilename() + '|' + resource.contentLength() + '|' + resource.lastModified() + '\n';
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Diretórios no sistema de arquivos com arquivos do padrão, mais a raiz do padrão
+     * (para arquivos novos). Recursos dentro de um jar não têm diretório e ficam de fora.
+     */
+    public static Set<Path> directories(String pattern) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Resource resource : resolver.getResources(pattern)) {
+            if (resource.isFile()) {
+                directories.add(resource.getFile().toPath().toAbsolutePath().getParent());
+            }
+        }
+        int wildcard = firstWildcard(pattern);
+        int separator = wildcard < 0 ? -1 : pattern.lastIndexOf('/', wildcard);
+        if (separator >= 0) {
+            Resource root = resolver.getResource(pattern.substring(0, separator + 1).replace("classpath*:", "classpath:"));
+            if (root.exists() && root.isFile()) {
+                directories.add(root.getFile().toPath().toAbsolutePath());
+            }
+        }
+        return directories;
+    }
+
+    private static int firstWildcard(String pattern) {
+        // Ignora o prefixo (o asterisco de "classpath*:" não é curinga de arquivo)
+        int start = pattern.indexOf(':') + 1;
+        int star = pattern.indexOf('*', start);
+        int question = pattern.indexOf('?', start);
+        if (star < 0 || question < 0) {
+            return Math.max(star, question);
+        }
+        return Math.min(star, question);
+    }
+
+    private static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.edsonuso.aoeplanner.infrastructure.reload;
+
+/**
+ * Resultado da recarga de um catálogo: a versão em uso depois dela, se mudou, o
+ * número de entradas e, quando a nova versão foi recusada, o motivo.
+ */
+public record CatalogReload(String version, boolean changed, int entries, String error) {
+
+    public static CatalogReload of(String version, boolean changed, int entries) {
+        return new CatalogReload(version, changed, entries, null);
+    }
+
+    public static CatalogReload failed(String version, String error) {
+        return new CatalogReload(version, false, 0, error);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.edsonuso.aoeplanner.infrastructure.reload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/catalog} mostra a versão de cada catálogo em uso;
+ * {@code POST /actuator/catalog} recarrega os catálogos a partir dos arquivos.
+ */
+@Component
+@Endpoint(id = "catalog")
+@RequiredArgsConstructor
+public class CatalogReloadEndpoint {
+
+    private final CatalogReloader reloader;
+
+    @ReadOperation
+    public Map<String, String> versions() {
+        return reloader.versions();
+    }
+
+    @WriteOperation
+    public Map<String, CatalogReload> reload() {
+        return reloader.reload();
+    }
+}
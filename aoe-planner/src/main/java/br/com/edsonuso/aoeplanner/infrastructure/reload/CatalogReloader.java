@@ -0,0 +1,137 @@
+package br.com.edsonuso.aoeplanner.infrastructure.reload;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recarrega os catálogos (ações e mapeamentos de alertas) sem reiniciar o planner.
+ *
+ * Um {@link WatchService} observa os diretórios dos arquivos configurados. Editores
+ * costumam gravar em várias etapas, então uma rajada de eventos dispara uma única
+ * recarga depois de {@code planner.catalog.watch.debounce} sem eventos novos. A
+ * recarga também pode ser pedida com um POST em {@code /actuator/catalog}.
+ *
+ * Cada catálogo lê, valida e prepara a nova versão nesta thread e só então a publica
+ * com uma troca atômica; buscas em andamento terminam com a versão que já tinham.
+ * Uma versão inválida fica no log e a atual continua em uso.
+ */
+@Service
+@Slf4j
+public class CatalogReloader {
+
+    private final List<ReloadableCatalog> catalogs;
+    private final boolean watchEnabled;
+    private final Duration debounce;
+    private WatchService watchService;
+    private Thread watcher;
+
+    @Autowired
+    public CatalogReloader(List<ReloadableCatalog> catalogs,
+                           @Value("${planner.catalog.watch.enabled:true}") boolean watchEnabled,
+                           @Value("${planner.catalog.watch.debounce:PT0.5S}") Duration debounce) {
+        this.catalogs = catalogs;
+        this.watchEnabled = watchEnabled;
+        this.debounce = debounce;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!watchEnabled) {
+            return;
+        }
+        Set<Path> directories = new LinkedHashSet<>();
+        for (ReloadableCatalog catalog : catalogs) {
+            directories.addAll(CatalogFiles.directories(catalog.resourcePattern()));
+        }
+        if (directories.isEmpty()) {
+            log.info("Nenhum diretório de catálogo no sistema de arquivos; recarga só pelo /actuator/catalog.");
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        log.info("Observando {} diretório(s) de catálogo: {}", directories.size(), directories);
+        watcher = Thread.ofPlatform().name("catalog-watcher").daemon(true).start(this::watch);
+    }
+
+    /**
+     * Recarrega todos os catálogos e devolve o resultado de cada um pelo nome.
+     */
+    public synchronized Map<String, CatalogReload> reload() {
+        Map<String, CatalogReload> results = new LinkedHashMap<>();
+        for (ReloadableCatalog catalog : catalogs) {
+            try {
+                results.put(catalog.catalogName(), catalog.reload());
+            } catch (IOException | RuntimeException e) {
+                log.error("Recarga do catálogo '{}' falhou; a versão {} continua em uso.",
+                        catalog.catalogName(), catalog.currentVersion(), e);
+                results.put(catalog.catalogName(), CatalogReload.failed(catalog.currentVersion(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Versão em uso de cada catálogo.
+     */
+    public Map<String, String> versions() {
+        Map<String, String> versions = new LinkedHashMap<>();
+        catalogs.forEach(catalog -> versions.put(catalog.catalogName(), catalog.currentVersion()));
+        return versions;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                consume(watchService.take());
+                // Espera a rajada terminar; a recarga ignora catálogos cujo conteúdo não mudou
+                WatchKey next;
+                while ((next = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    consume(next);
+                }
+                log.info("Mudança nos arquivos de catálogo detectada; recarregando.");
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Encerramento
+        }
+    }
+
+    private static void consume(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+}
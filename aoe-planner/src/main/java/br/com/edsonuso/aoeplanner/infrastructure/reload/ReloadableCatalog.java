@@ -0,0 +1,30 @@
+package br.com.edsonuso.aoeplanner.infrastructure.reload;
+
+import java.io.IOException;
+
+/**
+ * Catálogo lido de arquivos YAML que pode ser recarregado com o planner no ar.
+ */
+public interface ReloadableCatalog {
+
+    /**
+     * Nome do catálogo nos logs e no endpoint {@code /actuator/catalog}.
+     */
+    String catalogName();
+
+    /**
+     * Padrão de recursos dos arquivos do catálogo, observado pelo {@link CatalogReloader}.
+     */
+    String resourcePattern();
+
+    /**
+     * Versão em uso; nula se nenhuma carga deu certo.
+     */
+    String currentVersion();
+
+    /**
+     * Relê os arquivos e, se o conteúdo mudou, valida, prepara e publica a nova versão
+     * de uma vez. Em caso de erro a versão atual continua em uso.
+     */
+    CatalogReload reload() throws IOException;
+}
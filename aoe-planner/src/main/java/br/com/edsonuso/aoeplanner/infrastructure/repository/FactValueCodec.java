@@ -0,0 +1,69 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+/**
+ * Codificação dos valores de fatos no hash {@code fact-base} do Redis.
+ *
+ * O executor em Go lê e grava o mesmo hash com {@code fmt.Sprintf("%v", valor)},
+ * então os valores continuam sendo strings simples ({@code true}, {@code 42},
+ * {@code sa-east-1}) e nenhuma marcação de tipo é adicionada. A leitura devolve os
+ * mesmos tipos que o {@code DeclarativeAlertMapper} produz (booleano, inteiro ou
+ * string) olhando só os caracteres do valor, sem exceções nem expressões regulares;
+ * o próprio mapper usa a mesma decodificação para tipar os valores dos alertas.
+ */
+public final class FactValueCodec {
+
+    private FactValueCodec() {
+    }
+
+    static String encode(Object value) {
+        return String.valueOf(value);
+    }
+
+    public static Object decode(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return raw;
+        }
+        char first = raw.charAt(0);
+        if ((first == 't' || first == 'T') && raw.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if ((first == 'f' || first == 'F') && raw.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        if (first == '-' || first == '+' || (first >= '0' && first <= '9')) {
+            Integer number = parseInt(raw);
+            if (number != null) {
+                return number;
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Mesmo conjunto aceito por {@link Integer#parseInt(String)}; nulo quando não é um inteiro.
+     */
+    private static Integer parseInt(String raw) {
+        int start = raw.charAt(0) == '-' || raw.charAt(0) == '+' ? 1 : 0;
+        if (start == raw.length()) {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return null;
+            }
+        }
+        if (raw.charAt(0) == '-') {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            return null;
+        }
+        return (int) value;
+    }
+}
@@ -2,19 +2,39 @@ package br.com.edsonuso.aoeplanner.infrastructure.repository;
 
 import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
 import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Base de fatos em memória, com a mesma semântica de versões e log de mudanças da
+ * {@link RedisFactBaseRepository}: cada escrita que altera algum valor avança a
+ * versão em um e guarda os fatos alterados, até {@code planner.facts.change-log.max-entries}
+ * versões. Um fato com valor nulo sai da base.
+ */
 @Repository
 @Profile("test")
 public class InMemoryFactBaseRepository implements FactBaseRepositoryPort {
 
     private final Map<String, Fact> factBase = new ConcurrentHashMap<>();
+    // Da versão mais antiga para a mais nova; escritas e leituras versionadas sincronizam na instância
+    private final Deque<Change> changes = new ArrayDeque<>();
+    private long version;
+
+    @Value("${planner.facts.change-log.max-entries:1024}")
+    private int maxChanges = 1024;
 
     @Override
     public Set<Fact> getCurrentFactBase() {
@@ -22,7 +42,67 @@ public class InMemoryFactBaseRepository implements FactBaseRepositoryPort {
     }
 
     @Override
-    public void updateFactBase(Set<Fact> facts) {
-        facts.forEach(fact -> factBase.put(fact.name(), fact));
+    public Set<Fact> getFacts(Set<String> names) {
+        Set<Fact> facts = new HashSet<>();
+        for (String name : names) {
+            Fact fact = factBase.get(name);
+            if (fact != null) {
+                facts.add(fact);
+            }
+        }
+        return facts;
+    }
+
+    @Override
+    public synchronized void updateFactBase(Set<Fact> facts) {
+        List<Fact> changed = new ArrayList<>();
+        for (Fact fact : facts) {
+            if (fact.value() == null) {
+                if (factBase.remove(fact.name()) != null) {
+                    changed.add(fact);
+                }
+            } else if (!fact.equals(factBase.put(fact.name(), fact))) {
+                changed.add(fact);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        version++;
+        changes.addLast(new Change(version, changed));
+        if (changes.size() > maxChanges) {
+            changes.removeFirst();
+        }
+    }
+
+    @Override
+    public synchronized FactBaseSnapshot getSnapshot() {
+        return new FactBaseSnapshot(version, getCurrentFactBase());
+    }
+
+    @Override
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    @Override
+    public synchronized FactChanges getChangesSince(long since) {
+        if (since == version) {
+            return FactChanges.none(version);
+        }
+        Change oldest = changes.peekFirst();
+        if (since < 0 || since > version || oldest == null || oldest.version() > since + 1) {
+            return FactChanges.resync(since, version);
+        }
+        Map<String, Fact> latest = new LinkedHashMap<>();
+        for (Change change : changes) {
+            if (change.version() > since) {
+                change.facts().forEach(fact -> latest.put(fact.name(), fact));
+            }
+        }
+        return new FactChanges(since, version, true, List.copyOf(latest.values()));
+    }
+
+    private record Change(long version, List<Fact> facts) {
     }
 }
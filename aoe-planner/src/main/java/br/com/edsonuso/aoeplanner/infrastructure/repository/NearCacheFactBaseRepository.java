@@ -0,0 +1,312 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache da base de fatos: mantém uma cópia local versionada do hash
+ * {@code fact-base} e só volta ao Redis quando ele muda.
+ *
+ * A coerência vem das keyspace notifications do Redis: qualquer comando sobre o
+ * hash (do executor, de outra réplica ou deste planner) avança a versão e a próxima
+ * leitura faz um resync completo com um único {@code HGETALL}. Enquanto a assinatura
+ * do canal não está ativa (reconexão, Redis fora) as leituras vão direto ao Redis, e
+ * ao voltar a escutar a cópia é descartada, já que notificações podem ter sido
+ * perdidas. A cópia também expira após {@code max-staleness}, como rede de segurança
+ * para servidores onde as notificações não puderam ser habilitadas.
+ *
+ * As leituras por nome ({@link #getFacts}) saem da cópia completa quando ela vale;
+ * senão só os campos ainda não lidos nesta versão do hash vão ao Redis, por
+ * {@code HMGET}, e ficam guardados (inclusive os ausentes) até a próxima notificação.
+ *
+ * A cópia completa é um {@link FactBaseSnapshot} com a versão da base de fatos, então
+ * {@link #getVersion()} e {@link #getChangesSince} sem mudanças também não vão ao
+ * Redis enquanto ela vale; as demais mudanças vêm do log mantido no Redis.
+ *
+ * A latência das leituras sai em {@code planner.facts.read} com {@code source="near-cache"}
+ * e o resultado ({@code hit}, {@code miss}, {@code fields} na leitura por campos ou
+ * {@code bypass} sem notificações).
+ */
+@Repository
+@Primary
+@Profile("!test")
+@ConditionalOnProperty(name = "planner.facts.near-cache.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NearCacheFactBaseRepository implements FactBaseRepositoryPort, MessageListener {
+
+    private static final String NOTIFY_CONFIG = "notify-keyspace-events";
+
+    private final RedisFactBaseRepository delegate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final String factBaseKey;
+    private final long maxStalenessNanos;
+    private final boolean configureNotifications;
+
+    // Avança a cada notificação; uma cópia só é instalada se a versão não mudou durante a leitura
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile Fields fields;
+    private volatile boolean listening;
+
+    public NearCacheFactBaseRepository(RedisFactBaseRepository delegate,
+                                       RedisTemplate<String, Object> redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${planner.facts.redis-key:fact-base}") String factBaseKey,
+                                       @Value("${planner.facts.near-cache.max-staleness:PT30S}") Duration maxStaleness,
+                                       @Value("${planner.facts.near-cache.configure-notifications:true}") boolean configureNotifications) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.factBaseKey = factBaseKey;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.configureNotifications = configureNotifications;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (configureNotifications) {
+            enableKeyspaceNotifications();
+        }
+        // O número do banco varia entre ambientes, então o padrão cobre todos
+        listenerContainer.addMessageListener(this, new PatternTopic("__keyspace@*__:" + factBaseKey));
+        log.info("Near cache da base de fatos assinando notificações do hash '{}'.", factBaseKey);
+    }
+
+    @Override
+    public Set<Fact> getCurrentFactBase() {
+        return getSnapshot().facts();
+    }
+
+    @Override
+    public FactBaseSnapshot getSnapshot() {
+        long start = System.nanoTime();
+        if (!listenerContainer.isListening()) {
+            // Sem notificações não há como saber se a cópia ainda vale
+            listening = false;
+            snapshot = null;
+            return recordRead(delegate.getSnapshot(), "bypass", start);
+        }
+        if (!listening) {
+            // Voltou a escutar: notificações podem ter sido perdidas, então faz resync completo
+            listening = true;
+            invalidate();
+        }
+
+        Snapshot cached = snapshot;
+        if (cached != null && isFresh(cached.version, cached.loadedAt)) {
+            return recordRead(cached.facts, "hit", start);
+        }
+
+        long expectedVersion = version.get();
+        FactBaseSnapshot read = delegate.getSnapshot();
+        FactBaseSnapshot facts = new FactBaseSnapshot(read.version(), Collections.unmodifiableSet(read.facts()));
+        if (version.get() == expectedVersion) {
+            snapshot = Snapshot.of(expectedVersion, System.nanoTime(), facts);
+        }
+        return recordRead(facts, "miss", start);
+    }
+
+    @Override
+    public long getVersion() {
+        Snapshot cached = currentSnapshot();
+        return cached != null ? cached.facts.version() : delegate.getVersion();
+    }
+
+    /**
+     * Sem ida ao Redis quando a cópia local vale e já está na versão pedida; senão
+     * as mudanças vêm do log no Redis.
+     */
+    @Override
+    public FactChanges getChangesSince(long since) {
+        Snapshot cached = currentSnapshot();
+        if (cached != null && cached.facts.version() == since) {
+            return FactChanges.none(since);
+        }
+        return delegate.getChangesSince(since);
+    }
+
+    /**
+     * A cópia completa, se ainda vale; sem assinatura ativa nenhuma cópia vale.
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot cached = snapshot;
+        if (!listening || !listenerContainer.isListening() || cached == null || !isFresh(cached.version, cached.loadedAt)) {
+            return null;
+        }
+        return cached;
+    }
+
+    @Override
+    public Set<Fact> getFacts(Set<String> names) {
+        long start = System.nanoTime();
+        if (!listenerContainer.isListening()) {
+            listening = false;
+            snapshot = null;
+            fields = null;
+            return recordRead(delegate.getFacts(names), "bypass", start);
+        }
+        if (!listening) {
+            listening = true;
+            invalidate();
+        }
+
+        Set<Fact> facts = new HashSet<>(names.size() * 2);
+        Snapshot cached = snapshot;
+        if (cached != null && isFresh(cached.version, cached.loadedAt)) {
+            for (String name : names) {
+                Fact fact = cached.byName.get(name);
+                if (fact != null) {
+                    facts.add(fact);
+                }
+            }
+            return recordRead(facts, "hit", start);
+        }
+
+        long expectedVersion = version.get();
+        Fields known = fields;
+        if (known == null || !isFresh(known.version, known.loadedAt)) {
+            known = new Fields(expectedVersion, System.nanoTime(), new ConcurrentHashMap<>());
+        }
+        Set<String> missing = new HashSet<>();
+        for (String name : names) {
+            Optional<Fact> value = known.values.get(name);
+            if (value == null) {
+                missing.add(name);
+            } else {
+                value.ifPresent(facts::add);
+            }
+        }
+        if (missing.isEmpty()) {
+            return recordRead(facts, "hit", start);
+        }
+
+        Set<Fact> fetched = delegate.getFacts(missing);
+        facts.addAll(fetched);
+        if (version.get() == expectedVersion) {
+            // Ausentes também ficam guardados: o próximo objetivo com eles não volta ao Redis
+            Map<String, Optional<Fact>> read = new HashMap<>(missing.size() * 2);
+            missing.forEach(name -> read.put(name, Optional.empty()));
+            fetched.forEach(fact -> read.put(fact.name(), Optional.of(fact)));
+            known.values.putAll(read);
+            fields = known;
+        }
+        return recordRead(facts, "fields", start);
+    }
+
+    private boolean isFresh(long cachedVersion, long loadedAt) {
+        return cachedVersion == version.get() && System.nanoTime() - loadedAt < maxStalenessNanos;
+    }
+
+    private <T> T recordRead(T facts, String result, long start) {
+        meterRegistry.timer("planner.facts.read", "source", "near-cache", "result", result)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return facts;
+    }
+
+    @Override
+    public void updateFactBase(Set<Fact> facts) {
+        delegate.updateFactBase(facts);
+        // A notificação da própria escrita também chega, mas a leitura seguinte não deve esperar por ela
+        invalidate();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate();
+    }
+
+    /**
+     * Versão da cópia local; muda sempre que o hash é alterado. Não é a versão da base
+     * de fatos ({@link #getVersion()}): esta conta as notificações recebidas.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+        fields = null;
+    }
+
+    /**
+     * Garante as classes K (keyspace), g (genéricos como DEL/EXPIRE), h (hash) e x
+     * (expiração) sem remover as que já estavam ligadas. Servidores gerenciados
+     * costumam bloquear CONFIG; nesse caso a configuração fica a cargo da operação.
+     */
+    private void enableKeyspaceNotifications() {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                Properties config = connection.serverCommands().getConfig(NOTIFY_CONFIG);
+                String current = config == null ? "" : config.getProperty(NOTIFY_CONFIG, "");
+                String required = withRequiredFlags(current);
+                if (!required.equals(current)) {
+                    connection.serverCommands().setConfig(NOTIFY_CONFIG, required);
+                    log.info("Keyspace notifications do Redis ajustadas de '{}' para '{}'.", current, required);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível habilitar keyspace notifications no Redis ({}). A cópia local expira em {} ms.",
+                    e.getMessage(), Duration.ofNanos(maxStalenessNanos).toMillis());
+        }
+    }
+
+    static String withRequiredFlags(String current) {
+        StringBuilder flags = new StringBuilder(current);
+        boolean allClasses = current.indexOf('A') >= 0;
+        for (char flag : new char[]{'K', 'g', 'h', 'x'}) {
+            if (flags.indexOf(String.valueOf(flag)) < 0 && (flag == 'K' || !allClasses)) {
+                flags.append(flag);
+            }
+        }
+        return flags.toString();
+    }
+
+    private record Snapshot(long version, long loadedAt, FactBaseSnapshot facts, Map<String, Fact> byName) {
+
+        static Snapshot of(long version, long loadedAt, FactBaseSnapshot facts) {
+            Map<String, Fact> byName = new HashMap<>(facts.facts().size() * 2);
+            facts.facts().forEach(fact -> byName.put(fact.name(), fact));
+            return new Snapshot(version, loadedAt, facts, byName);
+        }
+    }
+
+    /**
+     * Campos lidos por nome em uma versão do hash; vazio marca campo ausente.
+     */
+    private record Fields(long version, long loadedAt, Map<String, Optional<Fact>> values) {
+    }
+}
@@ -2,47 +2,227 @@ package br.com.edsonuso.aoeplanner.infrastructure.repository;
 
 import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
 import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Base de fatos em um único hash do Redis, o mesmo que o executor em Go usa.
+ *
+ * Um snapshot completo é um {@code HGETALL} junto com a versão (uma ida ao Redis,
+ * sem {@code KEYS}), a leitura dos fatos relevantes de um objetivo é um
+ * {@code HMGET} só com esses campos e uma atualização é um único script com todos
+ * os campos.
+ *
+ * O script de escrita ({@link #UPDATE_SCRIPT}, o mesmo que o executor roda) só grava
+ * os campos cujo valor muda e, se algum mudou, incrementa a versão em
+ * {@code <hash>:version} e acrescenta os campos alterados ao stream
+ * {@code <hash>:changes} com o id {@code <versão>-0}, limitado a
+ * {@code planner.facts.change-log.max-entries} versões (com {@code MAXLEN ~}). No
+ * stream, {@code =valor} é o novo valor de um campo e {@code -} marca a remoção. Por
+ * ser um script, hash, versão e log mudam juntos; pelo mesmo motivo o snapshot lê
+ * o hash e a versão em um script. As mudanças desde uma versão são um
+ * {@code XRANGE} a partir da versão seguinte.
+ *
+ * Publica a latência de leitura e escrita ({@code planner.facts.read}, com
+ * {@code source="redis"} no snapshot, {@code source="redis-fields"} na leitura por
+ * campos e {@code source="redis-changes"} nas mudanças, e {@code planner.facts.write})
+ * e o tamanho da base lida por último ({@code planner.facts.size}).
+ */
 @Repository
 @Profile("!test")
 @RequiredArgsConstructor
 public class RedisFactBaseRepository implements FactBaseRepositoryPort {
 
+    /**
+     * KEYS: hash, versão e log de mudanças. ARGV: tamanho do log, quantos campos são
+     * gravados, os pares campo/valor gravados e, depois deles, os campos removidos.
+     * Devolve a versão depois da escrita.
+     *
+     * Mantenha em sincronia com {@code updateFactsScript} em
+     * {@code aoe-executor/executor/factbase.go}: o executor grava os efeitos das ações
+     * com a mesma cópia do script.
+     */
+    static final String UPDATE_SCRIPT = """
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+              redis.call('DEL', KEYS[3])
+            end
+            local changes = {}
+            local puts = tonumber(ARGV[2])
+            for i = 3, 2 + 2 * puts, 2 do
+              if redis.call('HGET', KEYS[1], ARGV[i]) ~= ARGV[i + 1] then
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+                changes[#changes + 1] = ARGV[i]
+                changes[#changes + 1] = '=' .. ARGV[i + 1]
+              end
+            end
+            for i = 3 + 2 * puts, #ARGV do
+              if redis.call('HDEL', KEYS[1], ARGV[i]) == 1 then
+                changes[#changes + 1] = ARGV[i]
+                changes[#changes + 1] = '-'
+              end
+            end
+            if #changes == 0 then
+              return tonumber(redis.call('GET', KEYS[2]) or '0')
+            end
+            local version = redis.call('INCR', KEYS[2])
+            redis.call('XADD', KEYS[3], 'MAXLEN', '~', ARGV[1], version .. '-0', unpack(changes))
+            return version
+            """;
+
+    // KEYS: hash e versão. Devolve a versão seguida dos pares campo/valor
+    private static final String SNAPSHOT_SCRIPT = """
+            local facts = redis.call('HGETALL', KEYS[1])
+            table.insert(facts, 1, redis.call('GET', KEYS[2]) or '0')
+            return facts
+            """;
+
+    private static final RedisScript<Long> UPDATE = RedisScript.of(UPDATE_SCRIPT, Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SNAPSHOT = RedisScript.of(SNAPSHOT_SCRIPT, List.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
-    private static final String FACT_KEY_PREFIX = "fact:";
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger factCount = new AtomicInteger();
+
+    @Value("${planner.facts.redis-key:fact-base}")
+    private String factBaseKey = "fact-base";
+
+    @Value("${planner.facts.change-log.max-entries:1024}")
+    private int maxChanges = 1024;
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("planner.facts.size", factCount);
+    }
 
     @Override
     public Set<Fact> getCurrentFactBase() {
-        Set<String> keys = redisTemplate.keys(FACT_KEY_PREFIX + "*");
-        if (keys == null || keys.isEmpty()) {
-            return Collections.emptySet();
-        }
-        return keys.stream()
-                .map(key -> {
-                    Object rawValue = redisTemplate.opsForValue().get(key);
-                    Object typedValue = rawValue;
-                    if (rawValue instanceof String s) {
-                        if (s.equalsIgnoreCase("true")) {
-                            typedValue = true;
-                        } else if (s.equalsIgnoreCase("false")) {
-                            typedValue = false;
-                        }
-                    }
-                    return new Fact(key.substring(FACT_KEY_PREFIX.length()), typedValue);
-                })
-                .collect(Collectors.toSet());
+        return getSnapshot().facts();
+    }
+
+    @Override
+    public FactBaseSnapshot getSnapshot() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<?> result = redisTemplate.execute(SNAPSHOT, List.of(factBaseKey, versionKey()));
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("Leitura do snapshot da base de fatos sem resposta do Redis.");
+        }
+        Set<Fact> facts = new HashSet<>(result.size());
+        for (int i = 1; i + 1 < result.size(); i += 2) {
+            facts.add(new Fact((String) result.get(i), FactValueCodec.decode((String) result.get(i + 1))));
+        }
+        sample.stop(meterRegistry.timer("planner.facts.read", "source", "redis"));
+        factCount.set(facts.size());
+        return new FactBaseSnapshot(Long.parseLong((String) result.get(0)), facts);
+    }
+
+    @Override
+    public long getVersion() {
+        Object raw = redisTemplate.opsForValue().get(versionKey());
+        return raw == null ? 0 : Long.parseLong((String) raw);
+    }
+
+    @Override
+    public FactChanges getChangesSince(long since) {
+        long version = getVersion();
+        if (since == version) {
+            return FactChanges.none(version);
+        }
+        if (since < 0 || since > version) {
+            // Versão de antes de a base ser recriada
+            return FactChanges.resync(since, version);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(changeLogKey(), Range.rightUnbounded(Range.Bound.inclusive((since + 1) + "-0")));
+        sample.stop(meterRegistry.timer("planner.facts.read", "source", "redis-changes"));
+        // Sem a versão seguinte no stream, o começo do intervalo já foi descartado
+        if (records == null || records.isEmpty() || records.get(0).getId().getTimestamp() != since + 1) {
+            return FactChanges.resync(since, version);
+        }
+        Map<String, Fact> latest = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            record.getValue().forEach((name, raw) -> {
+                String change = (String) raw;
+                Object value = change.startsWith("=") ? FactValueCodec.decode(change.substring(1)) : null;
+                latest.put((String) name, new Fact((String) name, value));
+            });
+        }
+        // Escritas depois da leitura da versão já entram aqui
+        long last = records.get(records.size() - 1).getId().getTimestamp();
+        return new FactChanges(since, Math.max(version, last), true, List.copyOf(latest.values()));
+    }
+
+    @Override
+    public Set<Fact> getFacts(Set<String> names) {
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Object> fields = new ArrayList<>(names);
+        List<Object> values = redisTemplate.opsForHash().multiGet(factBaseKey, fields);
+        Set<Fact> facts = new HashSet<>(fields.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            // Campo ausente no hash volta nulo
+            Object raw = values == null ? null : values.get(i);
+            if (raw != null) {
+                facts.add(new Fact((String) fields.get(i), FactValueCodec.decode((String) raw)));
+            }
+        }
+        sample.stop(meterRegistry.timer("planner.facts.read", "source", "redis-fields"));
+        return facts;
     }
 
     @Override
     public void updateFactBase(Set<Fact> facts) {
-        facts.forEach(fact -> redisTemplate.opsForValue().set(FACT_KEY_PREFIX + fact.name(), fact.value()));
+        if (facts.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Object> written = new ArrayList<>(facts.size() * 2);
+        List<Object> removed = new ArrayList<>();
+        for (Fact fact : facts) {
+            if (fact.value() == null) {
+                // Valor desconhecido: o fato sai da base em vez de virar a string "null"
+                removed.add(fact.name());
+            } else {
+                written.add(fact.name());
+                written.add(FactValueCodec.encode(fact.value()));
+            }
+        }
+        List<Object> args = new ArrayList<>(written.size() + removed.size() + 2);
+        args.add(String.valueOf(maxChanges));
+        args.add(String.valueOf(written.size() / 2));
+        args.addAll(written);
+        args.addAll(removed);
+        redisTemplate.execute(UPDATE, List.of(factBaseKey, versionKey(), changeLogKey()), args.toArray());
+        sample.stop(meterRegistry.timer("planner.facts.write", "source", "redis"));
+    }
+
+    private String versionKey() {
+        return factBaseKey + ":version";
+    }
+
+    private String changeLogKey() {
+        return factBaseKey + ":changes";
     }
 }
@@ -1,57 +1,211 @@
 package br.com.edsonuso.aoeplanner.infrastructure.repository;
 
 import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevantProblem;
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogFiles;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogReload;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.ReloadableCatalog;
+import br.com.edsonuso.aoeplanner.infrastructure.snapshot.CatalogSnapshot;
 import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import jakarta.annotation.PostConstruct;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Catálogo de ações lido dos arquivos YAML de {@code planner.actions.path}.
+ *
+ * Ações e versão ficam em um único {@link ActionCatalog} trocado de uma vez na
+ * recarga. Antes da troca os domínios compilados da nova versão são montados no
+ * {@link GoapPlanner}, então a primeira busca com ela não paga a compilação. As
+ * buscas usam o recorte do catálogo para cada objetivo, então são os recortes dos
+ * objetivos conhecidos pelo {@link RelevanceAnalyzer} que são compilados.
+ *
+ * No boot, se o {@link CatalogSnapshot} tem o catálogo destes arquivos, os YAML não
+ * são lidos: a seção do snapshot só é decodificada no primeiro uso do catálogo.
+ */
 @Repository
 @Slf4j
-public class YamlActionRepository implements ActionRepositoryPort {
+public class YamlActionRepository implements ActionRepositoryPort, ReloadableCatalog {
     @Value("${planner.actions.path}")
     private String actionsPath;
 
-    private List<Action> cachedActions;
+    // Provider: o planner depende, via métricas, deste repositório
+    private final ObjectProvider<GoapPlanner> planner;
+    private volatile ActionCatalog catalog = new ActionCatalog(null, List.of());
+    // Seção do snapshot ainda não decodificada; enquanto existir, é ela o catálogo atual
+    private volatile CatalogSnapshot.Section pending;
+    private CatalogSnapshot snapshot = CatalogSnapshot.disabled();
+    private RelevanceAnalyzer relevance;
 
-    private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+    public static final String CATALOG_NAME = "actions";
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
+    public YamlActionRepository(ObjectProvider<GoapPlanner> planner) {
+        this.planner = planner;
+    }
+
+    @Autowired(required = false)
+    public void setSnapshot(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Autowired(required = false)
+    public void setRelevance(RelevanceAnalyzer relevance) {
+        this.relevance = relevance;
+    }
 
     @PostConstruct
     public void initialize() {
+        Optional<CatalogSnapshot.Section> section = snapshot.find(CATALOG_NAME, actionsPath);
+        if (section.isPresent()) {
+            this.pending = section.get();
+            log.info("Catálogo de ações {} disponível no snapshot; será decodificado no primeiro uso.", section.get().version());
+            return;
+        }
         log.info("Carregando definições de ações do caminho: {}", actionsPath);
-        List<Action> loadedActions = new ArrayList<>();
+        loadFromFiles();
+    }
+
+    @Override
+    public List<Action> findAll() {
+        return currentCatalog().actions();
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        return currentVersion();
+    }
+
+    @Override
+    public ActionCatalog currentCatalog() {
+        CatalogSnapshot.Section section = pending;
+        if (section != null) {
+            expand(section);
+        }
+        return catalog;
+    }
+
+    @Override
+    public String catalogName() {
+        return CATALOG_NAME;
+    }
+
+    @Override
+    public String resourcePattern() {
+        return actionsPath;
+    }
+
+    @Override
+    public String currentVersion() {
+        // A versão vem do diretório do snapshot, sem decodificar a seção
+        CatalogSnapshot.Section section = pending;
+        return section != null ? section.version() : catalog.version();
+    }
+
+    @Override
+    public synchronized CatalogReload reload() throws IOException {
+        CatalogFiles files = CatalogFiles.read(actionsPath);
+        ActionCatalog candidate = parse(files);
+        ActionCatalog current = currentCatalog();
+        if (candidate.version().equals(current.version())) {
+            return CatalogReload.of(current.version(), false, current.actions().size());
+        }
+        GoapPlanner goapPlanner = planner.getIfAvailable();
+        if (goapPlanner != null) {
+            prepare(goapPlanner, candidate);
+        }
+        this.catalog = candidate;
+        snapshot.store(CATALOG_NAME, actionsPath, files, candidate.actions());
+        log.info("Catálogo de ações recarregado: {} -> {} ({} ações).",
+                current.version(), candidate.version(), candidate.actions().size());
+        return CatalogReload.of(candidate.version(), true, candidate.actions().size());
+    }
+
+    private void prepare(GoapPlanner goapPlanner, ActionCatalog candidate) {
+        if (relevance == null) {
+            goapPlanner.prepare(candidate.actions());
+            return;
+        }
+        List<RelevantProblem> problems = relevance.prepare(candidate.version(), candidate.actions());
+        problems.forEach(problem -> goapPlanner.prepare(problem.actions()));
+        log.debug("Domínios de {} recorte(s) do catálogo {} compilados antes da troca.", problems.size(), candidate.version());
+    }
+
+    private synchronized void expand(CatalogSnapshot.Section section) {
+        if (pending != section) {
+            return;
+        }
         try {
-            // Usa um resolver do Spring para encontrar todos os arquivos que correspondem ao padrão
-            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(actionsPath);
-            for (Resource resource : resources) {
-                try (InputStream inputStream = resource.getInputStream()) {
-                    List<Action> actionsFromFile = mapper.readValue(inputStream, new TypeReference<>() {});
-                    loadedActions.addAll(actionsFromFile);
-                    log.debug("Carregadas {} ações de {}", actionsFromFile.size(), resource.getFilename());
-                }
-            }
-        } catch (IOException e) {
+            List<Action> actions = snapshot.decode(section, new TypeReference<List<Action>>() {});
+            validate(actions);
+            this.catalog = new ActionCatalog(section.version(), List.copyOf(actions));
+            this.pending = null;
+            log.info("Total de {} ações decodificadas do snapshot (catálogo {}).", actions.size(), section.version());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Seção '{}' do snapshot inválida ({}); lendo os YAML.", CATALOG_NAME, e.getMessage());
+            this.pending = null;
+            loadFromFiles();
+        }
+    }
+
+    private void loadFromFiles() {
+        try {
+            CatalogFiles files = CatalogFiles.read(actionsPath);
+            this.catalog = parse(files);
+            snapshot.store(CATALOG_NAME, actionsPath, files, catalog.actions());
+        } catch (IOException | IllegalArgumentException e) {
             log.error("Falha ao carregar ou processar arquivos de ações. O planejador pode não ter ações disponíveis.", e);
         }
-        this.cachedActions = Collections.unmodifiableList(loadedActions);
-        log.info("Total de {} ações carregadas e prontas para uso.", this.cachedActions.size());
+        log.info("Total de {} ações carregadas e prontas para uso (catálogo {}).", catalog.actions().size(), catalog.version());
     }
 
-    @Override
-    public List<Action> findAll() {
-        return this.cachedActions;
+    /**
+     * Lê e valida as ações dos arquivos; usado também na geração do snapshot no build.
+     */
+    public static ActionCatalog parse(CatalogFiles files) throws IOException {
+        List<Action> loadedActions = new ArrayList<>();
+        for (CatalogFiles.Entry file : files.files()) {
+            List<Action> actionsFromFile = mapper.readValue(file.content(), new TypeReference<>() {});
+            if (actionsFromFile != null) {
+                loadedActions.addAll(actionsFromFile);
+                log.debug("Carregadas {} ações de {}", actionsFromFile.size(), file.name());
+            }
+        }
+        validate(loadedActions);
+        // A versão é o hash do conteúdo dos arquivos: muda sempre que alguma ação muda
+        return new ActionCatalog(files.version(), List.copyOf(loadedActions));
+    }
+
+    // O nome identifica a ação nos planos por referência, e o A* exige custo não negativo
+    private static void validate(List<Action> actions) {
+        Set<String> names = new HashSet<>();
+        for (Action action : actions) {
+            if (action == null || action.getName() == null || action.getName().isBlank()) {
+                throw new IllegalArgumentException("Ação sem nome no catálogo.");
+            }
+            if (!names.add(action.getName())) {
+                throw new IllegalArgumentException("Ação '" + action.getName() + "' definida mais de uma vez.");
+            }
+            if (action.getCost() < 0) {
+                throw new IllegalArgumentException("Ação '" + action.getName() + "' com custo negativo: " + action.getCost());
+            }
+        }
     }
 }
@@ -0,0 +1,123 @@
+package br.com.edsonuso.aoeplanner.infrastructure.service;
+
+import br.com.edsonuso.aoeplanner.application.coordination.PlanningRejectedException;
+import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
+import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processa os webhooks do Alertmanager em lote, fora da thread HTTP.
+ *
+ * Para cada webhook: mapeia todos os alertas, junta os fatos em um único delta
+ * (o último alerta do payload vence em caso de conflito), faz uma única escrita na
+ * base de fatos e planeja uma vez por objetivo distinto (os objetivos vêm dos
+ * mapeamentos de alerta que os declaram). A fila é limitada; quando
+ * está cheia o webhook é recusado e o Alertmanager reenvia depois. Com um único
+ * worker (padrão) os webhooks são aplicados na ordem em que chegaram.
+ */
+@Service
+@Slf4j
+public class AlertIngestPipeline {
+
+    private final DeclarativeAlertMapper declarativeAlertMapper;
+    private final FactUpdaterService factUpdaterService;
+    private final GeneratePlanUseCase generatePlanUseCase;
+    private final ExecutorService executor;
+
+    @Autowired
+    public AlertIngestPipeline(DeclarativeAlertMapper declarativeAlertMapper,
+                               FactUpdaterService factUpdaterService,
+                               GeneratePlanUseCase generatePlanUseCase,
+                               @Value("${planner.ingest.queue-capacity:256}") int queueCapacity,
+                               @Value("${planner.ingest.workers:1}") int workers,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(declarativeAlertMapper, factUpdaterService, generatePlanUseCase, newExecutor(queueCapacity, workers, virtualThreads));
+    }
+
+    AlertIngestPipeline(DeclarativeAlertMapper declarativeAlertMapper,
+                        FactUpdaterService factUpdaterService,
+                        GeneratePlanUseCase generatePlanUseCase,
+                        ExecutorService executor) {
+        this.declarativeAlertMapper = declarativeAlertMapper;
+        this.factUpdaterService = factUpdaterService;
+        this.generatePlanUseCase = generatePlanUseCase;
+        this.executor = executor;
+    }
+
+    /**
+     * Enfileira o webhook; devolve falso se a fila estiver cheia.
+     */
+    public boolean submit(AlertmanagerWebhookPayload payload) {
+        try {
+            executor.execute(() -> process(payload));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Fila de ingestão cheia; webhook com {} alerta(s) recusado.", payload.alerts().size());
+            return false;
+        }
+    }
+
+    void process(AlertmanagerWebhookPayload payload) {
+        try {
+            Map<String, Fact> delta = new LinkedHashMap<>();
+            Map<String, Goal> goals = new LinkedHashMap<>();
+            for (AlertmanagerWebhookPayload.Alert alert : payload.alerts()) {
+                declarativeAlertMapper.map(alert).forEach(fact -> delta.put(fact.name(), fact));
+                declarativeAlertMapper.goalFor(alert).ifPresent(goal -> goals.putIfAbsent(goal.getName(), goal));
+            }
+
+            factUpdaterService.persistFacts(new HashSet<>(delta.values()));
+            log.info("Webhook processado: {} alerta(s), {} fato(s), {} objetivo(s).",
+                    payload.alerts().size(), delta.size(), goals.size());
+
+            goals.values().forEach(this::plan);
+        } catch (RuntimeException e) {
+            log.error("Falha ao processar webhook do Alertmanager.", e);
+        }
+    }
+
+    private void plan(Goal goal) {
+        try {
+            generatePlanUseCase.execute(goal);
+        } catch (PlanningRejectedException e) {
+            // Os fatos já foram gravados; o próximo alerta ou replanejamento planeja de novo
+            log.warn(e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Ingestão encerrada com webhooks ainda na fila.");
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newExecutor(int queueCapacity, int workers, boolean virtualThreads) {
+        // O worker só faz I/O (Redis) e entrega objetivos ao agendador, então pode ser virtual
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("alert-ingest-", 1).factory()
+                : Thread.ofPlatform().name("alert-ingest-", 1).factory();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
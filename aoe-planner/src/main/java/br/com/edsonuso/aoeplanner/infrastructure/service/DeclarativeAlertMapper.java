@@ -1,126 +1,356 @@
 package br.com.edsonuso.aoeplanner.infrastructure.service;
 
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
 import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogFiles;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogReload;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.ReloadableCatalog;
+import br.com.edsonuso.aoeplanner.infrastructure.repository.FactValueCodec;
+import br.com.edsonuso.aoeplanner.infrastructure.snapshot.CatalogSnapshot;
 import br.com.edsonuso.aoeplanner.model.AlertMapping;
 import br.com.edsonuso.aoeplanner.model.Fact;
 import br.com.edsonuso.aoeplanner.model.FactMapping;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.GoalMapping;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+/**
+ * Traduz alertas do Alertmanager em fatos a partir dos mapeamentos declarativos.
+ *
+ * Os mapeamentos são compilados na carga: um índice por {@code alertname} aponta
+ * para grupos de mapeamentos que exigem o mesmo conjunto de labels, e cada grupo é
+ * um hash dos valores exigidos. Mapear um alerta custa uma consulta por grupo,
+ * independente do tamanho do arquivo. Os valores dos fatos também são resolvidos
+ * na carga: literais já ficam tipados e templates viram leitores de label.
+ *
+ * No boot, se o {@link CatalogSnapshot} tem os mapeamentos destes arquivos, os YAML
+ * não são lidos e o índice é montado a partir do snapshot no primeiro alerta.
+ *
+ * Um mapeamento pode declarar o objetivo a planejar quando casa com o alerta
+ * ({@code goal}). As formas desses objetivos são registradas no
+ * {@link RelevanceAnalyzer} a cada compilação, para que os recortes deles fiquem
+ * prontos junto com o catálogo de ações.
+ *
+ * Publica a latência do mapeamento ({@code planner.alerts.mapping}) e os alertas
+ * que não geraram nenhum fato ({@code planner.alerts.unmatched}, por alertname).
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class DeclarativeAlertMapper {
+public class DeclarativeAlertMapper implements ReloadableCatalog {
 
     @Value("${planner.alert-mappings.path}")
     private String mappingsPath;
 
-    private List<AlertMapping> cachedMappings;
-    private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+    private final MeterRegistry meterRegistry;
+    private volatile Map<String, List<MatchGroup>> index = Map.of();
+    private volatile String version;
+    private int mappingCount;
+    // Seção do snapshot ainda não compilada no índice
+    private volatile CatalogSnapshot.Section pending;
+    private CatalogSnapshot snapshot = CatalogSnapshot.disabled();
+    private RelevanceAnalyzer relevance;
+
+    public static final String CATALOG_NAME = "alert-mappings";
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
     private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{\\{\\s*\\.(.*?)\\s*\\}\\}");
 
+    @Autowired(required = false)
+    public void setSnapshot(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Autowired(required = false)
+    public void setRelevance(RelevanceAnalyzer relevance) {
+        this.relevance = relevance;
+    }
 
     @PostConstruct
     public void initialize() {
+        Optional<CatalogSnapshot.Section> section = snapshot.find(CATALOG_NAME, mappingsPath);
+        if (section.isPresent()) {
+            this.pending = section.get();
+            this.version = section.get().version();
+            log.info("Mapeamentos de alerta {} disponíveis no snapshot; serão compilados no primeiro uso.", version);
+            return;
+        }
         log.info("Carregando definições de mapeamento de alertas de: {}", mappingsPath);
-        List<AlertMapping> loadedMappings = new ArrayList<>();
         try {
-            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(mappingsPath);
-            for (Resource resource : resources) {
-                try (InputStream inputStream = resource.getInputStream()) {
-                    List<AlertMapping> mappingsFromFile = mapper.readValue(inputStream, new TypeReference<>() {});
-                    loadedMappings.addAll(mappingsFromFile);
-                    log.debug("Carregado {} mapeamentos de {}", mappingsFromFile.size(), resource.getFilename());
-                }
-            }
+            reload();
         } catch (IOException e) {
             log.error("Falha ao carregar ou processar arquivos de mapeamento de alertas.", e);
         }
-        this.cachedMappings = Collections.unmodifiableList(loadedMappings);
-        log.info("Total de {} mapeamentos de alerta carregados.", this.cachedMappings.size());
+    }
+
+    @Override
+    public String catalogName() {
+        return CATALOG_NAME;
+    }
+
+    @Override
+    public String resourcePattern() {
+        return mappingsPath;
+    }
+
+    @Override
+    public String currentVersion() {
+        return version;
+    }
+
+    /**
+     * Relê os mapeamentos e troca o índice inteiro de uma vez; mapeamentos em
+     * andamento terminam com o índice anterior.
+     */
+    @Override
+    public synchronized CatalogReload reload() throws IOException {
+        index();
+        CatalogFiles files = CatalogFiles.read(mappingsPath);
+        if (files.version().equals(version)) {
+            return CatalogReload.of(version, false, mappingCount);
+        }
+        List<AlertMapping> loadedMappings = parse(files);
+        compile(loadedMappings);
+        this.version = files.version();
+        this.mappingCount = loadedMappings.size();
+        snapshot.store(CATALOG_NAME, mappingsPath, files, loadedMappings);
+        log.info("Total de {} mapeamentos de alerta carregados (versão {}).", loadedMappings.size(), version);
+        return CatalogReload.of(version, true, loadedMappings.size());
+    }
+
+    /**
+     * Lê os mapeamentos dos arquivos; usado também na geração do snapshot no build.
+     */
+    public static List<AlertMapping> parse(CatalogFiles files) throws IOException {
+        List<AlertMapping> loadedMappings = new ArrayList<>();
+        for (CatalogFiles.Entry file : files.files()) {
+            List<AlertMapping> mappingsFromFile = mapper.readValue(file.content(), new TypeReference<>() {});
+            if (mappingsFromFile != null) {
+                loadedMappings.addAll(mappingsFromFile);
+                log.debug("Carregado {} mapeamentos de {}", mappingsFromFile.size(), file.name());
+            }
+        }
+        return loadedMappings;
+    }
+
+    /**
+     * Monta o índice dos mapeamentos vindos do snapshot antes do primeiro alerta.
+     */
+    public void prepare() {
+        index();
+    }
+
+    private Map<String, List<MatchGroup>> index() {
+        CatalogSnapshot.Section section = pending;
+        if (section != null) {
+            expand(section);
+        }
+        return index;
+    }
+
+    private synchronized void expand(CatalogSnapshot.Section section) {
+        if (pending != section) {
+            return;
+        }
+        try {
+            List<AlertMapping> mappings = snapshot.decode(section, new TypeReference<List<AlertMapping>>() {});
+            compile(mappings);
+            this.mappingCount = mappings.size();
+            this.pending = null;
+            log.info("Total de {} mapeamentos de alerta compilados do snapshot (versão {}).", mappings.size(), version);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Seção '{}' do snapshot inválida ({}); lendo os YAML.", CATALOG_NAME, e.getMessage());
+            this.pending = null;
+            this.version = null;
+            try {
+                reload();
+            } catch (IOException ex) {
+                log.error("Falha ao carregar ou processar arquivos de mapeamento de alertas.", ex);
+            }
+        }
     }
 
     public Set<Fact> map(AlertmanagerWebhookPayload.Alert alert) {
-        return cachedMappings.stream()
-                .filter(mapping -> alertMatches(mapping, alert))
-                .flatMap(mapping -> createFactsFromMapping(mapping, alert).stream())
-                .collect(Collectors.toSet());
+        long start = System.nanoTime();
+        String alertName = alert.labels().get("alertname");
+        Set<Fact> facts = lookup(alertName, alert.labels());
+        meterRegistry.timer("planner.alerts.mapping", "matched", String.valueOf(!facts.isEmpty()))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (facts.isEmpty()) {
+            meterRegistry.counter("planner.alerts.unmatched", "alertname", alertName != null ? alertName : "unknown").increment();
+        }
+        return facts;
+    }
+
+    private Set<Fact> lookup(String alertName, Map<String, String> labels) {
+        List<MatchGroup> groups = alertName == null ? null : index().get(alertName);
+        if (groups == null) {
+            return Collections.emptySet();
+        }
+        Set<Fact> facts = new HashSet<>();
+        for (MatchGroup group : groups) {
+            for (CompiledMapping mapping : group.lookup(labels)) {
+                mapping.addFactsTo(facts, labels);
+            }
+        }
+        return facts;
     }
 
-    private boolean alertMatches(AlertMapping mapping, AlertmanagerWebhookPayload.Alert alert) {
-        if (!mapping.getAlertName().equals(alert.labels().get("alertname"))) {
-            return false;
+    /**
+     * Objetivo do primeiro mapeamento que casa com o alerta e declara um. Cada chamada
+     * devolve uma instância nova, porque {@link Goal} é mutável.
+     */
+    public Optional<Goal> goalFor(AlertmanagerWebhookPayload.Alert alert) {
+        String alertName = alert.labels().get("alertname");
+        List<MatchGroup> groups = alertName == null ? null : index().get(alertName);
+        if (groups == null) {
+            return Optional.empty();
+        }
+        for (MatchGroup group : groups) {
+            for (CompiledMapping mapping : group.lookup(alert.labels())) {
+                if (mapping.goal() != null) {
+                    GoalMapping goal = mapping.goal();
+                    return Optional.of(new Goal(goal.getName(), goal.getPriority(), new HashMap<>(goal.getDesiredState())));
+                }
+            }
         }
+        return Optional.empty();
+    }
+
+    /**
+     * Monta o índice a partir dos mapeamentos carregados, preservando a ordem do arquivo.
+     */
+    public void compile(List<AlertMapping> mappings) {
+        Map<String, Map<List<String>, MatchGroup>> groupsByAlert = new LinkedHashMap<>();
+        List<Map<String, Object>> goalShapes = new ArrayList<>();
+        for (AlertMapping mapping : mappings) {
+            if (mapping == null || mapping.getAlertName() == null) {
+                log.warn("Mapeamento de alerta sem alertName ignorado: {}", mapping);
+                continue;
+            }
+            Map<String, String> matches = mapping.getMatches() == null ? Map.of() : mapping.getMatches();
+            List<String> labelNames = matches.keySet().stream().sorted().toList();
+            String[] requiredValues = labelNames.stream().map(matches::get).toArray(String[]::new);
+            if (Arrays.asList(requiredValues).contains(null)) {
+                log.warn("Mapeamento de '{}' com label sem valor esperado ignorado: {}", mapping.getAlertName(), matches);
+                continue;
+            }
 
-        if (mapping.getMatches() != null && !mapping.getMatches().isEmpty()) {
-            return mapping.getMatches().entrySet().stream()
-                    .allMatch(entry -> entry.getValue().equals(alert.labels().get(entry.getKey())));
+            CompiledMapping compiledMapping = compileMapping(mapping);
+            groupsByAlert.computeIfAbsent(mapping.getAlertName(), name -> new LinkedHashMap<>())
+                    .computeIfAbsent(labelNames, names -> new MatchGroup(names.toArray(String[]::new), new HashMap<>()))
+                    .byValues.computeIfAbsent(MatchGroup.key(requiredValues), key -> new ArrayList<>())
+                    .add(compiledMapping);
+            if (compiledMapping.goal() != null) {
+                goalShapes.add(compiledMapping.goal().getDesiredState());
+            }
         }
 
-        return true;
+        Map<String, List<MatchGroup>> compiled = new HashMap<>();
+        groupsByAlert.forEach((alertName, groups) -> compiled.put(alertName, List.copyOf(groups.values())));
+        this.index = compiled;
+        if (relevance != null) {
+            goalShapes.forEach(relevance::addKnownGoal);
+        }
     }
 
-    private Set<Fact> createFactsFromMapping(AlertMapping mapping, AlertmanagerWebhookPayload.Alert alert) {
-        return mapping.getFacts().stream()
-                .map(factMapping -> {
-                    String resolvedValue = resolveValue(factMapping.getValue(), alert);
-                    Object typedValue = convertToTypedObject(resolvedValue);
-                    return new Fact(factMapping.getName(), typedValue);
-                })
-                .collect(Collectors.toSet());
+    private CompiledMapping compileMapping(AlertMapping mapping) {
+        GoalMapping goal = mapping.getGoal();
+        if (goal != null && (goal.getName() == null || goal.getDesiredState() == null)) {
+            log.warn("Objetivo do mapeamento de '{}' sem nome ou estado desejado ignorado: {}", mapping.getAlertName(), goal);
+            goal = null;
+        }
+        List<FactMapping> facts = mapping.getFacts() == null ? List.of() : mapping.getFacts();
+        String[] names = new String[facts.size()];
+        ValueResolver[] values = new ValueResolver[facts.size()];
+        for (int i = 0; i < facts.size(); i++) {
+            names[i] = facts.get(i).getName();
+            values[i] = compileValue(facts.get(i).getValue());
+        }
+        return new CompiledMapping(names, values, goal);
     }
 
-    private String resolveValue(String valueTemplate, AlertmanagerWebhookPayload.Alert alert) {
+    /**
+     * Literais são tipados uma única vez. Um template {@code {{ .CommonLabels.x }}}
+     * (ou {@code .labels.x}) vira a leitura do label {@code x}; se o alerta não tiver
+     * o label, o fato recebe o próprio texto do template.
+     */
+    private ValueResolver compileValue(String valueTemplate) {
+        Object literal = FactValueCodec.decode(valueTemplate);
         if (valueTemplate == null || !valueTemplate.contains("{{")) {
-            return valueTemplate;
+            return labels -> literal;
         }
 
         Matcher matcher = TEMPLATE_PATTERN.matcher(valueTemplate);
         if (matcher.find()) {
-            String keyPath = matcher.group(1);
-            String[] keys = keyPath.split("\\.");
-            if (keys.length == 2) {
-                Map<String, String> sourceMap = getSourceMap(keys[0], alert);
-                if (sourceMap != null) {
-                    String resolved = sourceMap.get(keys[1]);
-                    return resolved != null ? resolved : valueTemplate;
-                }
+            String[] keys = matcher.group(1).split("\\.");
+            if (keys.length == 2 && isLabelSource(keys[0])) {
+                String labelName = keys[1];
+                return labels -> {
+                    String resolved = labels.get(labelName);
+                    return resolved != null ? FactValueCodec.decode(resolved) : literal;
+                };
             }
         }
-        return valueTemplate;
+        log.warn("Template de valor não suportado, usado como literal: {}", valueTemplate);
+        return labels -> literal;
+    }
+
+    private boolean isLabelSource(String sourceName) {
+        return "CommonLabels".equals(sourceName) || "labels".equals(sourceName);
+    }
+
+    @FunctionalInterface
+    private interface ValueResolver {
+        Object resolve(Map<String, String> labels);
     }
 
-    private Map<String, String> getSourceMap(String sourceName, AlertmanagerWebhookPayload.Alert alert) {
-        if ("CommonLabels".equals(sourceName) || "labels".equals(sourceName)) {
-            return alert.labels();
+    private record CompiledMapping(String[] factNames, ValueResolver[] values, GoalMapping goal) {
+
+        void addFactsTo(Set<Fact> facts, Map<String, String> labels) {
+            for (int i = 0; i < factNames.length; i++) {
+                facts.add(new Fact(factNames[i], values[i].resolve(labels)));
+            }
         }
-        return null;
     }
 
-    private Object convertToTypedObject(String value) {
-        if (value == null) return null;
-        if (value.equalsIgnoreCase("true")) return true;
-        if (value.equalsIgnoreCase("false")) return false;
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            // Not an integer, return as string
-            return value;
+    /**
+     * Mapeamentos de um alertname que exigem os mesmos labels, indexados pelos valores exigidos.
+     */
+    private record MatchGroup(String[] labelNames, Map<Object, List<CompiledMapping>> byValues) {
+
+        List<CompiledMapping> lookup(Map<String, String> labels) {
+            if (labelNames.length == 1) {
+                String value = labels.get(labelNames[0]);
+                return value == null ? List.of() : byValues.getOrDefault(value, List.of());
+            }
+            String[] values = new String[labelNames.length];
+            for (int i = 0; i < labelNames.length; i++) {
+                values[i] = labels.get(labelNames[i]);
+                if (values[i] == null) {
+                    return List.of();
+                }
+            }
+            return byValues.getOrDefault(key(values), List.of());
+        }
+
+        // Com um único label a chave é o próprio valor, sem alocar uma lista
+        static Object key(String[] values) {
+            return values.length == 1 ? values[0] : List.of(values);
         }
     }
 }
@@ -0,0 +1,243 @@
+package br.com.edsonuso.aoeplanner.infrastructure.snapshot;
+
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogFiles;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot binário dos catálogos (ações e mapeamentos de alertas), para o boot não
+ * depender do tamanho deles.
+ *
+ * O arquivo é mapeado em memória ({@link FileChannel#map}) e só o diretório das
+ * seções é lido na abertura. O conteúdo de cada seção (CBOR) é decodificado no
+ * primeiro uso do catálogo e conferido pelo seu CRC32C nessa hora. Uma seção só é
+ * usada se foi gerada do mesmo padrão de arquivos e, com
+ * {@code planner.snapshot.verify-sources}, se a impressão dos arquivos (nome,
+ * tamanho e data) não mudou; caso contrário, ou com o checksum errado, o catálogo
+ * volta a ser lido dos YAML.
+ *
+ * Cada carga bem-sucedida dos YAML regrava o arquivo (na primeira execução, depois
+ * de uma mudança e a cada recarga). A troca é atômica: quem já mapeou o arquivo
+ * anterior continua lendo a versão dele.
+ *
+ * Formato: {@code MAGIC, FORMAT, número de seções}, uma entrada de diretório por
+ * seção (nome, padrão, impressão, versão, CRC32C, início e tamanho), o CRC32C do
+ * diretório e, em seguida, o conteúdo das seções.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshot {
+
+    static final int MAGIC = 0x414F4553; // "AOES"
+    static final int FORMAT = 1;
+
+    private final boolean enabled;
+    private final Path path;
+    private final boolean verifySources;
+    private final ObjectMapper cbor = new CBORMapper();
+    // Seções do arquivo aberto mais as gravadas depois; o conteúdo é fatia do arquivo mapeado
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+    private boolean opened;
+
+    @Autowired
+    public CatalogSnapshot(@Value("${planner.snapshot.enabled:true}") boolean enabled,
+                           @Value("${planner.snapshot.path:}") String path,
+                           @Value("${planner.snapshot.verify-sources:true}") boolean verifySources) {
+        this.enabled = enabled && path != null && !path.isBlank();
+        this.path = this.enabled ? Path.of(path) : null;
+        this.verifySources = verifySources;
+    }
+
+    public static CatalogSnapshot disabled() {
+        return new CatalogSnapshot(false, null, true);
+    }
+
+    /**
+     * Seção do catálogo, se o snapshot tem uma gerada dos mesmos arquivos.
+     */
+    public synchronized Optional<Section> find(String name, String pattern) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        open();
+        Section section = sections.get(name);
+        if (section == null || !section.pattern().equals(pattern)) {
+            return Optional.empty();
+        }
+        if (verifySources) {
+            try {
+                if (!CatalogFiles.fingerprint(pattern).equals(section.fingerprint())) {
+                    log.info("Arquivos do catálogo '{}' mudaram desde o snapshot; lendo os YAML.", name);
+                    return Optional.empty();
+                }
+            } catch (IOException e) {
+                log.warn("Não foi possível conferir os arquivos do catálogo '{}': {}", name, e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return Optional.of(section);
+    }
+
+    /**
+     * Decodifica o conteúdo da seção; falha se o checksum não confere.
+     */
+    public <T> T decode(Section section, TypeReference<T> type) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(section.content().duplicate());
+        if (crc.getValue() != section.checksum()) {
+            throw new IOException("checksum da seção '" + section.name() + "' não confere");
+        }
+        return cbor.readValue(new ByteBufferBackedInputStream(section.content().duplicate()), type);
+    }
+
+    /**
+     * Guarda a versão recém-lida dos YAML de um catálogo e regrava o arquivo.
+     */
+    public synchronized void store(String name, String pattern, CatalogFiles files, Object content) {
+        if (!enabled) {
+            return;
+        }
+        open();
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(cbor.writeValueAsBytes(content)).asReadOnlyBuffer();
+            CRC32C crc = new CRC32C();
+            crc.update(bytes.duplicate());
+            sections.put(name, new Section(name, pattern, files.fingerprint(), files.version(), crc.getValue(), bytes));
+            write();
+            log.info("Snapshot do catálogo '{}' (versão {}) gravado em {}.", name, files.version(), path);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o snapshot de catálogos em {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        // O mapeamento continua válido depois de fechar o canal
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            sections.putAll(parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+            log.info("Snapshot de catálogos {} mapeado com {} seção(ões).", path, sections.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot de catálogos {} inválido ({}); os catálogos serão lidos dos YAML.", path, e.getMessage());
+            sections.clear();
+        }
+    }
+
+    static Map<String, Section> parse(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IllegalArgumentException("formato desconhecido");
+        }
+        int count = buffer.getInt();
+        String[] names = new String[count];
+        String[][] texts = new String[count][];
+        long[] checksums = new long[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = readString(buffer);
+            texts[i] = new String[]{readString(buffer), readString(buffer), readString(buffer)};
+            checksums[i] = buffer.getLong();
+            offsets[i] = buffer.getInt();
+            lengths[i] = buffer.getInt();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().flip());
+        if (buffer.getLong() != crc.getValue()) {
+            throw new IllegalArgumentException("checksum do diretório não confere");
+        }
+
+        int base = buffer.position();
+        Map<String, Section> sections = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (offsets[i] < 0 || lengths[i] < 0 || (long) base + offsets[i] + lengths[i] > buffer.limit()) {
+                throw new IllegalArgumentException("seção '" + names[i] + "' fora do arquivo");
+            }
+            ByteBuffer content = buffer.slice(base + offsets[i], lengths[i]).asReadOnlyBuffer();
+            sections.put(names[i], new Section(names[i], texts[i][0], texts[i][1], texts[i][2], checksums[i], content));
+        }
+        return sections;
+    }
+
+    private void write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeInt(sections.size());
+        int offset = 0;
+        for (Section section : sections.values()) {
+            writeString(out, section.name());
+            writeString(out, section.pattern());
+            writeString(out, section.fingerprint());
+            writeString(out, section.version());
+            out.writeLong(section.checksum());
+            out.writeInt(offset);
+            out.writeInt(section.content().remaining());
+            offset += section.content().remaining();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        for (Section section : sections.values()) {
+            ByteBuffer content = section.content().duplicate();
+            byte[] chunk = new byte[content.remaining()];
+            content.get(chunk);
+            out.write(chunk);
+        }
+        out.flush();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("texto fora do arquivo");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Uma seção do snapshot: o catálogo de um padrão de arquivos em uma versão.
+     */
+    public record Section(String name, String pattern, String fingerprint, String version, long checksum,
+                          ByteBuffer content) {
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.edsonuso.aoeplanner.infrastructure.snapshot;
+
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogFiles;
+import br.com.edsonuso.aoeplanner.infrastructure.repository.YamlActionRepository;
+import br.com.edsonuso.aoeplanner.infrastructure.service.DeclarativeAlertMapper;
+
+import java.io.IOException;
+
+/**
+ * Gera o snapshot de catálogos no build, sem subir o contexto do Spring.
+ *
+ * Uso: {@code CatalogSnapshotTool <arquivo> <padrão das ações> <padrão dos mapeamentos>},
+ * com os mesmos padrões de {@code planner.actions.path} e {@code planner.alert-mappings.path}
+ * (o snapshot só é usado para o padrão com que foi gerado).
+ */
+public final class CatalogSnapshotTool {
+
+    private CatalogSnapshotTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Uso: CatalogSnapshotTool <arquivo> <padrão das ações> <padrão dos mapeamentos>");
+            System.exit(2);
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(true, args[0], false);
+
+        CatalogFiles actions = CatalogFiles.read(args[1]);
+        snapshot.store(YamlActionRepository.CATALOG_NAME, args[1], actions,
+                YamlActionRepository.parse(actions).actions());
+
+        CatalogFiles mappings = CatalogFiles.read(args[2]);
+        snapshot.store(DeclarativeAlertMapper.CATALOG_NAME, args[2], mappings,
+                DeclarativeAlertMapper.parse(mappings));
+
+        // store só registra a falha no log; no build ela tem de interromper a imagem
+        CatalogSnapshot written = new CatalogSnapshot(true, args[0], false);
+        if (written.find(YamlActionRepository.CATALOG_NAME, args[1]).isEmpty()
+                || written.find(DeclarativeAlertMapper.CATALOG_NAME, args[2]).isEmpty()) {
+            throw new IllegalStateException("Snapshot de catálogos não foi gravado em " + args[0]);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.edsonuso.aoeplanner.infrastructure.warmup;
+
+import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.core.search.Heuristic;
+import br.com.edsonuso.aoeplanner.infrastructure.service.DeclarativeAlertMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aquece o planner antes de a aplicação aceitar tráfego.
+ *
+ * O Spring Boot só muda o readiness para {@code ACCEPTING_TRAFFIC} depois dos
+ * {@link ApplicationRunner}s, então o primeiro alerta roteado para a réplica não
+ * paga a carga de classes nem o A* interpretado. O aquecimento:
+ * <ul>
+ *     <li>decodifica o catálogo do snapshot e compila no planner em uso os domínios dos
+ *     recortes dele para os objetivos conhecidos, que são os que as buscas usam;</li>
+ *     <li>monta o índice dos mapeamentos de alerta;</li>
+ *     <li>roda {@link WarmupWorkload} em um planner e um mapeador próprios, sem
+ *     alterar as métricas nem o estado de replanejamento do planner em uso.</li>
+ * </ul>
+ * Uma falha no aquecimento só é registrada no log: a réplica fica pronta mesmo assim.
+ *
+ * Publica {@code planner.startup.warmup} (duração do aquecimento) e
+ * {@code planner.startup.ready} (tempo desde o início da JVM até a aplicação ficar pronta).
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    private final ActionRepositoryPort actionRepository;
+    private final GoapPlanner planner;
+    private final RelevanceAnalyzer relevance;
+    private final DeclarativeAlertMapper alertMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int rounds;
+    private final Duration maxDuration;
+    private final Heuristic heuristic;
+
+    private volatile long warmupMillis;
+    private volatile long readyMillis;
+
+    @Autowired
+    public StartupWarmup(ActionRepositoryPort actionRepository,
+                         GoapPlanner planner,
+                         RelevanceAnalyzer relevance,
+                         DeclarativeAlertMapper alertMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${planner.warmup.enabled:true}") boolean enabled,
+                         @Value("${planner.warmup.rounds:200}") int rounds,
+                         @Value("${planner.warmup.max-duration:PT10S}") Duration maxDuration,
+                         @Value("${planner.search.heuristic:H_MAX}") Heuristic heuristic) {
+        this.actionRepository = actionRepository;
+        this.planner = planner;
+        this.relevance = relevance;
+        this.alertMapper = alertMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.rounds = rounds;
+        this.maxDuration = maxDuration;
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Compilar os mapeamentos registra os objetivos de alerta antes de recortar o catálogo
+            alertMapper.prepare();
+            ActionCatalog catalog = actionRepository.currentCatalog();
+            if (catalog.version() == null) {
+                // Sem versão o caso de uso busca no catálogo inteiro
+                planner.prepare(catalog.actions());
+            } else {
+                relevance.prepare(catalog.version(), catalog.actions())
+                        .forEach(problem -> planner.prepare(problem.actions()));
+            }
+
+            WarmupWorkload workload = new WarmupWorkload();
+            GoapPlanner warmupPlanner = new GoapPlanner();
+            warmupPlanner.setHeuristic(heuristic);
+            try {
+                int completed = workload.run(warmupPlanner, workload.alertMapper(new SimpleMeterRegistry()), rounds, maxDuration);
+                log.info("Aquecimento do planner: {} rodada(s) em {} ms.", completed,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                warmupPlanner.shutdown();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha no aquecimento do planner; a aplicação segue sem ele.", e);
+        }
+        warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        TimeGauge.builder("planner.startup.warmup", this, TimeUnit.MILLISECONDS, warmup -> warmup.warmupMillis)
+                .description("Duração do aquecimento antes do readiness")
+                .register(meterRegistry);
+    }
+
+    /**
+     * O readiness muda logo depois deste evento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ready() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("planner.startup.ready", this, TimeUnit.MILLISECONDS, warmup -> warmup.readyMillis)
+                .description("Tempo desde o início da JVM até a aplicação ficar pronta")
+                .register(meterRegistry);
+        log.info("Planner pronto {} ms após o início da JVM (aquecimento: {} ms).", readyMillis, warmupMillis);
+    }
+}
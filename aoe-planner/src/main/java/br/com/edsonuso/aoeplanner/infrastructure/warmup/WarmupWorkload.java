@@ -0,0 +1,131 @@
+package br.com.edsonuso.aoeplanner.infrastructure.warmup;
+
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.infrastructure.service.DeclarativeAlertMapper;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.AlertMapping;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactMapping;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.SearchMode;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Problemas sintéticos do aquecimento do planner.
+ *
+ * Cobrem os caminhos quentes do planejamento (compilação do objetivo, A* progressivo,
+ * regressivo e anytime, prova de beco sem saída) e do mapeamento de alertas (alerta
+ * que casa, com template, e alerta sem mapeamento). O domínio segue o formato dos
+ * catálogos reais: uma cadeia de remediação entre reparos de serviços, alguns deles
+ * degradados. Nada aqui usa o catálogo em produção: o aquecimento roda em instâncias
+ * próprias do planner e do mapeador, e o código compilado pelo JIT é o mesmo.
+ */
+public final class WarmupWorkload {
+
+    private static final String STAGE_FACT = "warmup_stage";
+    private static final String LOCK_FACT = "warmup_freeze";
+    private static final int CHAIN_LENGTH = 8;
+    private static final int SERVICES = 24;
+
+    private final List<Action> actions = new ArrayList<>();
+    private final Set<Fact> facts = new HashSet<>();
+    private final List<Goal> solvableGoals = new ArrayList<>();
+    private final Goal deadEndGoal;
+    private final List<AlertMapping> mappings = new ArrayList<>();
+    private final List<AlertmanagerWebhookPayload.Alert> alerts = new ArrayList<>();
+
+    public WarmupWorkload() {
+        for (int stage = 0; stage < CHAIN_LENGTH; stage++) {
+            actions.add(new Action("WarmupRemediate_" + stage,
+                    Map.of(STAGE_FACT, stage), Map.of(STAGE_FACT, stage + 1), 1 + stage % 3, null));
+        }
+        // Atalho que depende de um fato que nenhuma ação produz
+        actions.add(new Action("WarmupOverride",
+                Map.of(LOCK_FACT, "lifted"), Map.of(STAGE_FACT, CHAIN_LENGTH + 1), 1, null));
+        for (int i = 0; i < SERVICES; i++) {
+            String degraded = "warmup_svc_" + i + "_degraded";
+            actions.add(new Action("WarmupRepair_" + i, Map.of(degraded, true), Map.of(degraded, false), 2 + i % 5, null));
+            facts.add(new Fact(degraded, i % 4 == 0));
+        }
+        facts.add(new Fact(STAGE_FACT, 0));
+        facts.add(new Fact(LOCK_FACT, "active"));
+
+        Map<String, Object> remediated = Map.of(STAGE_FACT, CHAIN_LENGTH, "warmup_svc_0_degraded", false);
+        for (SearchMode mode : List.of(SearchMode.FORWARD, SearchMode.REGRESSION, SearchMode.ANYTIME)) {
+            solvableGoals.add(new Goal("warmup-" + mode.name().toLowerCase(Locale.ROOT), 1, remediated, mode));
+        }
+        deadEndGoal = new Goal("warmup-dead-end", 1, Map.of(STAGE_FACT, CHAIN_LENGTH + 1), SearchMode.FORWARD);
+
+        for (int i = 0; i < SERVICES; i++) {
+            FactMapping degraded = new FactMapping();
+            degraded.setName("warmup_svc_" + i + "_degraded");
+            degraded.setValue("true");
+            FactMapping instance = new FactMapping();
+            instance.setName("warmup_last_instance");
+            instance.setValue("{{ .CommonLabels.instance }}");
+            AlertMapping mapping = new AlertMapping();
+            mapping.setAlertName("WarmupAlert_" + i % 4);
+            mapping.setMatches(i % 2 == 0
+                    ? Map.of("service", "svc-" + i, "severity", "critical")
+                    : Map.of("service", "svc-" + i));
+            mapping.setFacts(List.of(degraded, instance));
+            mappings.add(mapping);
+        }
+        alerts.add(alert("WarmupAlert_0", "svc-0"));
+        alerts.add(alert("WarmupAlert_1", "svc-1"));
+        alerts.add(alert("WarmupAlert_2", "svc-unknown"));
+        alerts.add(alert("WarmupUnmapped", "svc-0"));
+    }
+
+    /**
+     * Mapeador com os mapeamentos sintéticos, isolado das métricas da aplicação.
+     */
+    public DeclarativeAlertMapper alertMapper(MeterRegistry registry) {
+        DeclarativeAlertMapper mapper = new DeclarativeAlertMapper(registry);
+        mapper.compile(mappings);
+        return mapper;
+    }
+
+    /**
+     * Executa até {@code rounds} rodadas ou até o prazo, o que vier antes, e devolve
+     * quantas rodadas completou. A primeira rodada confere os resultados: um domínio
+     * sintético quebrado aqueceria os caminhos errados sem ninguém perceber.
+     */
+    public int run(GoapPlanner planner, DeclarativeAlertMapper mapper, int rounds, Duration maxDuration) {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        int completed = 0;
+        while (completed < rounds && System.nanoTime() - deadline < 0) {
+            for (Goal goal : solvableGoals) {
+                Optional<Plan> plan = planner.findPlan(facts, actions, goal);
+                if (completed == 0 && plan.isEmpty()) {
+                    throw new IllegalStateException("Objetivo de aquecimento '" + goal.getName() + "' sem plano.");
+                }
+            }
+            if (planner.findPlan(facts, actions, deadEndGoal).isPresent() && completed == 0) {
+                throw new IllegalStateException("Objetivo de aquecimento '" + deadEndGoal.getName() + "' com plano.");
+            }
+            for (AlertmanagerWebhookPayload.Alert alert : alerts) {
+                mapper.map(alert);
+            }
+            completed++;
+        }
+        return completed;
+    }
+
+    private static AlertmanagerWebhookPayload.Alert alert(String alertName, String service) {
+        return new AlertmanagerWebhookPayload.Alert(
+                Map.of("alertname", alertName, "service", service, "severity", "critical", "instance", "warmup:9090"),
+                "firing");
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.edsonuso.aoeplanner.model;
+
+import java.util.List;
+
+/**
+ * Ações de uma versão do catálogo. Versão e ações andam juntas para que quem lê o
+ * catálogo durante uma recarga nunca misture as ações de uma versão com a de outra.
+ */
+public record ActionCatalog(String version, List<Action> actions) {
+}
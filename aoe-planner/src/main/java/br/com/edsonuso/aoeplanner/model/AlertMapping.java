@@ -12,4 +12,6 @@ public class AlertMapping {
     private String alertName;
     private Map<String, String> matches;
     private List<FactMapping> facts;
+    // Opcional: objetivo a planejar depois de gravar os fatos
+    private GoalMapping goal;
 }
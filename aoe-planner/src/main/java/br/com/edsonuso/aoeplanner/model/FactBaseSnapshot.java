@@ -0,0 +1,11 @@
+package br.com.edsonuso.aoeplanner.model;
+
+import java.util.Set;
+
+/**
+ * A base de fatos inteira em uma versão. Fatos e versão são lidos juntos, então
+ * nenhuma escrita fica no meio: quem compara versões depois (para pedir só as
+ * mudanças ou para saber se um plano ficou velho) parte exatamente destes fatos.
+ */
+public record FactBaseSnapshot(long version, Set<Fact> facts) {
+}
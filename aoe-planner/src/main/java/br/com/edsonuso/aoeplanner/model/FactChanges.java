@@ -0,0 +1,23 @@
+package br.com.edsonuso.aoeplanner.model;
+
+import java.util.List;
+
+/**
+ * O que mudou na base de fatos entre duas versões: o último valor de cada fato
+ * alterado depois de {@code since} até {@code version}. Um fato com valor nulo saiu
+ * da base, a mesma convenção de {@code updateFactBase}.
+ *
+ * Quando {@code complete} é falso o log de mudanças já não cobre {@code since}
+ * (versão antiga demais, ou de antes de a base ser recriada) e quem pediu deve
+ * reler um snapshot inteiro.
+ */
+public record FactChanges(long since, long version, boolean complete, List<Fact> facts) {
+
+    public static FactChanges none(long version) {
+        return new FactChanges(version, version, true, List.of());
+    }
+
+    public static FactChanges resync(long since, long version) {
+        return new FactChanges(since, version, false, List.of());
+    }
+}
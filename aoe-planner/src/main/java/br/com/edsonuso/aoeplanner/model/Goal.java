@@ -20,4 +20,13 @@ public class Goal {
     private String name;
     private int priority;
     private Map<String, Object> desiredState;
+
+    /**
+     * Direção da busca para este objetivo; nulo usa o padrão do planejador.
+     */
+    private SearchMode searchMode;
+
+    public Goal(String name, int priority, Map<String, Object> desiredState) {
+        this(name, priority, desiredState, null);
+    }
 }
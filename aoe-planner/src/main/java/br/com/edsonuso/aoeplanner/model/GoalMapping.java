@@ -0,0 +1,17 @@
+package br.com.edsonuso.aoeplanner.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Objetivo planejado quando um alerta casa com o mapeamento que o declara.
+ */
+@Data
+@NoArgsConstructor
+public class GoalMapping {
+    private String name;
+    private int priority;
+    private Map<String, Object> desiredState;
+}
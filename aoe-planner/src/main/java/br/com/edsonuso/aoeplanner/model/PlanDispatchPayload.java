@@ -2,5 +2,14 @@ package br.com.edsonuso.aoeplanner.model;
 
 import java.io.Serializable;
 
-public record PlanDispatchPayload(Goal targetGoal, Plan plan) implements Serializable {
+/**
+ * Plano publicado para o executor. {@code catalogVersion} é a versão do catálogo de
+ * ações usada no planejamento (pode ser nula); o formato por referência depende dela
+ * para o executor resolver as ações.
+ */
+public record PlanDispatchPayload(Goal targetGoal, Plan plan, String catalogVersion) implements Serializable {
+
+    public PlanDispatchPayload(Goal targetGoal, Plan plan) {
+        this(targetGoal, plan, null);
+    }
 }
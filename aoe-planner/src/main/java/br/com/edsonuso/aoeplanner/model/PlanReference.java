@@ -0,0 +1,28 @@
+package br.com.edsonuso.aoeplanner.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato compacto do plano publicado: as ações vão só pelo nome, que é a
+ * identidade estável delas no catálogo, junto da versão do catálogo. O executor
+ * resolve os nomes no catálogo que busca uma vez em {@code GET /api/actions/catalog}
+ * e guarda por versão.
+ */
+public record PlanReference(TargetGoal targetGoal, String catalogVersion, List<String> steps, int totalCost) {
+
+    public static PlanReference of(PlanDispatchPayload payload) {
+        Goal goal = payload.targetGoal();
+        return new PlanReference(
+                new TargetGoal(goal.getName(), goal.getDesiredState()),
+                payload.catalogVersion(),
+                payload.plan().steps().stream().map(Action::getName).toList(),
+                payload.plan().totalCost());
+    }
+
+    /**
+     * Só o que o executor usa do objetivo: o nome e o estado a conferir depois do plano.
+     */
+    public record TargetGoal(String name, Map<String, Object> desiredState) {
+    }
+}
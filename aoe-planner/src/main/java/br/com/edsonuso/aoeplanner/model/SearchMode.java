@@ -0,0 +1,20 @@
+package br.com.edsonuso.aoeplanner.model;
+
+/**
+ * Direção da busca do planejador.
+ *
+ * FORWARD parte dos fatos atuais e aplica ações até satisfazer o objetivo.
+ * REGRESSION parte do objetivo e regride pelas ações que o produzem até chegar
+ * a um subobjetivo já satisfeito pelos fatos atuais. AUTO escolhe a regressão
+ * quando o objetivo toca poucas variáveis do domínio. PORTFOLIO roda várias
+ * variantes em paralelo e fica com o primeiro plano encontrado. ANYTIME acha um
+ * primeiro plano rápido e o melhora enquanto o prazo do objetivo (pela prioridade)
+ * permitir.
+ */
+public enum SearchMode {
+    FORWARD,
+    REGRESSION,
+    AUTO,
+    PORTFOLIO,
+    ANYTIME
+}
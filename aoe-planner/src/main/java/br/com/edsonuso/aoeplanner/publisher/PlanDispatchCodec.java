@@ -0,0 +1,98 @@
+package br.com.edsonuso.aoeplanner.publisher;
+
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
+import br.com.edsonuso.aoeplanner.model.PlanReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formato das mensagens de plano publicadas no RabbitMQ.
+ *
+ * {@code FULL} é o formato original: o {@link PlanDispatchPayload} inteiro em JSON,
+ * com {@code application/json}. {@code REFERENCE} publica um {@link PlanReference}
+ * (ações pelo nome mais a versão do catálogo) em JSON ou CBOR, e comprime com gzip
+ * os corpos acima do limite. O consumidor escolhe o decodificador pelo content-type
+ * e pelo content-encoding da mensagem, então consumidores que só conhecem o JSON
+ * completo continuam funcionando enquanto o formato for {@code FULL}.
+ */
+@Component
+public class PlanDispatchCodec {
+
+    public static final String REFERENCE_JSON = "application/vnd.aoe.plan-ref+json";
+    public static final String REFERENCE_CBOR = "application/vnd.aoe.plan-ref+cbor";
+    public static final String GZIP = "gzip";
+
+    public enum Format { FULL, REFERENCE }
+
+    public enum Encoding { JSON, CBOR }
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final Format format;
+    private final Encoding encoding;
+    private final int compressionThreshold;
+
+    public PlanDispatchCodec(ObjectMapper jsonMapper,
+                             @Value("${planner.dispatch.format:FULL}") Format format,
+                             @Value("${planner.dispatch.encoding:JSON}") Encoding encoding,
+                             @Value("${planner.dispatch.compression-threshold:1024}") int compressionThreshold) {
+        this.jsonMapper = jsonMapper;
+        this.format = format;
+        this.encoding = encoding;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Verdadeiro se o plano sai por referência. Sem versão de catálogo o executor não
+     * teria como resolver os nomes, então o plano sai completo.
+     */
+    public boolean byReference(PlanDispatchPayload payload) {
+        return format == Format.REFERENCE && payload.catalogVersion() != null;
+    }
+
+    /**
+     * Mensagem do plano por referência, com content-type e, se comprimida, content-encoding.
+     */
+    public Message encode(PlanDispatchPayload payload) {
+        PlanReference reference = PlanReference.of(payload);
+        MessageProperties properties = new MessageProperties();
+        byte[] body;
+        try {
+            if (encoding == Encoding.CBOR) {
+                body = cborMapper.writeValueAsBytes(reference);
+                properties.setContentType(REFERENCE_CBOR);
+            } else {
+                body = jsonMapper.writeValueAsBytes(reference);
+                properties.setContentType(REFERENCE_JSON);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o plano do objetivo '" + reference.targetGoal().name() + "'.", e);
+        }
+        if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+            body = gzip(body);
+            properties.setContentEncoding(GZIP);
+        }
+        properties.setContentLength(body.length);
+        return new Message(body, properties);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -3,25 +3,341 @@ package br.com.edsonuso.aoeplanner.publisher;
 import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
 import br.com.edsonuso.aoeplanner.infrastructure.config.RabbitMQConfig;
 import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
-import br.com.edsonuso.aoeplanner.model.Plan;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica os planos no RabbitMQ de forma assíncrona, com confirmação do broker.
+ *
+ * {@link #publishAsync} só enfileira o plano. Uma thread de despacho envia os planos
+ * prontos em lotes, no mesmo canal, e o future conclui quando o broker confirma a
+ * mensagem (publisher confirm) sem devolvê-la (mandatory). Nack, devolução ou
+ * confirmação fora do prazo levam a uma nova tentativa com espera crescente, até o
+ * limite de tentativas.
+ *
+ * Os planos de um mesmo objetivo saem em ordem: o próximo só é enviado depois que o
+ * anterior foi confirmado ou desistido. Objetivos diferentes seguem em paralelo, até
+ * o limite de mensagens sem confirmação. A fila é limitada; cheia, o plano é
+ * recusado com o future já falho.
+ */
 @Component
 @Primary
-@RequiredArgsConstructor
 @Slf4j
 public class RabbitMQPlanPublisher implements PlanPublisher {
 
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final PlanDispatchCodec codec;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration confirmTimeout;
+    private final boolean confirms;
+
+    private final Semaphore inFlight;
+    private final AtomicLong sequence = new AtomicLong();
+    // Cabeças das filas por objetivo prontas para envio, inclusive as que voltam para nova tentativa
+    private final LinkedBlockingQueue<Dispatch> ready = new LinkedBlockingQueue<>();
+    // Planos prontos, em envio ou com nova tentativa agendada: zero quando o despacho não tem o que fazer
+    private final AtomicInteger undispatched = new AtomicInteger();
+    // Planos por objetivo, em ordem; só a cabeça de cada fila está em envio. Protegido por lanes
+    private final Map<String, ArrayDeque<Dispatch>> lanes = new HashMap<>();
+    private int queued;
+    private boolean accepting = true;
+    private volatile boolean stopped;
+    private Thread dispatcher;
+
+    @Autowired
+    public RabbitMQPlanPublisher(RabbitTemplate rabbitTemplate,
+                                 MeterRegistry meterRegistry,
+                                 PlanDispatchCodec codec,
+                                 @Value("${planner.publish.max-in-flight:256}") int maxInFlight,
+                                 @Value("${planner.publish.batch-size:32}") int batchSize,
+                                 @Value("${planner.publish.queue-capacity:1024}") int queueCapacity,
+                                 @Value("${planner.publish.max-attempts:5}") int maxAttempts,
+                                 @Value("${planner.publish.retry-backoff:PT0.2S}") Duration retryBackoff,
+                                 @Value("${planner.publish.confirm-timeout:PT10S}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.codec = codec;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        // Um lote precisa caber inteiro na janela, ou o despacho esperaria para sempre
+        this.batchSize = Math.max(1, Math.min(batchSize, this.maxInFlight));
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.confirmTimeout = confirmTimeout;
+        this.confirms = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+        this.inFlight = new Semaphore(this.maxInFlight);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!confirms) {
+            // Sem confirmação o envio bem-sucedido é tratado como entregue
+            log.warn("Publisher confirms desligados (spring.rabbitmq.publisher-confirm-type); planos publicados sem garantia de entrega.");
+        }
+        Gauge.builder("planner.publish.queued", this, RabbitMQPlanPublisher::queued)
+                .description("Planos aguardando envio ou confirmação")
+                .register(meterRegistry);
+        Gauge.builder("planner.publish.in.flight", inFlight, window -> maxInFlight - window.availablePermits())
+                .description("Planos enviados aguardando confirmação do broker")
+                .register(meterRegistry);
+        dispatcher = Thread.ofPlatform().name("plan-dispatcher").daemon(true).start(this::dispatchLoop);
+    }
 
     @Override
     public void publish(PlanDispatchPayload payload) {
+        // Não espera o broker: falhas definitivas ficam no log e em planner.publish{outcome="error"}
+        publishAsync(payload);
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(PlanDispatchPayload payload) {
+        String goal = String.valueOf(payload.targetGoal().getName());
         log.info("Publicando plano gerado para a exchange '{}' com a routing key '{}'", RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY);
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, payload);
-        log.info("Plano publicado com sucesso.");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Message message;
+        try {
+            message = toMessage(payload);
+        } catch (RuntimeException e) {
+            sample.stop(publishTimer(goal, "error"));
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Dispatch dispatch = new Dispatch(sequence.incrementAndGet(), goal, message, sample);
+        synchronized (lanes) {
+            if (!accepting || queued >= queueCapacity) {
+                log.warn("Fila de publicação cheia ou encerrada ({} plano(s)); plano do objetivo '{}' recusado.", queued, goal);
+                sample.stop(publishTimer(goal, "rejected"));
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Fila de publicação de planos cheia ou encerrada."));
+            }
+            queued++;
+            ArrayDeque<Dispatch> lane = lanes.computeIfAbsent(goal, key -> new ArrayDeque<>());
+            lane.add(dispatch);
+            if (lane.size() == 1) {
+                markReady(dispatch);
+            }
+        }
+        return dispatch.result.copy();
+    }
+
+    private Message toMessage(PlanDispatchPayload payload) {
+        if (codec.byReference(payload)) {
+            return codec.encode(payload);
+        }
+        return rabbitTemplate.getMessageConverter().toMessage(payload, new MessageProperties());
+    }
+
+    private void dispatchLoop() {
+        List<Dispatch> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(ready.take());
+                ready.drainTo(batch, batchSize - 1);
+                inFlight.acquire(batch.size());
+                send(batch);
+                undispatched.addAndGet(-batch.size());
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Encerramento: o que ficou nas filas é falhado pelo shutdown
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Envia o lote em um único canal. Cada mensagem leva uma correlação própria por
+     * tentativa; as que não chegaram a sair voltam para nova tentativa.
+     */
+    private void send(List<Dispatch> batch) {
+        batch.forEach(dispatch -> dispatch.attempts++);
+        int[] sent = {0};
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Dispatch dispatch : batch) {
+                    CorrelationData correlation = new CorrelationData(dispatch.id + "." + dispatch.attempts);
+                    operations.send(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, dispatch.message, correlation);
+                    sent[0]++;
+                    awaitConfirm(dispatch, correlation);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            for (int i = sent[0]; i < batch.size(); i++) {
+                inFlight.release();
+                retryOrFail(batch.get(i), e.getMessage());
+            }
+        }
+    }
+
+    private void awaitConfirm(Dispatch dispatch, CorrelationData correlation) {
+        if (!confirms) {
+            inFlight.release();
+            finish(dispatch, null);
+            return;
+        }
+        correlation.getFuture()
+                .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    inFlight.release();
+                    if (error == null && confirm.isAck() && correlation.getReturned() == null) {
+                        finish(dispatch, null);
+                    } else if (error != null) {
+                        retryOrFail(dispatch, error instanceof TimeoutException
+                                ? "sem confirmação em " + confirmTimeout : error.getMessage());
+                    } else if (correlation.getReturned() != null) {
+                        retryOrFail(dispatch, "mensagem devolvida pelo broker: " + correlation.getReturned().getReplyText());
+                    } else {
+                        retryOrFail(dispatch, "nack do broker: " + confirm.getReason());
+                    }
+                });
+    }
+
+    private void retryOrFail(Dispatch dispatch, String reason) {
+        if (dispatch.attempts >= maxAttempts || stopped) {
+            log.error("Plano do objetivo '{}' não publicado após {} tentativa(s): {}", dispatch.goal, dispatch.attempts, reason);
+            finish(dispatch, new AmqpException("Plano não confirmado pelo broker: " + reason));
+            return;
+        }
+        long delay = retryBackoff.toMillis() << Math.min(dispatch.attempts - 1, 10);
+        log.warn("Publicação do plano do objetivo '{}' falhou ({}); nova tentativa em {} ms.", dispatch.goal, reason, delay);
+        meterRegistry.counter("planner.publish.retries", "goal", dispatch.goal).increment();
+        undispatched.incrementAndGet();
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> ready.add(dispatch));
+    }
+
+    /**
+     * Conclui o plano e libera o próximo do mesmo objetivo.
+     */
+    private void finish(Dispatch dispatch, Throwable failure) {
+        synchronized (lanes) {
+            ArrayDeque<Dispatch> lane = lanes.get(dispatch.goal);
+            if (lane == null || lane.peek() != dispatch) {
+                // Já falhado pelo shutdown
+                return;
+            }
+            lane.poll();
+            queued--;
+            if (lane.isEmpty()) {
+                lanes.remove(dispatch.goal);
+            } else {
+                markReady(lane.peek());
+            }
+            if (queued == 0) {
+                lanes.notifyAll();
+            }
+        }
+        dispatch.sample.stop(publishTimer(dispatch.goal, failure == null ? "success" : "error"));
+        if (failure == null) {
+            log.info("Plano do objetivo '{}' publicado e confirmado pelo broker.", dispatch.goal);
+            dispatch.result.complete(null);
+        } else {
+            dispatch.result.completeExceptionally(failure);
+        }
+    }
+
+    private void markReady(Dispatch dispatch) {
+        undispatched.incrementAndGet();
+        ready.add(dispatch);
+    }
+
+    /**
+     * Verdadeiro quando nenhum plano espera para sair: os enviados podem estar aguardando
+     * confirmação, e os seguintes de cada objetivo só ficam prontos depois dela.
+     */
+    boolean isDispatchIdle() {
+        return undispatched.get() == 0;
+    }
+
+    private Timer publishTimer(String goal, String outcome) {
+        return meterRegistry.timer("planner.publish", "goal", goal, "outcome", outcome);
+    }
+
+    private int queued() {
+        synchronized (lanes) {
+            return queued;
+        }
+    }
+
+    /**
+     * Para de aceitar planos, espera os pendentes serem confirmados e falha o que sobrar.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        synchronized (lanes) {
+            accepting = false;
+            long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+            long remaining;
+            while (queued > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(lanes, remaining);
+            }
+        }
+        stopped = true;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+
+        List<Dispatch> leftovers;
+        synchronized (lanes) {
+            leftovers = lanes.values().stream().flatMap(Collection::stream).toList();
+            lanes.clear();
+            queued = 0;
+        }
+        if (!leftovers.isEmpty()) {
+            log.warn("Publicador encerrado com {} plano(s) sem confirmação.", leftovers.size());
+        }
+        leftovers.forEach(dispatch -> dispatch.result.completeExceptionally(
+                new AmqpException("Publicador encerrado antes da confirmação do plano.")));
+    }
+
+    private static final class Dispatch {
+        final long id;
+        final String goal;
+        final Message message;
+        final Timer.Sample sample;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        // Incrementado pela thread de despacho e lido na thread da confirmação
+        volatile int attempts;
+
+        Dispatch(long id, String goal, Message message, Timer.Sample sample) {
+            this.id = id;
+            this.goal = goal;
+            this.message = message;
+            this.sample = sample;
+        }
     }
 }
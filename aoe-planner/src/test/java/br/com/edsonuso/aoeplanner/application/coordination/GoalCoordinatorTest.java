@@ -0,0 +1,105 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.com.edsonuso.aoeplanner.support.Await.waitUntil;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GoalCoordinatorTest {
+
+    private final PlanPublisher publisher = mock(PlanPublisher.class);
+    private final DuplicatePlanSuppressor suppressor = new DuplicatePlanSuppressor(publisher, Duration.ofMinutes(1));
+    private final Goal goal = new Goal("restore-web-service-via-alert", 1, Map.of("service_web_healthy", true));
+
+    @Test
+    void whenRequestsArriveDuringASearch_thenTheyAreCoalescedIntoOneFollowUp() throws Exception {
+        // Arrange: a primeira busca fica presa até os outros pedidos chegarem
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        GeneratePlanUseCase slowUseCase = requested -> {
+            if (runs.incrementAndGet() == 1) {
+                started.countDown();
+                await(release);
+            }
+        };
+        GoalCoordinator coordinator = new GoalCoordinator(slowUseCase, suppressor, new PlanningScheduler(1, 16, false), Duration.ZERO);
+
+        // Act
+        coordinator.execute(goal);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            coordinator.execute(new Goal(goal.getName(), 2, goal.getDesiredState()));
+        }
+        release.countDown();
+        waitUntil(coordinator::isIdle);
+        coordinator.shutdown();
+
+        // Assert: uma busca em andamento e uma única rodada com o pedido mais recente
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void whenRequestsArriveInsideDebounceWindow_thenGoalIsPlannedOnce() throws Exception {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch planned = new CountDownLatch(1);
+        GoalCoordinator coordinator = new GoalCoordinator(requested -> {
+            runs.incrementAndGet();
+            planned.countDown();
+        }, suppressor, new PlanningScheduler(1, 16, false), Duration.ofMillis(200));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            coordinator.execute(goal);
+        }
+        assertTrue(planned.await(5, TimeUnit.SECONDS));
+        waitUntil(coordinator::isIdle);
+        coordinator.shutdown();
+
+        // Assert
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void whenSamePlanIsPublishedTwice_thenSecondIsSuppressedUntilReplan() {
+        // Arrange
+        Action restart = new Action("RestartWebService", Map.of("service_web_healthy", false), Map.of("service_web_healthy", true), 15, null);
+        PlanDispatchPayload payload = new PlanDispatchPayload(goal, new Plan(goal, List.of(restart), 15));
+
+        // Act
+        suppressor.publish(payload);
+        suppressor.publish(payload);
+        suppressor.forget(goal);
+        suppressor.publish(payload);
+
+        // Assert
+        verify(publisher, times(2)).publish(any());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.edsonuso.aoeplanner.application.coordination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanningSchedulerTest {
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void whenWorkerIsBusy_thenQueuedGoalsRunByPriority() throws Exception {
+        // Arrange
+        PlanningScheduler scheduler = new PlanningScheduler(1, 16, false);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit(9, "gate", () -> {
+            started.countDown();
+            await(release);
+        }, () -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        scheduler.submit(5, "low", () -> executed.add("low"), () -> { });
+        scheduler.submit(1, "critical", () -> executed.add("critical"), () -> { });
+        scheduler.submit(3, "medium", () -> executed.add("medium"), () -> { });
+        release.countDown();
+        scheduler.shutdown();
+
+        // Assert
+        assertEquals(List.of("critical", "medium", "low"), executed);
+    }
+
+    @Test
+    void whenQueueIsFull_thenOnlyMoreCriticalGoalsAreAcceptedAndTheWorstIsDropped() throws Exception {
+        // Arrange
+        PlanningScheduler scheduler = new PlanningScheduler(1, 1, false);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean dropped = new AtomicBoolean();
+        scheduler.submit(9, "gate", () -> {
+            started.countDown();
+            await(release);
+        }, () -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(5, "low", () -> executed.add("low"), () -> dropped.set(true));
+
+        // Act / Assert
+        assertThrows(PlanningRejectedException.class, () -> scheduler.submit(5, "other-low", () -> { }, () -> { }));
+        scheduler.submit(1, "critical", () -> executed.add("critical"), () -> { });
+        release.countDown();
+        scheduler.shutdown();
+
+        assertTrue(dropped.get(), "O objetivo menos crítico deve ser descartado da fila.");
+        assertEquals(List.of("critical"), executed);
+    }
+
+    @Test
+    void whenCriticalGoalArrives_thenLowPrioritySearchIsPreemptedAndRetried() throws Exception {
+        // Arrange: a busca de baixa prioridade só termina se não for interrompida
+        PlanningScheduler scheduler = new PlanningScheduler(1, 16, true);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit(5, "low", () -> {
+            executed.add("low-start");
+            started.countDown();
+            if (executed.contains("critical")) {
+                executed.add("low-done");
+                return;
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!Thread.currentThread().isInterrupted() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            throw new CancellationException("low");
+        }, () -> { });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        scheduler.submit(1, "critical", () -> executed.add("critical"), () -> { });
+        scheduler.shutdown();
+
+        // Assert
+        assertEquals(List.of("low-start", "critical", "low-start", "low-done"), executed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
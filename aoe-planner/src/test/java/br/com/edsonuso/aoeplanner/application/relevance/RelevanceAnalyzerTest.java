@@ -0,0 +1,68 @@
+package br.com.edsonuso.aoeplanner.application.relevance;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelevanceAnalyzerTest {
+
+    private final RelevanceAnalyzer analyzer = new RelevanceAnalyzer();
+
+    private final Action killBlocker = new Action("KillBlocker", Map.of("port_blocked", true), Map.of("port_blocked", false), 2, null);
+    private final Action restart = new Action("RestartWebService", Map.of("port_blocked", false), Map.of("service_web_healthy", true), 5, null);
+    private final Action stopWeb = new Action("StopWebService", Map.of(), Map.of("service_web_healthy", false), 1, null);
+    private final Action restartDatabase = new Action("RestartDatabase", Map.of("service_db_healthy", false), Map.of("service_db_healthy", true), 5, null);
+    private final List<Action> catalog = List.of(killBlocker, restart, stopWeb, restartDatabase);
+
+    @Test
+    void whenGoalIsAnalyzed_thenOnlyActionsProducingNeededValuesAreKept() {
+        // Act
+        RelevantProblem problem = analyzer.analyze(Map.of("service_web_healthy", true), "v1", catalog);
+
+        // Assert: StopWebService só produz um valor que ninguém precisa, e o banco não toca no objetivo
+        assertEquals(List.of(killBlocker, restart), problem.actions());
+        assertEquals(Set.of("service_web_healthy", "port_blocked"), problem.factNames());
+    }
+
+    @Test
+    void whenSameGoalShapeIsAnalyzedAgain_thenCachedProblemIsReusedUntilCatalogChanges() {
+        // Arrange
+        RelevantProblem first = analyzer.analyze(Map.of("service_web_healthy", true), "v1", catalog);
+
+        // Act
+        RelevantProblem again = analyzer.analyze(Map.of("service_web_healthy", true), "v1", catalog);
+        RelevantProblem reloaded = analyzer.analyze(Map.of("service_web_healthy", true), "v2", new ArrayList<>(catalog));
+
+        // Assert: a mesma lista mantém o domínio compilado do recorte no planner
+        assertSame(first.actions(), again.actions());
+        assertNotSame(first, reloaded);
+    }
+
+    @Test
+    void whenNewCatalogIsPrepared_thenKnownGoalsGetTheSubsetsSearchesWillUse() {
+        // Arrange: um objetivo conhecido de antemão e outro já planejado com o catálogo em uso
+        analyzer.addKnownGoal(Map.of("service_web_healthy", true));
+        RelevantProblem live = analyzer.analyze(Map.of("service_db_healthy", true), "v1", catalog);
+        List<Action> reloaded = new ArrayList<>(catalog);
+
+        // Act
+        List<RelevantProblem> prepared = analyzer.prepare("v2", reloaded);
+
+        // Assert: os recortes preparados são os que a busca recebe, e os da versão em uso continuam
+        assertEquals(2, prepared.size());
+        RelevantProblem web = analyzer.analyze(Map.of("service_web_healthy", true), "v2", reloaded);
+        RelevantProblem database = analyzer.analyze(Map.of("service_db_healthy", true), "v2", reloaded);
+        assertTrue(prepared.stream().anyMatch(problem -> problem == web));
+        assertTrue(prepared.stream().anyMatch(problem -> problem == database));
+        assertSame(live, analyzer.analyze(Map.of("service_db_healthy", true), "v1", catalog));
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.edsonuso.aoeplanner.application.usecase;
+
+import br.com.edsonuso.aoeplanner.application.coordination.DuplicatePlanSuppressor;
+import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
+import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.infrastructure.cache.TwoTierPlanCache;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeneratePlanUseCaseImplTest {
+
+    private final FactBaseRepositoryPort factPort = mock(FactBaseRepositoryPort.class);
+    private final ActionRepositoryPort actionPort = mock(ActionRepositoryPort.class);
+    private final PlanPublisher planPublisher = mock(PlanPublisher.class);
+    private final GoapPlanner planner = spy(new GoapPlanner());
+
+    private final Action restart = new Action("RestartWebService", Map.of("service_web_healthy", false), Map.of("service_web_healthy", true), 15, null);
+    private final Goal goal = new Goal("restore-web-service", 1, Map.of("service_web_healthy", true));
+
+    private GeneratePlanUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        when(actionPort.currentCatalog()).thenReturn(new ActionCatalog("v1", List.of(restart)));
+        when(planPublisher.publishAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        TwoTierPlanCache cache = new TwoTierPlanCache(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1), Optional.empty());
+        useCase = new GeneratePlanUseCaseImpl(factPort, actionPort, planPublisher, planner, cache);
+    }
+
+    @Test
+    void whenRelevantFactsAreUnchanged_thenPlanIsServedFromCache() {
+        // Só o fato irrelevante muda entre as chamadas
+        when(factPort.getFacts(any()))
+                .thenReturn(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_source", "APIServiceDown")))
+                .thenReturn(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_source", "HighCpuLoad")));
+
+        useCase.execute(goal);
+        useCase.execute(goal);
+
+        verify(planner, times(1)).findPlan(any(), any(), any());
+        verify(planPublisher, times(2)).publishAsync(any());
+    }
+
+    @Test
+    void whenRelevantFactChanges_thenPlannerRunsAgain() {
+        when(factPort.getFacts(any()))
+                .thenReturn(Set.of(new Fact("service_web_healthy", false)))
+                .thenReturn(Set.of(new Fact("service_web_healthy", "unknown")));
+
+        useCase.execute(goal);
+        useCase.execute(goal);
+
+        verify(planner, times(2)).findPlan(any(), any(), any());
+    }
+
+    @Test
+    void whenCatalogVersionChanges_thenCachedPlansAreDiscarded() {
+        when(factPort.getFacts(any())).thenReturn(Set.of(new Fact("service_web_healthy", false)));
+
+        useCase.execute(goal);
+        when(actionPort.currentCatalog()).thenReturn(new ActionCatalog("v2", List.of(restart)));
+        useCase.execute(goal);
+
+        verify(planner, times(2)).findPlan(any(), any(), any());
+    }
+
+    @Test
+    void whenCatalogHasUnrelatedActions_thenOnlyRelevantActionsAndFactsReachThePlanner() {
+        // Arrange: a ação do banco não produz nada que o objetivo precise
+        Action restartDatabase = new Action("RestartDatabase", Map.of("service_db_healthy", false), Map.of("service_db_healthy", true), 10, null);
+        when(actionPort.currentCatalog()).thenReturn(new ActionCatalog("v1", List.of(restartDatabase, restart)));
+        when(factPort.getFacts(any())).thenReturn(Set.of(new Fact("service_web_healthy", false)));
+
+        // Act
+        useCase.execute(goal);
+
+        // Assert
+        verify(factPort).getFacts(Set.of("service_web_healthy"));
+        verify(planner).findPlan(any(), eq(List.of(restart)), any());
+        verify(planPublisher).publishAsync(any());
+    }
+
+    @Test
+    void whenPublicationFails_thenTheSamePlanIsNotSuppressedOnTheNextRound() {
+        // Arrange: o broker recusa a primeira publicação (fila cheia)
+        when(factPort.getFacts(any())).thenReturn(Set.of(new Fact("service_web_healthy", false)));
+        when(planPublisher.publishAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("fila cheia")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        TwoTierPlanCache cache = new TwoTierPlanCache(true, 100, Duration.ofMinutes(1), Duration.ofMinutes(1), Optional.empty());
+        GeneratePlanUseCaseImpl suppressed = new GeneratePlanUseCaseImpl(factPort, actionPort,
+                new DuplicatePlanSuppressor(planPublisher, Duration.ofMinutes(1)), planner, cache);
+
+        // Act
+        suppressed.execute(goal);
+        suppressed.execute(goal);
+        suppressed.execute(goal);
+
+        // Assert: reenviado depois da falha e suprimido só depois da confirmação
+        verify(planPublisher, times(2)).publishAsync(any());
+    }
+
+    @Test
+    void whenNoPlanExists_thenNegativeResultIsCached() {
+        // Nenhuma ação leva o serviço de "unknown" para saudável
+        when(factPort.getFacts(any())).thenReturn(Set.of(new Fact("service_web_healthy", "unknown")));
+
+        useCase.execute(goal);
+        useCase.execute(goal);
+
+        verify(planner, times(1)).findPlan(any(), any(), any());
+    }
+}
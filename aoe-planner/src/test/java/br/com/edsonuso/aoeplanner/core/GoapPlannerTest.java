@@ -0,0 +1,183 @@
+package br.com.edsonuso.aoeplanner.core;
+
+import br.com.edsonuso.aoeplanner.core.search.Heuristic;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.SearchMode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoapPlannerTest {
+
+    private final GoapPlanner planner = new GoapPlanner();
+
+    private final Action killBlocker = new Action("KillProcessBlockingPort", Map.of("port_9090_in_use", true), Map.of("port_9090_in_use", false), 8, null);
+    private final Action restart = new Action("RestartWebService", Map.of("service_web_healthy", false, "port_9090_in_use", false), Map.of("service_web_healthy", true), 5, null);
+    private final List<Action> actions = List.of(killBlocker, restart);
+
+    @Test
+    void whenPortIsBlocked_thenPlanFreesPortBeforeRestart() {
+        // Fatos que nenhuma ação menciona não devem atrapalhar a busca
+        Set<Fact> facts = Set.of(
+                new Fact("service_web_healthy", false),
+                new Fact("port_9090_in_use", true),
+                new Fact("last_alert_source", "APIServiceDown")
+        );
+
+        Optional<Plan> plan = planner.findPlan(facts, actions, new Goal("restore", 1, Map.of("service_web_healthy", true)));
+
+        assertTrue(plan.isPresent(), "Um plano deveria ser encontrado.");
+        assertEquals(List.of("KillProcessBlockingPort", "RestartWebService"), plan.get().steps().stream().map(Action::getName).toList());
+        assertEquals(13, plan.get().totalCost());
+    }
+
+    @Test
+    void whenGoalDependsOnFactNoActionChanges_thenItIsResolvedAgainstCurrentFacts() {
+        Set<Fact> facts = Set.of(new Fact("region", "sa-east-1"), new Fact("service_web_healthy", true));
+
+        Optional<Plan> satisfied = planner.findPlan(facts, actions, new Goal("same-region", 1, Map.of("region", "sa-east-1")));
+        Optional<Plan> unreachable = planner.findPlan(facts, actions, new Goal("other-region", 1, Map.of("region", "us-east-1")));
+
+        assertTrue(satisfied.isPresent());
+        assertTrue(satisfied.get().steps().isEmpty(), "O objetivo já está satisfeito, o plano deve ser vazio.");
+        assertTrue(unreachable.isEmpty(), "Nenhuma ação altera a região, o objetivo é inalcançável.");
+    }
+
+    @Test
+    void whenGoalValueIsNotProducedByAnyAction_thenItOnlyHoldsWhileFactIsUntouched() {
+        // "unknown" não aparece em nenhuma ação: só vale se o fato já tiver esse valor
+        Set<Fact> facts = Set.of(new Fact("port_9090_in_use", "unknown"));
+
+        Optional<Plan> plan = planner.findPlan(facts, actions, new Goal("keep", 1, Map.of("port_9090_in_use", "unknown")));
+
+        assertTrue(plan.isPresent());
+        assertTrue(plan.get().steps().isEmpty());
+    }
+
+    @Test
+    void whenSearchIsRegressive_thenPlanMatchesForwardSearch() {
+        Set<Fact> facts = Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true));
+        Map<String, Object> desired = Map.of("service_web_healthy", true);
+
+        Optional<Plan> forward = planner.findPlan(facts, actions, new Goal("restore", 1, desired, SearchMode.FORWARD));
+        Optional<Plan> regression = planner.findPlan(facts, actions, new Goal("restore", 1, desired, SearchMode.REGRESSION));
+
+        assertTrue(regression.isPresent(), "A busca regressiva deveria encontrar um plano.");
+        assertEquals(forward.get().steps(), regression.get().steps(), "As ações devem sair na ordem de execução.");
+        assertEquals(13, regression.get().totalCost());
+    }
+
+    @Test
+    void whenSearchIsPortfolio_thenFirstPlanFoundIsReturned() {
+        Set<Fact> facts = Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true));
+
+        try {
+            Optional<Plan> plan = planner.findPlan(facts, actions,
+                    new Goal("restore", 1, Map.of("service_web_healthy", true), SearchMode.PORTFOLIO));
+
+            assertTrue(plan.isPresent(), "Alguma variante do portfólio deveria encontrar um plano.");
+            assertEquals(List.of("KillProcessBlockingPort", "RestartWebService"), plan.get().steps().stream().map(Action::getName).toList());
+        } finally {
+            planner.shutdown();
+        }
+    }
+
+    @Test
+    void whenSearchIsAnytime_thenPlanComesWithItsSuboptimalityBound() {
+        Set<Fact> facts = Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true));
+        AtomicReference<Double> bound = new AtomicReference<>();
+        planner.setSearchObserver((goal, strategy, statistics, plan, elapsedNanos) -> bound.set(statistics.suboptimalityBound()));
+
+        Optional<Plan> plan = planner.findPlan(facts, actions,
+                new Goal("restore", 5, Map.of("service_web_healthy", true), SearchMode.ANYTIME));
+
+        assertEquals(13, plan.get().totalCost());
+        assertEquals(1.0, bound.get(), "Com prazo de sobra a última rodada prova o ótimo.");
+    }
+
+    @Test
+    void whenGoalIsLessUrgent_thenAnytimeBudgetDoublesUpToTheMaximum() {
+        assertEquals(Duration.ofMillis(20), planner.anytimeBudget(1));
+        assertEquals(Duration.ofMillis(20), planner.anytimeBudget(0));
+        assertEquals(Duration.ofMillis(80), planner.anytimeBudget(3));
+        assertEquals(Duration.ofSeconds(2), planner.anytimeBudget(40));
+    }
+
+    @Test
+    void whenReplanningAfterFactsChange_thenPlanReflectsNewFacts() {
+        Goal goal = new Goal("restore", 1, Map.of("service_web_healthy", true));
+
+        // Primeira tentativa: porta bloqueada
+        Optional<Plan> first = planner.replan(
+                Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true)), actions, goal);
+        // O executor liberou a porta, mas o restart falhou
+        Optional<Plan> second = planner.replan(
+                Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", false)), actions, goal);
+
+        assertEquals(List.of("KillProcessBlockingPort", "RestartWebService"), first.get().steps().stream().map(Action::getName).toList());
+        assertEquals(List.of("RestartWebService"), second.get().steps().stream().map(Action::getName).toList());
+        assertEquals(5, second.get().totalCost());
+    }
+
+    @Test
+    void whenUsingRelaxedHeuristics_thenMemoryLeakChainIsPlanned() {
+        Action diagnose = new Action("DiagnoseMemoryLeak",
+                Map.of("service_web_memory_high", true, "restart_did_not_fix_memory", true),
+                Map.of("service_web_cache_corrupted", true), 5, null);
+        Action clearCache = new Action("ClearServiceCacheAndRestart",
+                Map.of("service_web_cache_corrupted", true),
+                Map.of("service_web_memory_high", false, "service_web_cache_corrupted", false, "restart_did_not_fix_memory", false), 25, null);
+        Set<Fact> facts = Set.of(new Fact("service_web_memory_high", true), new Fact("restart_did_not_fix_memory", true));
+        Goal goal = new Goal("memory", 1, Map.of("service_web_memory_high", false), SearchMode.FORWARD);
+
+        for (Heuristic heuristic : Heuristic.values()) {
+            planner.setHeuristic(heuristic);
+
+            Optional<Plan> plan = planner.findPlan(facts, List.of(diagnose, clearCache), goal);
+
+            assertTrue(plan.isPresent(), "Sem plano com a heurística " + heuristic);
+            assertEquals(List.of("DiagnoseMemoryLeak", "ClearServiceCacheAndRestart"), plan.get().steps().stream().map(Action::getName).toList());
+            assertEquals(30, plan.get().totalCost());
+        }
+    }
+
+    @Test
+    void whenGoalIsUnreachableEvenRelaxed_thenNoSearchIsNeeded() {
+        // Nada produz restart_did_not_fix_memory=true, então o diagnóstico nunca dispara
+        Action diagnose = new Action("DiagnoseMemoryLeak",
+                Map.of("restart_did_not_fix_memory", true), Map.of("service_web_cache_corrupted", true), 5, null);
+        Set<Fact> facts = Set.of(new Fact("restart_did_not_fix_memory", false));
+
+        Optional<Plan> plan = planner.findPlan(facts, List.of(diagnose), new Goal("diagnose", 1, Map.of("service_web_cache_corrupted", true)));
+
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void whenCalledFromVirtualThread_thenSearchRunsOnPlatformPool() throws InterruptedException {
+        Set<Fact> facts = Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true));
+        AtomicReference<Optional<Plan>> plan = new AtomicReference<>();
+
+        try {
+            Thread caller = Thread.ofVirtual().start(() ->
+                    plan.set(planner.findPlan(facts, actions, new Goal("restore", 1, Map.of("service_web_healthy", true)))));
+            caller.join(5000);
+
+            assertTrue(plan.get().isPresent(), "A thread virtual deveria receber o plano do pool de busca.");
+            assertEquals(13, plan.get().get().totalCost());
+        } finally {
+            planner.shutdown();
+        }
+    }
+}
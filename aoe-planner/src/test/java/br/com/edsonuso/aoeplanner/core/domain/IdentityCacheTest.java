@@ -0,0 +1,34 @@
+package br.com.edsonuso.aoeplanner.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdentityCacheTest {
+
+    @Test
+    void whenEqualListsAreDistinctInstances_thenEachGetsItsOwnEntryUntilEvicted() {
+        // Arrange
+        IdentityCache<List<String>, Integer> cache = new IdentityCache<>(2);
+        AtomicInteger loads = new AtomicInteger();
+        List<String> first = new ArrayList<>(List.of("RestartWebService"));
+        List<String> second = new ArrayList<>(List.of("RestartWebService"));
+        List<String> third = new ArrayList<>(List.of("KillProcessBlockingPort"));
+
+        // Act
+        cache.computeIfAbsent(first, list -> loads.incrementAndGet());
+        cache.computeIfAbsent(second, list -> loads.incrementAndGet());
+        cache.computeIfAbsent(first, list -> loads.incrementAndGet());
+        cache.computeIfAbsent(third, list -> loads.incrementAndGet());
+        cache.computeIfAbsent(first, list -> loads.incrementAndGet());
+        int reloadedSecond = cache.computeIfAbsent(second, list -> loads.incrementAndGet());
+
+        // Assert: "second" foi a menos usada quando "third" entrou
+        assertEquals(4, loads.get());
+        assertEquals(4, reloadedSecond);
+    }
+}
@@ -4,11 +4,13 @@ import br.com.edsonuso.aoeplanner.application.ports.out.ActionRepositoryPort;
 import br.com.edsonuso.aoeplanner.application.ports.out.FactBaseRepositoryPort;
 import br.com.edsonuso.aoeplanner.application.ports.out.PlanPublisher;
 import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
 import br.com.edsonuso.aoeplanner.model.Fact;
 import br.com.edsonuso.aoeplanner.model.Goal;
 import br.com.edsonuso.aoeplanner.model.Plan;
 import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +24,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -50,6 +55,11 @@ class GoalControllerTest {
     @MockBean
     private PlanPublisher planPublisher;
 
+    @BeforeEach
+    void setUp() {
+        when(planPublisher.publishAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
     @Test
     void whenGoalIsPosted_thenPlannerGeneratesAndPublishesCorrectPlan() throws Exception {
         // Arrange: Configurar o ambiente de teste
@@ -61,7 +71,7 @@ class GoalControllerTest {
         // 2. Definir as ações que o planejador pode usar
         // A ordem correta é: name, preconditions, effects, cost, executorInfo
         Action restartAction = new Action("RestartWebService", Collections.emptyMap(), Map.of("service_web_healthy", true), 1, null);
-        when(actionRepository.findAll()).thenReturn(List.of(restartAction));
+        when(actionRepository.currentCatalog()).thenReturn(new ActionCatalog(null, List.of(restartAction)));
 
         // 3. Definir o objetivo que queremos alcançar
         Goal goal = new Goal(
@@ -81,8 +91,9 @@ class GoalControllerTest {
 
         // Assert: Verificar os resultados
 
-        // 1. Verificar se o método publish foi chamado no nosso publisher mockado
-        verify(planPublisher).publish(payloadCaptor.capture());
+        // 1. Verificar se o método publish foi chamado no nosso publisher mockado; o
+        //    planejamento roda depois, num worker do coordenador, então a verificação espera por ele
+        verify(planPublisher, timeout(5000)).publishAsync(payloadCaptor.capture());
         Plan publishedPlan = payloadCaptor.getValue().plan();
 
         // 2. Verificar se o plano gerado está correto
@@ -105,7 +116,7 @@ class GoalControllerTest {
         // 2. Ações disponíveis, modeladas a partir do web_service_actions.yml
         Action killBlockerAction = new Action("KillProcessBlockingPort", Map.of("port_9090_in_use", true), Map.of("port_9090_in_use", false), 8, null);
         Action restartAction = new Action("RestartWebService", Map.of("service_web_healthy", false, "port_9090_in_use", false), Map.of("service_web_healthy", true), 5, null);
-        when(actionRepository.findAll()).thenReturn(List.of(killBlockerAction, restartAction));
+        when(actionRepository.currentCatalog()).thenReturn(new ActionCatalog(null, List.of(killBlockerAction, restartAction)));
 
         // 3. Objetivo final é o mesmo: serviço saudável.
         Goal goal = new Goal(
@@ -123,7 +134,7 @@ class GoalControllerTest {
                 .andExpect(status().isAccepted());
 
         // Assert
-        verify(planPublisher).publish(payloadCaptor.capture());
+        verify(planPublisher, timeout(5000)).publishAsync(payloadCaptor.capture());
         Plan publishedPlan = payloadCaptor.getValue().plan();
 
         assertNotNull(publishedPlan, "O plano não deve ser nulo.");
@@ -0,0 +1,28 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FactValueCodecTest {
+
+    @Test
+    void whenValueIsWrittenByGoExecutor_thenItIsReadWithMapperTypes() {
+        // O executor grava fmt.Sprintf("%v", valor): só strings simples
+        assertEquals(Boolean.TRUE, FactValueCodec.decode("true"));
+        assertEquals(Boolean.FALSE, FactValueCodec.decode("FALSE"));
+        assertEquals(9090, FactValueCodec.decode("9090"));
+        assertEquals(-3, FactValueCodec.decode("-3"));
+        assertEquals("sa-east-1", FactValueCodec.decode("sa-east-1"));
+        assertEquals("12abc", FactValueCodec.decode("12abc"));
+        assertEquals("99999999999", FactValueCodec.decode("99999999999"));
+        assertEquals("-", FactValueCodec.decode("-"));
+    }
+
+    @Test
+    void whenTypedValueIsEncoded_thenGoReadsThePlainString() {
+        assertEquals("true", FactValueCodec.encode(true));
+        assertEquals("42", FactValueCodec.encode(42));
+        assertEquals("unknown", FactValueCodec.encode("unknown"));
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryFactBaseRepositoryTest {
+
+    private final InMemoryFactBaseRepository repository = new InMemoryFactBaseRepository();
+
+    @Test
+    void whenFactsChange_thenChangesSinceAVersionHoldOnlyTheLatestValues() {
+        // Arrange
+        repository.updateFactBase(Set.of(new Fact("service_web_healthy", false), new Fact("port_9090_in_use", true)));
+        FactBaseSnapshot before = repository.getSnapshot();
+
+        // Act: a regravação do mesmo valor não conta como mudança
+        repository.updateFactBase(Set.of(new Fact("service_web_healthy", false)));
+        repository.updateFactBase(Set.of(new Fact("port_9090_in_use", false)));
+        repository.updateFactBase(Set.of(new Fact("port_9090_in_use", null)));
+        FactChanges changes = repository.getChangesSince(before.version());
+
+        // Assert
+        assertEquals(1, before.version());
+        assertEquals(3, repository.getVersion());
+        assertTrue(changes.complete());
+        assertEquals(List.of(new Fact("port_9090_in_use", null)), changes.facts());
+        assertEquals(Set.of(new Fact("service_web_healthy", false)), repository.getSnapshot().facts());
+        assertTrue(repository.getChangesSince(3).facts().isEmpty());
+    }
+
+    @Test
+    void whenChangeLogNoLongerReachesTheVersion_thenCallerMustResync() {
+        // Arrange
+        ReflectionTestUtils.setField(repository, "maxChanges", 2);
+        for (int i = 0; i < 4; i++) {
+            repository.updateFactBase(Set.of(new Fact("active_connections", i)));
+        }
+
+        // Act
+        FactChanges truncated = repository.getChangesSince(1);
+        FactChanges retained = repository.getChangesSince(2);
+        FactChanges unknown = repository.getChangesSince(9);
+
+        // Assert
+        assertFalse(truncated.complete());
+        assertTrue(retained.complete());
+        assertEquals(List.of(new Fact("active_connections", 3)), retained.facts());
+        assertFalse(unknown.complete());
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactBaseSnapshot;
+import br.com.edsonuso.aoeplanner.model.FactChanges;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NearCacheFactBaseRepositoryTest {
+
+    private final RedisFactBaseRepository delegate = mock(RedisFactBaseRepository.class);
+    private final RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+
+    @SuppressWarnings("unchecked")
+    private final NearCacheFactBaseRepository repository = new NearCacheFactBaseRepository(
+            delegate, mock(RedisTemplate.class), listenerContainer, new SimpleMeterRegistry(), "fact-base", Duration.ofMinutes(1), false);
+
+    @BeforeEach
+    void setUp() {
+        when(listenerContainer.isListening()).thenReturn(true);
+        when(delegate.getSnapshot()).thenAnswer(invocation -> new FactBaseSnapshot(7, new HashSet<>(Set.of(new Fact("service_web_healthy", false)))));
+    }
+
+    @Test
+    void whenNothingChanged_thenReadsAreServedLocally() {
+        repository.getCurrentFactBase();
+        Set<Fact> facts = repository.getCurrentFactBase();
+
+        assertEquals(Set.of(new Fact("service_web_healthy", false)), facts);
+        verify(delegate, times(1)).getSnapshot();
+    }
+
+    @Test
+    void whenKeyspaceNotificationArrives_thenNextReadResyncs() {
+        repository.getCurrentFactBase();
+        long before = repository.version();
+
+        // O executor alterou o hash
+        repository.onMessage(null, null);
+        repository.getCurrentFactBase();
+
+        verify(delegate, times(2)).getSnapshot();
+        assertEquals(before + 1, repository.version());
+    }
+
+    @Test
+    void whenFieldsAreReadByName_thenOnlyUnknownFieldsGoToRedisUntilTheHashChanges() {
+        when(delegate.getFacts(Set.of("service_web_healthy"))).thenReturn(new HashSet<>(Set.of(new Fact("service_web_healthy", false))));
+        when(delegate.getFacts(Set.of("service_db_healthy"))).thenReturn(new HashSet<>());
+
+        repository.getFacts(Set.of("service_web_healthy"));
+        Set<Fact> facts = repository.getFacts(Set.of("service_web_healthy", "service_db_healthy"));
+        repository.getFacts(Set.of("service_db_healthy"));
+        repository.onMessage(null, null);
+        repository.getFacts(Set.of("service_web_healthy"));
+
+        // O campo ausente também fica guardado; a notificação descarta os dois
+        assertEquals(Set.of(new Fact("service_web_healthy", false)), facts);
+        verify(delegate, times(2)).getFacts(Set.of("service_web_healthy"));
+        verify(delegate, times(1)).getFacts(Set.of("service_db_healthy"));
+        verify(delegate, times(0)).getSnapshot();
+    }
+
+    @Test
+    void whenLocalCopyIsAtTheAskedVersion_thenChangesAreAnsweredWithoutRedis() {
+        when(delegate.getChangesSince(5)).thenReturn(new FactChanges(5, 7, true, List.of()));
+        repository.getSnapshot();
+
+        FactChanges none = repository.getChangesSince(7);
+        repository.getChangesSince(5);
+        repository.onMessage(null, null);
+        repository.getChangesSince(7);
+
+        // Depois da notificação a cópia não vale mais e a pergunta vai ao log no Redis
+        assertTrue(none.complete());
+        assertEquals(7, none.version());
+        verify(delegate, times(1)).getChangesSince(5);
+        verify(delegate, times(1)).getChangesSince(7);
+    }
+
+    @Test
+    void whenSubscriptionIsDown_thenReadsGoToRedisAndResyncOnRecovery() {
+        when(listenerContainer.isListening()).thenReturn(false, false, true, true);
+
+        repository.getCurrentFactBase();
+        repository.getCurrentFactBase();
+        repository.getCurrentFactBase();
+        repository.getCurrentFactBase();
+
+        // Duas leituras sem assinatura, um resync ao voltar e depois a cópia local
+        verify(delegate, times(3)).getSnapshot();
+    }
+
+    @Test
+    void whenFlagsAreMissing_thenOnlyRequiredOnesAreAdded() {
+        assertEquals("Kghx", NearCacheFactBaseRepository.withRequiredFlags(""));
+        assertEquals("ExKgh", NearCacheFactBaseRepository.withRequiredFlags("Ex"));
+        assertEquals("AK", NearCacheFactBaseRepository.withRequiredFlags("A"));
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.edsonuso.aoeplanner.infrastructure.repository;
+
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogReload;
+import br.com.edsonuso.aoeplanner.model.ActionCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YamlActionRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private final YamlActionRepository repository =
+            new YamlActionRepository(new StaticListableBeanFactory().getBeanProvider(GoapPlanner.class));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("restart.yml", "RestartWebService", 5);
+        ReflectionTestUtils.setField(repository, "actionsPath", directory.toUri() + "*.yml");
+        repository.initialize();
+    }
+
+    @Test
+    void whenActionFileChanges_thenReloadSwapsVersionAndActionsTogether() throws IOException {
+        // Arrange
+        ActionCatalog before = repository.currentCatalog();
+        write("restart.yml", "RestartWebService", 8);
+
+        // Act
+        CatalogReload reload = repository.reload();
+
+        // Assert
+        ActionCatalog after = repository.currentCatalog();
+        assertTrue(reload.changed());
+        assertNotEquals(before.version(), after.version());
+        assertEquals(reload.version(), after.version());
+        assertEquals(8, after.actions().get(0).getCost());
+        assertEquals(5, before.actions().get(0).getCost());
+    }
+
+    @Test
+    void whenNewCatalogIsInvalid_thenCurrentVersionStaysInUse() throws IOException {
+        // Arrange: o mesmo nome em dois arquivos
+        ActionCatalog before = repository.currentCatalog();
+        write("duplicate.yml", "RestartWebService", 3);
+
+        // Act
+        assertThrows(IllegalArgumentException.class, repository::reload);
+
+        // Assert
+        assertSame(before, repository.currentCatalog());
+        Files.delete(directory.resolve("duplicate.yml"));
+        assertFalse(repository.reload().changed());
+    }
+
+    private void write(String file, String name, int cost) throws IOException {
+        Files.writeString(directory.resolve(file), """
+                - name: %s
+                  preconditions: {}
+                  effects:
+                    service_web_healthy: true
+                  cost: %d
+                """.formatted(name, cost));
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.edsonuso.aoeplanner.infrastructure.service;
+
+import br.com.edsonuso.aoeplanner.application.ports.in.GeneratePlanUseCase;
+import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertIngestPipelineTest {
+
+    private final DeclarativeAlertMapper mapper = mock(DeclarativeAlertMapper.class);
+    private final FactUpdaterService factUpdaterService = mock(FactUpdaterService.class);
+    private final GeneratePlanUseCase generatePlanUseCase = mock(GeneratePlanUseCase.class);
+
+    private final AlertmanagerWebhookPayload.Alert apiDownA = new AlertmanagerWebhookPayload.Alert(Map.of("alertname", "APIServiceDown", "instance", "a"), "firing");
+    private final AlertmanagerWebhookPayload.Alert apiDownB = new AlertmanagerWebhookPayload.Alert(Map.of("alertname", "APIServiceDown", "instance", "b"), "firing");
+
+    @Test
+    void whenWebhookGroupsAlerts_thenFactsAreWrittenOnceAndEachGoalIsPlannedOnce() {
+        // Arrange
+        when(mapper.map(apiDownA)).thenReturn(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_instance", "a")));
+        when(mapper.map(apiDownB)).thenReturn(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_instance", "b")));
+        when(mapper.goalFor(any())).thenAnswer(invocation ->
+                Optional.of(new Goal("restore-web-service-via-alert", 1, Map.of("service_web_healthy", true))));
+        AlertIngestPipeline pipeline = new AlertIngestPipeline(mapper, factUpdaterService, generatePlanUseCase, null);
+
+        // Act
+        pipeline.process(new AlertmanagerWebhookPayload(List.of(apiDownA, apiDownB)));
+
+        // Assert: o último alerta vence no delta e o objetivo repetido é planejado uma vez
+        verify(factUpdaterService, times(1)).persistFacts(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_instance", "b")));
+        verify(generatePlanUseCase, times(1)).execute(any(Goal.class));
+    }
+
+    @Test
+    void whenQueueIsFull_thenWebhookIsRejected() throws InterruptedException {
+        // Arrange: um worker ocupado e fila de uma posição
+        CountDownLatch release = new CountDownLatch(1);
+        when(mapper.map(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Set.of();
+        });
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        AlertIngestPipeline pipeline = new AlertIngestPipeline(mapper, factUpdaterService, generatePlanUseCase, executor);
+        AlertmanagerWebhookPayload payload = new AlertmanagerWebhookPayload(List.of(apiDownA));
+
+        // Act
+        boolean first = pipeline.submit(payload);
+        boolean second = pipeline.submit(payload);
+        boolean third = pipeline.submit(payload);
+        release.countDown();
+        pipeline.shutdown();
+
+        // Assert
+        assertTrue(first && second);
+        assertFalse(third, "Com a fila cheia o webhook deve ser recusado.");
+    }
+}
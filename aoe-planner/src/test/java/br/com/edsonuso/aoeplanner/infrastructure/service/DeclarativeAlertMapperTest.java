@@ -0,0 +1,131 @@
+package br.com.edsonuso.aoeplanner.infrastructure.service;
+
+import br.com.edsonuso.aoeplanner.application.relevance.RelevanceAnalyzer;
+import br.com.edsonuso.aoeplanner.application.relevance.RelevantProblem;
+import br.com.edsonuso.aoeplanner.infrastructure.controller.dto.AlertmanagerWebhookPayload;
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.AlertMapping;
+import br.com.edsonuso.aoeplanner.model.Fact;
+import br.com.edsonuso.aoeplanner.model.FactMapping;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.GoalMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeclarativeAlertMapperTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeclarativeAlertMapper alertMapper = new DeclarativeAlertMapper(meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        alertMapper.compile(List.of(
+                mapping("APIServiceDown", Map.of("service", "aoe-target-app"),
+                        fact("service_web_healthy", "false"),
+                        fact("last_alert_source", "{{ .CommonLabels.alertname }}")),
+                mapping("HighCpuLoad", Map.of("severity", "warning", "team", "infra"),
+                        fact("cpu_load_high", "true"),
+                        fact("host_with_high_cpu", "{{ .labels.instance }}")),
+                mapping("HighCpuLoad", null,
+                        fact("cpu_alerts_seen", "1"))
+        ));
+    }
+
+    @Test
+    void whenLabelsMatch_thenFactsAreTypedAndTemplatesResolved() {
+        Set<Fact> facts = alertMapper.map(alert(Map.of("alertname", "APIServiceDown", "service", "aoe-target-app")));
+
+        assertEquals(Set.of(new Fact("service_web_healthy", false), new Fact("last_alert_source", "APIServiceDown")), facts);
+    }
+
+    @Test
+    void whenSeveralMappingsShareAlertName_thenEveryMatchingGroupContributes() {
+        Set<Fact> facts = alertMapper.map(alert(Map.of(
+                "alertname", "HighCpuLoad", "severity", "warning", "team", "infra", "instance", "node-1")));
+
+        assertEquals(Set.of(
+                new Fact("cpu_load_high", true),
+                new Fact("host_with_high_cpu", "node-1"),
+                new Fact("cpu_alerts_seen", 1)), facts);
+    }
+
+    @Test
+    void whenARequiredLabelIsMissingOrDifferent_thenMappingDoesNotApply() {
+        assertTrue(alertMapper.map(alert(Map.of("alertname", "APIServiceDown", "service", "other"))).isEmpty());
+        assertEquals(Set.of(new Fact("cpu_alerts_seen", 1)),
+                alertMapper.map(alert(Map.of("alertname", "HighCpuLoad", "severity", "warning"))));
+        assertTrue(alertMapper.map(alert(Map.of("alertname", "Unknown"))).isEmpty());
+    }
+
+    @Test
+    void whenAlertProducesNoFacts_thenItIsCountedAsUnmatched() {
+        alertMapper.map(alert(Map.of("alertname", "Unknown")));
+        alertMapper.map(alert(Map.of("alertname", "APIServiceDown", "service", "aoe-target-app")));
+
+        assertEquals(1.0, meterRegistry.counter("planner.alerts.unmatched", "alertname", "Unknown").count());
+        assertEquals(2L, meterRegistry.get("planner.alerts.mapping").timers().stream().mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void whenTemplateLabelIsAbsent_thenTemplateTextIsKept() {
+        Set<Fact> facts = alertMapper.map(alert(Map.of("alertname", "HighCpuLoad", "severity", "warning", "team", "infra")));
+
+        assertTrue(facts.contains(new Fact("host_with_high_cpu", "{{ .labels.instance }}")));
+    }
+
+    @Test
+    void whenMatchingMappingDeclaresAGoal_thenGoalIsCreatedAndRegisteredForRelevance() {
+        // Arrange
+        AlertMapping apiDown = mapping("APIServiceDown", Map.of("service", "aoe-target-app"), fact("service_web_healthy", "false"));
+        GoalMapping goal = new GoalMapping();
+        goal.setName("restore-web-service-via-alert");
+        goal.setPriority(1);
+        goal.setDesiredState(Map.of("service_web_healthy", true));
+        apiDown.setGoal(goal);
+        RelevanceAnalyzer relevance = new RelevanceAnalyzer();
+        Action restart = new Action("RestartWebService", Map.of("service_web_healthy", false), Map.of("service_web_healthy", true), 5, null);
+        Action restartDatabase = new Action("RestartDatabase", Map.of(), Map.of("service_db_healthy", true), 5, null);
+        DeclarativeAlertMapper mapper = new DeclarativeAlertMapper(meterRegistry);
+        mapper.setRelevance(relevance);
+
+        // Act
+        mapper.compile(List.of(apiDown));
+        Optional<Goal> created = mapper.goalFor(alert(Map.of("alertname", "APIServiceDown", "service", "aoe-target-app")));
+        Optional<Goal> otherService = mapper.goalFor(alert(Map.of("alertname", "APIServiceDown", "service", "other")));
+        List<RelevantProblem> prepared = relevance.prepare("v1", List.of(restartDatabase, restart));
+
+        // Assert
+        assertEquals(Optional.of(new Goal("restore-web-service-via-alert", 1, Map.of("service_web_healthy", true))), created);
+        assertTrue(otherService.isEmpty());
+        assertEquals(1, prepared.size());
+        assertEquals(List.of(restart), prepared.get(0).actions());
+    }
+
+    private static AlertmanagerWebhookPayload.Alert alert(Map<String, String> labels) {
+        return new AlertmanagerWebhookPayload.Alert(labels, "firing");
+    }
+
+    private static AlertMapping mapping(String alertName, Map<String, String> matches, FactMapping... facts) {
+        AlertMapping mapping = new AlertMapping();
+        mapping.setAlertName(alertName);
+        mapping.setMatches(matches);
+        mapping.setFacts(List.of(facts));
+        return mapping;
+    }
+
+    private static FactMapping fact(String name, String value) {
+        FactMapping fact = new FactMapping();
+        fact.setName(name);
+        fact.setValue(value);
+        return fact;
+    }
+}
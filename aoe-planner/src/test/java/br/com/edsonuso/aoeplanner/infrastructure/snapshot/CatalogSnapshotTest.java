@@ -0,0 +1,86 @@
+package br.com.edsonuso.aoeplanner.infrastructure.snapshot;
+
+import br.com.edsonuso.aoeplanner.infrastructure.reload.CatalogFiles;
+import br.com.edsonuso.aoeplanner.infrastructure.repository.YamlActionRepository;
+import br.com.edsonuso.aoeplanner.model.Action;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private Path snapshotFile;
+    private String pattern;
+    private CatalogFiles files;
+    private List<Action> actions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(directory.resolve("actions"));
+        Files.writeString(directory.resolve("actions/restart.yml"), """
+                - name: RestartWebService
+                  preconditions:
+                    service_web_healthy: false
+                  effects:
+                    service_web_healthy: true
+                  cost: 5
+                """);
+        snapshotFile = directory.resolve("catalog.snapshot");
+        pattern = directory.toUri() + "actions/*.yml";
+        files = CatalogFiles.read(pattern);
+        actions = YamlActionRepository.parse(files).actions();
+        new CatalogSnapshot(true, snapshotFile.toString(), true).store("actions", pattern, files, actions);
+    }
+
+    @Test
+    void whenSnapshotIsReopened_thenSectionDecodesToTheStoredCatalog() throws IOException {
+        // Arrange
+        CatalogSnapshot snapshot = new CatalogSnapshot(true, snapshotFile.toString(), true);
+
+        // Act
+        Optional<CatalogSnapshot.Section> section = snapshot.find("actions", pattern);
+
+        // Assert
+        assertTrue(section.isPresent());
+        assertEquals(files.version(), section.get().version());
+        assertEquals(actions, snapshot.decode(section.get(), new TypeReference<List<Action>>() {}));
+    }
+
+    @Test
+    void whenSourcesChangeOrPatternDiffers_thenSectionIsNotUsed() throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("actions/other.yml"), "[]");
+        CatalogSnapshot snapshot = new CatalogSnapshot(true, snapshotFile.toString(), true);
+
+        // Act & Assert
+        assertTrue(snapshot.find("actions", pattern).isEmpty());
+        assertTrue(snapshot.find("actions", "classpath:actions/*.yml").isEmpty());
+    }
+
+    @Test
+    void whenSectionIsCorrupted_thenDecodeFailsTheChecksum() throws IOException {
+        // Arrange: o último byte do arquivo pertence ao conteúdo da seção
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshotFile, bytes);
+        CatalogSnapshot snapshot = new CatalogSnapshot(true, snapshotFile.toString(), true);
+        CatalogSnapshot.Section section = snapshot.find("actions", pattern).orElseThrow();
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> snapshot.decode(section, new TypeReference<List<Action>>() {}));
+    }
+}
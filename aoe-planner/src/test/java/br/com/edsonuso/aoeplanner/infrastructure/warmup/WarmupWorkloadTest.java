@@ -0,0 +1,25 @@
+package br.com.edsonuso.aoeplanner.infrastructure.warmup;
+
+import br.com.edsonuso.aoeplanner.core.GoapPlanner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WarmupWorkloadTest {
+
+    @Test
+    void whenRun_thenSyntheticProblemsBehaveAsExpectedInEveryRound() {
+        // Arrange
+        WarmupWorkload workload = new WarmupWorkload();
+        GoapPlanner planner = new GoapPlanner();
+
+        // Act: a primeira rodada falha se algum objetivo não tiver o desfecho esperado
+        int completed = workload.run(planner, workload.alertMapper(new SimpleMeterRegistry()), 3, Duration.ofMinutes(1));
+
+        // Assert
+        assertEquals(3, completed);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.edsonuso.aoeplanner.publisher;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
+import br.com.edsonuso.aoeplanner.model.PlanReference;
+import br.com.edsonuso.aoeplanner.publisher.PlanDispatchCodec.Encoding;
+import br.com.edsonuso.aoeplanner.publisher.PlanDispatchCodec.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlanDispatchCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Goal goal = new Goal("restore-web", 1, Map.of("service_web_healthy", true));
+    private final Action killBlocker = new Action("KillProcessBlockingPort", Map.of("port_9090_in_use", true), Map.of("port_9090_in_use", false), 8, null);
+    private final Action restart = new Action("RestartWebService", Map.of("port_9090_in_use", false), Map.of("service_web_healthy", true), 5, null);
+    private final Plan plan = new Plan(goal, List.of(killBlocker, restart), 13);
+
+    @Test
+    void whenFormatIsReference_thenActionsTravelByNameWithCatalogVersion() throws IOException {
+        // Arrange
+        PlanDispatchCodec codec = new PlanDispatchCodec(objectMapper, Format.REFERENCE, Encoding.JSON, 0);
+
+        // Act
+        Message message = codec.encode(new PlanDispatchPayload(goal, plan, "v1"));
+
+        // Assert
+        assertEquals(PlanDispatchCodec.REFERENCE_JSON, message.getMessageProperties().getContentType());
+        assertNull(message.getMessageProperties().getContentEncoding());
+        PlanReference reference = objectMapper.readValue(message.getBody(), PlanReference.class);
+        assertEquals(List.of("KillProcessBlockingPort", "RestartWebService"), reference.steps());
+        assertEquals("v1", reference.catalogVersion());
+        assertEquals(13, reference.totalCost());
+        assertEquals("restore-web", reference.targetGoal().name());
+    }
+
+    @Test
+    void whenBodyExceedsThreshold_thenCborIsGzipped() throws IOException {
+        // Arrange
+        PlanDispatchCodec codec = new PlanDispatchCodec(objectMapper, Format.REFERENCE, Encoding.CBOR, 1);
+
+        // Act
+        Message message = codec.encode(new PlanDispatchPayload(goal, plan, "v1"));
+
+        // Assert
+        assertEquals(PlanDispatchCodec.REFERENCE_CBOR, message.getMessageProperties().getContentType());
+        assertEquals(PlanDispatchCodec.GZIP, message.getMessageProperties().getContentEncoding());
+        byte[] cbor = new GZIPInputStream(new ByteArrayInputStream(message.getBody())).readAllBytes();
+        PlanReference reference = new CBORMapper().readValue(cbor, PlanReference.class);
+        assertEquals(List.of("KillProcessBlockingPort", "RestartWebService"), reference.steps());
+        assertEquals(Map.of("service_web_healthy", true), reference.targetGoal().desiredState());
+    }
+
+    @Test
+    void whenCatalogVersionIsUnknownOrFormatIsFull_thenPlanIsSentInFull() {
+        PlanDispatchCodec reference = new PlanDispatchCodec(objectMapper, Format.REFERENCE, Encoding.JSON, 0);
+        PlanDispatchCodec full = new PlanDispatchCodec(objectMapper, Format.FULL, Encoding.JSON, 0);
+
+        assertFalse(reference.byReference(new PlanDispatchPayload(goal, plan)));
+        assertFalse(full.byReference(new PlanDispatchPayload(goal, plan, "v1")));
+    }
+}
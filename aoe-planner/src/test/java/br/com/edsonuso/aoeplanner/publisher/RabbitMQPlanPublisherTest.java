@@ -0,0 +1,121 @@
+package br.com.edsonuso.aoeplanner.publisher;
+
+import br.com.edsonuso.aoeplanner.model.Action;
+import br.com.edsonuso.aoeplanner.model.Goal;
+import br.com.edsonuso.aoeplanner.model.Plan;
+import br.com.edsonuso.aoeplanner.model.PlanDispatchPayload;
+import br.com.edsonuso.aoeplanner.publisher.PlanDispatchCodec.Encoding;
+import br.com.edsonuso.aoeplanner.publisher.PlanDispatchCodec.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.edsonuso.aoeplanner.support.Await.waitUntil;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RabbitMQPlanPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final List<CorrelationData> correlations = new CopyOnWriteArrayList<>();
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+    private final Action restart = new Action("RestartWebService", Map.of("service_web_healthy", false), Map.of("service_web_healthy", true), 5, null);
+
+    private RabbitMQPlanPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<Object> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitTemplate);
+        });
+        // O broker só confirma quando o teste completa a correlação
+        doAnswer(invocation -> {
+            messages.add(invocation.getArgument(2));
+            correlations.add(invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        PlanDispatchCodec codec = new PlanDispatchCodec(new ObjectMapper(), Format.FULL, Encoding.JSON, 1024);
+        publisher = new RabbitMQPlanPublisher(rabbitTemplate, new SimpleMeterRegistry(), codec,
+                16, 4, 64, 3, Duration.ofMillis(1), Duration.ofSeconds(5));
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.shutdown();
+    }
+
+    @Test
+    void whenBrokerNacksFirstAttempt_thenPlanIsRetriedUntilConfirmed() throws Exception {
+        // Arrange
+        CompletableFuture<Void> result = publisher.publishAsync(payload("restore-web", 5));
+        waitUntil(() -> correlations.size() == 1);
+
+        // Act
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(false, "fila cheia"));
+        waitUntil(() -> correlations.size() == 2);
+        assertFalse(result.isDone());
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert: a mesma mensagem reenviada com uma nova correlação
+        result.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(messages.get(0).getBody(), messages.get(1).getBody());
+        assertNotEquals(correlations.get(0).getId(), correlations.get(1).getId());
+    }
+
+    @Test
+    void whenGoalHasPlanAwaitingConfirm_thenNextPlanOfSameGoalWaits() throws Exception {
+        // Arrange
+        CompletableFuture<Void> first = publisher.publishAsync(payload("restore-web", 5));
+        CompletableFuture<Void> second = publisher.publishAsync(payload("restore-web", 7));
+        CompletableFuture<Void> other = publisher.publishAsync(payload("restore-db", 5));
+
+        // Act: o outro objetivo segue em paralelo; o segundo plano espera o primeiro
+        waitUntil(publisher::isDispatchIdle);
+        assertEquals(2, correlations.size());
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+        waitUntil(() -> correlations.size() == 3);
+        correlations.get(2).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        CompletableFuture.allOf(first, second, other).get(5, TimeUnit.SECONDS);
+        String last = new String(messages.get(2).getBody(), StandardCharsets.UTF_8);
+        assertTrue(last.contains("\"totalCost\":7"), last);
+    }
+
+    private PlanDispatchPayload payload(String goalName, int cost) {
+        Goal goal = new Goal(goalName, 1, Map.of("service_web_healthy", true));
+        return new PlanDispatchPayload(goal, new Plan(goal, List.of(restart), cost));
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.edsonuso.aoeplanner.support;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Espera de condições nos testes de componentes assíncronos. Para verificar que algo
+ * não aconteceu, espere o componente ficar ocioso e só então verifique.
+ */
+public final class Await {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private Await() {
+    }
+
+    public static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "Condição não atingida em " + TIMEOUT_MILLIS + " ms.");
+    }
+}
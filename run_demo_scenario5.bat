@@ -8,8 +8,8 @@ echo #################################################################
 echo.
 echo Simulando deteccao de alto uso de memoria no 'aoe-target-app'...
 echo.
-docker exec redis redis-cli SET fact:service_web_memory_high true > nul
-docker exec redis redis-cli SET fact:restart_did_not_fix_memory false > nul
+docker exec redis redis-cli HSET fact-base service_web_memory_high true > nul
+docker exec redis redis-cli HSET fact-base restart_did_not_fix_memory false > nul
 echo Fatos iniciais definidos no Redis:
 echo   - service_web_memory_high: true
 echo   - restart_did_not_fix_memory: false